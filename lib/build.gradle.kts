@@ -16,6 +16,7 @@ plugins {
     `java-library`
     alias(libs.plugins.maven.publish)
     alias(libs.plugins.gradle.release)
+    alias(libs.plugins.jmh)
 }
 
 repositories {
@@ -31,9 +32,12 @@ tasks.getByName<Test>("test") {
     useJUnitPlatform()
 }
 
+jmh {
+    profilers = listOf("gc")
+}
+
 dependencies {
-    implementation(libs.jackson.dataformat.xml)
-    implementation(libs.apache.commons.text)
+    implementation(libs.jackson.databind)
 
     testRuntimeOnly(libs.junit.jupiter.platform.launcher)
     testImplementation(libs.junit.jupiter)
@@ -0,0 +1,94 @@
+package io.github.thoroldvix.internal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.thoroldvix.api.Transcript;
+import io.github.thoroldvix.api.TranscriptList;
+import io.github.thoroldvix.api.TranscriptRetrievalException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Compares the streaming captions JSON parsing of {@link TranscriptListExtractor} with the tree based parsing it replaced.
+ * Run with {@code ./gradlew jmh} from the repository root, allocation per page is reported by the gc profiler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CaptionsParseBenchmark {
+
+    private static final String PAGES_PATH = "src/test/resources/pages";
+    private static final String VIDEO_ID = "dQw4w9WgXcQ";
+
+    @Param({"youtube.html.static", "youtube_no_translation.html.static"})
+    public String page;
+
+    private VideoPage videoPage;
+    private String captionsJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        videoPage = VideoPage.scan(Files.readString(Path.of(PAGES_PATH, page)));
+        captionsJson = videoPage.captionsJson();
+    }
+
+    @Benchmark
+    public TranscriptList legacyTree() throws IOException {
+        JsonNode json = new ObjectMapper().readTree(captionsJson).get("playerCaptionsTracklistRenderer");
+        return new DefaultTranscriptList(VIDEO_ID,
+                legacyTranscripts(json, node -> !node.has("kind")),
+                legacyTranscripts(json, node -> node.has("kind")),
+                legacyTranslationLanguages(json));
+    }
+
+    @Benchmark
+    public TranscriptList streaming() throws TranscriptRetrievalException {
+        return new TranscriptListExtractor(null, VIDEO_ID, null).extract(videoPage);
+    }
+
+    private static Map<String, String> legacyTranslationLanguages(JsonNode json) {
+        if (!json.has("translationLanguages")) {
+            return Collections.emptyMap();
+        }
+        return StreamSupport.stream(json.get("translationLanguages").spliterator(), false)
+                .collect(Collectors.toMap(
+                        node -> node.get("languageCode").asText(),
+                        node -> node.get("languageName").get("simpleText").asText()
+                ));
+    }
+
+    private static Map<String, Transcript> legacyTranscripts(JsonNode json, Predicate<JsonNode> filter) {
+        Map<String, String> translationLanguages = legacyTranslationLanguages(json);
+        return StreamSupport.stream(json.get("captionTracks").spliterator(), false)
+                .filter(filter)
+                .map(node -> new DefaultTranscript(null, VIDEO_ID,
+                        node.get("baseUrl").asText(),
+                        node.get("name").get("simpleText").asText(),
+                        node.get("languageCode").asText(),
+                        node.has("kind"),
+                        translationLanguages))
+                .collect(Collectors.toMap(Transcript::getLanguageCode, transcript -> transcript, (existing, replacement) -> existing));
+    }
+}
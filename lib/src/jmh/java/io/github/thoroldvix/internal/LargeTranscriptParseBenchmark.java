@@ -0,0 +1,58 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.TranscriptContent;
+import io.github.thoroldvix.api.TranscriptRetrievalException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sequential and chunked parallel parsing of XML transcripts of long livestreams, with a fragment every two seconds.
+ * Run with {@code ./gradlew jmh} from the repository root.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LargeTranscriptParseBenchmark {
+
+    private static final String VIDEO_ID = "dQw4w9WgXcQ";
+
+    @Param({"4", "12"})
+    public int hours;
+
+    private String xml;
+
+    @Setup
+    public void setUp() {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"utf-8\" ?><transcript>");
+        int fragments = hours * 60 * 30;
+        for (int i = 0; i < fragments; i++) {
+            xml.append("<text start=\"").append(i * 2).append(".0\" dur=\"2.5\">")
+                    .append("this is fragment number ").append(i).append(" &amp;amp; it&amp;#39;s generated</text>\n");
+        }
+        this.xml = xml.append("</transcript>").toString();
+    }
+
+    @Benchmark
+    public TranscriptContent sequential() throws TranscriptRetrievalException {
+        return new TranscriptContentExtractor(VIDEO_ID, Integer.MAX_VALUE).extract(xml);
+    }
+
+    @Benchmark
+    public TranscriptContent parallel() throws TranscriptRetrievalException {
+        return new TranscriptContentExtractor(VIDEO_ID, 0).extract(xml);
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.TranscriptContent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the columnar {@link DefaultTranscriptContent} with a list of fragment objects, which it replaced.
+ * <p>
+ * The {@code build} benchmarks allocate little besides the content itself, so the normalized allocation rate reported by
+ * the gc profiler approximates the heap footprint of each representation. Run with {@code ./gradlew jmh} from the repository root.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranscriptContentFootprintBenchmark {
+
+    @Param({"1000", "30000"})
+    public int fragments;
+
+    private String[] texts;
+    private List<DefaultTranscriptContent.Fragment> fragmentList;
+    private TranscriptContent columnar;
+
+    @Setup
+    public void setUp() {
+        texts = new String[fragments];
+        for (int i = 0; i < fragments; i++) {
+            texts[i] = "this is fragment number " + i + " of a long live stream";
+        }
+        fragmentList = buildFragmentList();
+        columnar = buildColumnar();
+    }
+
+    @Benchmark
+    public List<DefaultTranscriptContent.Fragment> buildFragmentList() {
+        List<DefaultTranscriptContent.Fragment> content = new ArrayList<>(fragments);
+        for (int i = 0; i < fragments; i++) {
+            // copied like the parsers do, so that the texts count towards the footprint
+            content.add(new DefaultTranscriptContent.Fragment(new String(texts[i].toCharArray()), i * 2.0, 2.0));
+        }
+        return content;
+    }
+
+    @Benchmark
+    public TranscriptContent buildColumnar() {
+        DefaultTranscriptContent.Builder content = DefaultTranscriptContent.builder();
+        for (int i = 0; i < fragments; i++) {
+            content.add(texts[i], i * 2000, 2000);
+        }
+        return content.build();
+    }
+
+    @Benchmark
+    public long sumStartsFragmentList() {
+        long sum = 0;
+        for (DefaultTranscriptContent.Fragment fragment : fragmentList) {
+            sum += (long) (fragment.getStart() * 1000);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumStartsColumnar() {
+        long sum = 0;
+        for (int i = 0; i < columnar.size(); i++) {
+            sum += columnar.getStartMillis(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long iterateColumnarFragments() {
+        long sum = 0;
+        for (TranscriptContent.Fragment fragment : columnar.getContent()) {
+            sum += fragment.getText().length();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.TranscriptContent;
+import io.github.thoroldvix.api.TranscriptRetrievalException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing of the same generated transcript in the XML and json3 formats.
+ * Run with {@code ./gradlew jmh} from the repository root.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranscriptContentParseBenchmark {
+
+    private static final String VIDEO_ID = "dQw4w9WgXcQ";
+
+    @Param({"100", "2000"})
+    public int fragments;
+
+    private String xml;
+    private String json3;
+
+    @Setup
+    public void setUp() {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"utf-8\" ?><transcript>");
+        StringBuilder json3 = new StringBuilder("{\"wireMagic\":\"pb3\",\"events\":[");
+        for (int i = 0; i < fragments; i++) {
+            long startMs = i * 2000L;
+            xml.append("<text start=\"").append(startMs / 1000.0).append("\" dur=\"2.0\">")
+                    .append("this is fragment number ").append(i).append(" &amp;amp; it&amp;#39;s generated</text>");
+            if (i > 0) {
+                json3.append(',');
+            }
+            json3.append("{\"tStartMs\":").append(startMs).append(",\"dDurationMs\":2000,\"wWinId\":1,\"segs\":[")
+                    .append("{\"utf8\":\"this\",\"acAsrConf\":0},{\"utf8\":\" is\",\"tOffsetMs\":200,\"acAsrConf\":0},")
+                    .append("{\"utf8\":\" fragment\",\"tOffsetMs\":400,\"acAsrConf\":0},{\"utf8\":\" number\",\"tOffsetMs\":600,\"acAsrConf\":0},")
+                    .append("{\"utf8\":\" ").append(i).append("\",\"tOffsetMs\":800,\"acAsrConf\":0},{\"utf8\":\" &\",\"tOffsetMs\":1000,\"acAsrConf\":0},")
+                    .append("{\"utf8\":\" it's\",\"tOffsetMs\":1200,\"acAsrConf\":0},{\"utf8\":\" generated\",\"tOffsetMs\":1400,\"acAsrConf\":0}]}");
+        }
+        this.xml = xml.append("</transcript>").toString();
+        this.json3 = json3.append("]}").toString();
+    }
+
+    @Benchmark
+    public TranscriptContent xml() throws TranscriptRetrievalException {
+        return new TranscriptContentExtractor(VIDEO_ID).extract(xml);
+    }
+
+    @Benchmark
+    public TranscriptContent json3() throws TranscriptRetrievalException {
+        return new Json3TranscriptContentExtractor(VIDEO_ID).extract(json3);
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.thoroldvix.internal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single-pass {@link VideoPage#scan(String)} with the {@code String.split} based extraction it replaced.
+ * Run with {@code ./gradlew jmh} from the repository root.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VideoPageScanBenchmark {
+
+    private static final String PAGES_PATH = "src/test/resources/pages";
+
+    @Param({
+            "youtube.html.static",
+            "youtube_no_translation.html.static",
+            "youtube_too_many_requests.html.static",
+            "youtube_video_unavailable.html.static"
+    })
+    public String page;
+
+    private String html;
+
+    @Setup
+    public void setUp() throws IOException {
+        html = Files.readString(Path.of(PAGES_PATH, page));
+    }
+
+    @Benchmark
+    public String legacySplit() {
+        if (html.contains("action=\"https://consent.youtube.com/s\"")) {
+            return null;
+        }
+        String[] splitHtml = html.split(TranscriptListExtractor.CAPTIONS_MARKER);
+        if (splitHtml.length <= 1) {
+            if (html.contains("class=\"g-recaptcha\"")) {
+                return null;
+            }
+            if (!html.contains("\"playabilityStatus\":")) {
+                return null;
+            }
+            return null;
+        }
+        return splitHtml[1].split(TranscriptListExtractor.VIDEO_DETAILS_MARKER)[0].replace("\n", "");
+    }
+
+    @Benchmark
+    public String scan() {
+        VideoPage videoPage = VideoPage.scan(html);
+        return videoPage.status() == VideoPage.Status.CAPTIONS ? videoPage.captionsJson() : null;
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.thoroldvix.api;
+
+import io.github.thoroldvix.internal.TranscriptApiFactory;
+
+import java.time.Duration;
+
+/**
+ * Stops requests to YouTube once it starts blocking them, instead of making the block last longer.
+ * <p>
+ * The circuit opens after a number of consecutive captcha pages or responses with status code 429.
+ * While it is open, requests fail immediately with a retryable {@link TranscriptRetrievalException}.
+ * Once the cool-down has passed, a single probe request is let through: if it is not blocked, the circuit closes again,
+ * otherwise it stays open for another cool-down.
+ * </p>
+ * <p>
+ * A single instance is thread-safe and can be set on several clients with {@link YoutubeClientBuilder#circuitBreaker(CircuitBreaker)}
+ * to make them stop together, for example when they send requests from the same IP address.
+ * Requests to the YouTube Data API are not affected, since its quota is not tied to the IP address.
+ * </p>
+ * <p>
+ * Instances can be created with the builder obtained through {@link TranscriptApiFactory#circuitBreakerBuilder()}.
+ * </p>
+ */
+public interface CircuitBreaker {
+
+    /**
+     * @return The current state of the circuit
+     */
+    State state();
+
+    /**
+     * State of the circuit.
+     */
+    enum State {
+        /**
+         * Requests are sent normally.
+         */
+        CLOSED,
+        /**
+         * Requests fail immediately until the cool-down has passed.
+         */
+        OPEN,
+        /**
+         * A probe request is in flight, other requests fail immediately.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * Receives state changes of a {@link CircuitBreaker}.
+     * Called on the thread completing the request which caused the change, so implementations should return quickly.
+     */
+    @FunctionalInterface
+    interface Listener {
+
+        /**
+         * Called when the circuit changes its state.
+         *
+         * @param previous The previous state
+         * @param current  The new state
+         */
+        void onStateChange(State previous, State current);
+    }
+
+    /**
+     * Builder for {@link CircuitBreaker}.
+     */
+    interface Builder {
+
+        /**
+         * Sets the number of consecutive captcha pages or 429 responses after which the circuit opens. Defaults to 5.
+         *
+         * @param failureThreshold The number of consecutive blocked requests
+         * @return This builder
+         */
+        Builder failureThreshold(int failureThreshold);
+
+        /**
+         * Sets how long the circuit stays open before a probe request is sent. Defaults to 5 minutes.
+         *
+         * @param coolDown The cool-down
+         * @return This builder
+         */
+        Builder coolDown(Duration coolDown);
+
+        /**
+         * Sets a listener receiving state changes of the circuit.
+         *
+         * @param listener The listener
+         * @return This builder
+         */
+        Builder listener(Listener listener);
+
+        /**
+         * Creates a new {@link CircuitBreaker} with the configured settings.
+         *
+         * @return A new {@link CircuitBreaker}
+         */
+        CircuitBreaker build();
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.thoroldvix.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * {@link TranscriptFollower} which fetches and parses the whole transcript with {@link Transcript#fetch()} on each poll,
+ * for the default implementation of {@link Transcript#follow(Consumer)}.
+ * <p>
+ * The fragments which start after the last fragment seen so far are new. Polls are made one at a time, so that
+ * the listener is passed their fragments in order.
+ * </p>
+ */
+final class FetchingTranscriptFollower implements TranscriptFollower {
+
+    private final Transcript transcript;
+    private final Consumer<List<TranscriptContent.Fragment>> listener;
+    private double lastStart = Double.NEGATIVE_INFINITY;
+
+    FetchingTranscriptFollower(Transcript transcript, Consumer<List<TranscriptContent.Fragment>> listener) {
+        this.transcript = transcript;
+        this.listener = listener;
+    }
+
+    @Override
+    public synchronized List<TranscriptContent.Fragment> poll() throws TranscriptRetrievalException {
+        List<TranscriptContent.Fragment> fragments = new ArrayList<>();
+        double lastStart = this.lastStart;
+        for (TranscriptContent.Fragment fragment : transcript.fetch().getContent()) {
+            if (fragment.getStart() > this.lastStart) {
+                fragments.add(fragment);
+                lastStart = Math.max(lastStart, fragment.getStart());
+            }
+        }
+        this.lastStart = lastStart;
+        List<TranscriptContent.Fragment> newFragments = Collections.unmodifiableList(fragments);
+        if (!newFragments.isEmpty()) {
+            listener.accept(newFragments);
+        }
+        return newFragments;
+    }
+
+    @Override
+    public CompletableFuture<List<TranscriptContent.Fragment>> pollAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return poll();
+            } catch (TranscriptRetrievalException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.thoroldvix.api;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Hedging policy of the default YouTube client.
+ * <p>
+ * If a request for a video page or transcript has not been answered within the configured percentile of recently
+ * observed latencies, an identical second request is sent. The first response wins and the other request is cancelled.
+ * The number of hedged requests is limited to a fraction of all requests, and hedged requests are subject to the
+ * {@link RateLimiter} like any other request.
+ * </p>
+ */
+public final class HedgePolicy {
+
+    private final double percentile;
+    private final Duration minDelay;
+    private final double maxHedgeRatio;
+
+    private HedgePolicy(Builder builder) {
+        this.percentile = builder.percentile;
+        this.minDelay = builder.minDelay;
+        this.maxHedgeRatio = builder.maxHedgeRatio;
+    }
+
+    /**
+     * Creates a new {@link Builder}.
+     *
+     * @return A new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The percentile of observed latencies after which a second request is sent
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * @return The minimum time to wait before a second request is sent
+     */
+    public Duration getMinDelay() {
+        return minDelay;
+    }
+
+    /**
+     * @return The maximum fraction of requests which are hedged
+     */
+    public double getMaxHedgeRatio() {
+        return maxHedgeRatio;
+    }
+
+    /**
+     * Builder for {@link HedgePolicy}.
+     */
+    public static final class Builder {
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(100);
+        private double maxHedgeRatio = 0.05;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the percentile of observed latencies after which a second request is sent. Defaults to 0.95.
+         *
+         * @param percentile The percentile, greater than 0 and less than 1
+         * @return This builder
+         */
+        public Builder percentile(double percentile) {
+            if (!(percentile > 0 && percentile < 1)) {
+                throw new IllegalArgumentException("Percentile must be greater than 0 and less than 1");
+            }
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Sets the minimum time to wait before a second request is sent. Defaults to 100 milliseconds.
+         *
+         * @param minDelay The minimum delay
+         * @return This builder
+         */
+        public Builder minDelay(Duration minDelay) {
+            Objects.requireNonNull(minDelay, "minDelay");
+            if (minDelay.isNegative()) {
+                throw new IllegalArgumentException("minDelay must not be negative");
+            }
+            this.minDelay = minDelay;
+            return this;
+        }
+
+        /**
+         * Limits the number of hedged requests to a fraction of all requests. Defaults to 0.05.
+         *
+         * @param maxHedgeRatio The maximum fraction of requests which are hedged, greater than 0 and at most 1
+         * @return This builder
+         */
+        public Builder maxHedgeRatio(double maxHedgeRatio) {
+            if (!(maxHedgeRatio > 0 && maxHedgeRatio <= 1)) {
+                throw new IllegalArgumentException("Maximum hedge ratio must be greater than 0 and at most 1");
+            }
+            this.maxHedgeRatio = maxHedgeRatio;
+            return this;
+        }
+
+        /**
+         * Creates a new {@link HedgePolicy} with the configured settings.
+         *
+         * @return A new {@link HedgePolicy}
+         */
+        public HedgePolicy build() {
+            return new HedgePolicy(this);
+        }
+    }
+}
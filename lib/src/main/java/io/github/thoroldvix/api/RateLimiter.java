@@ -0,0 +1,59 @@
+package io.github.thoroldvix.api;
+
+import io.github.thoroldvix.internal.TranscriptApiFactory;
+
+/**
+ * Limits the rate of requests sent by the default YouTube client, with separate budgets for video pages,
+ * transcript (timedtext) requests and YouTube Data API v3 requests.
+ * <p>
+ * Each budget is a token bucket: it allows a burst of requests up to its capacity and then paces requests to the configured rate.
+ * Requests over the budget wait without holding a thread.
+ * A single instance is thread-safe and can be passed to several clients (see {@link YoutubeClientBuilder#rateLimiter(RateLimiter)}),
+ * in which case all of them, and all {@link YoutubeTranscriptApi} instances using them, share the same budgets.
+ * </p>
+ * <p>
+ * Instances can be created with the builder obtained through {@link TranscriptApiFactory#rateLimiterBuilder()}.
+ * </p>
+ */
+public interface RateLimiter {
+
+    /**
+     * Builder for {@link RateLimiter}. Budgets which are not configured are unlimited.
+     */
+    interface Builder {
+
+        /**
+         * Limits requests for video pages ({@code https://www.youtube.com/watch}).
+         *
+         * @param requestsPerSecond The sustained number of requests per second
+         * @param burst             The number of requests which can be sent at once before they are paced
+         * @return This builder
+         */
+        Builder videoPages(double requestsPerSecond, int burst);
+
+        /**
+         * Limits requests for transcript content ({@code https://www.youtube.com/api/timedtext}).
+         *
+         * @param requestsPerSecond The sustained number of requests per second
+         * @param burst             The number of requests which can be sent at once before they are paced
+         * @return This builder
+         */
+        Builder timedText(double requestsPerSecond, int burst);
+
+        /**
+         * Limits requests to the YouTube Data API v3 (see {@link YtApiV3Endpoint}).
+         *
+         * @param requestsPerSecond The sustained number of requests per second
+         * @param burst             The number of requests which can be sent at once before they are paced
+         * @return This builder
+         */
+        Builder dataApi(double requestsPerSecond, int burst);
+
+        /**
+         * Creates a new {@link RateLimiter} with the configured budgets.
+         *
+         * @return A new {@link RateLimiter}
+         */
+        RateLimiter build();
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.thoroldvix.api;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Retry policy of the default YouTube client for transient failures.
+ * <p>
+ * Requests failing with an I/O error or with status code 429 or 5xx are retried with capped exponential backoff and full jitter.
+ * If the response contains a {@code Retry-After} header, the retry waits at least that long.
+ * A request is not retried if {@code Retry-After} asks to wait longer than the maximum backoff,
+ * in that case the {@link TranscriptRetrievalException} is marked as {@link TranscriptRetrievalException#isRetryable() retryable}
+ * and the caller can decide when to try again.
+ * </p>
+ */
+public final class RetryPolicy {
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int retryBudget;
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoff = builder.initialBackoff;
+        this.maxBackoff = builder.maxBackoff;
+        this.retryBudget = builder.retryBudget;
+    }
+
+    /**
+     * Creates a new {@link Builder}.
+     *
+     * @return A new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The maximum number of attempts for a single request, including the first one
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @return The backoff before the first retry
+     */
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    /**
+     * @return The maximum backoff between retries
+     */
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    /**
+     * @return The maximum number of retries per bulk call, {@link Integer#MAX_VALUE} if not limited
+     */
+    public int getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * Builder for {@link RetryPolicy}.
+     */
+    public static final class Builder {
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(500);
+        private Duration maxBackoff = Duration.ofSeconds(30);
+        private int retryBudget = Integer.MAX_VALUE;
+
+        private Builder() {
+        }
+
+        private static Duration requirePositive(Duration duration, String name) {
+            Objects.requireNonNull(duration, name);
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+            return duration;
+        }
+
+        /**
+         * Sets the maximum number of attempts for a single request, including the first one. Defaults to 3.
+         *
+         * @param maxAttempts The maximum number of attempts
+         * @return This builder
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts <= 0) {
+                throw new IllegalArgumentException("Maximum number of attempts must be positive");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets the backoff before the first retry, which is doubled for every further retry. Defaults to 500 milliseconds.
+         *
+         * @param initialBackoff The initial backoff
+         * @return This builder
+         */
+        public Builder initialBackoff(Duration initialBackoff) {
+            this.initialBackoff = requirePositive(initialBackoff, "initialBackoff");
+            return this;
+        }
+
+        /**
+         * Sets the maximum backoff between retries. Defaults to 30 seconds.
+         *
+         * @param maxBackoff The maximum backoff
+         * @return This builder
+         */
+        public Builder maxBackoff(Duration maxBackoff) {
+            this.maxBackoff = requirePositive(maxBackoff, "maxBackoff");
+            return this;
+        }
+
+        /**
+         * Limits the total number of retries of all requests made by a single bulk call,
+         * such as {@link YoutubeTranscriptApi#getTranscriptsForPlaylist}.
+         * Once the budget is used up, failed requests are not retried. Defaults to no limit.
+         *
+         * @param retryBudget The maximum number of retries per bulk call
+         * @return This builder
+         */
+        public Builder retryBudget(int retryBudget) {
+            if (retryBudget < 0) {
+                throw new IllegalArgumentException("Retry budget must not be negative");
+            }
+            this.retryBudget = retryBudget;
+            return this;
+        }
+
+        /**
+         * Creates a new {@link RetryPolicy} with the configured settings.
+         *
+         * @return A new {@link RetryPolicy}
+         */
+        public RetryPolicy build() {
+            if (initialBackoff.compareTo(maxBackoff) > 0) {
+                throw new IllegalArgumentException("initialBackoff must not be greater than maxBackoff");
+            }
+            return new RetryPolicy(this);
+        }
+    }
+}
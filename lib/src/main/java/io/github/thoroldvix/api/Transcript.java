@@ -1,6 +1,12 @@
 package io.github.thoroldvix.api;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 /**
  * Represents a single transcript for a YouTube video, including its metadata.
@@ -19,6 +25,99 @@ public interface Transcript {
      */
     TranscriptContent fetch() throws TranscriptRetrievalException;
 
+    /**
+     * Retrieves the content of the transcript without blocking the calling thread.
+     * <p>
+     * The default implementation runs {@link #fetch()} in the default asynchronous executor of {@link CompletableFuture}.
+     * </p>
+     *
+     * @return A {@link CompletableFuture} with the content of the transcript, completed exceptionally with {@link TranscriptRetrievalException}
+     * if the transcript content cannot be retrieved.
+     */
+    default CompletableFuture<TranscriptContent> fetchAsync() {
+        return supplyAsync(this::fetch);
+    }
+
+    /**
+     * Retrieves the content of the transcript in the given format.
+     * <p>
+     * The default implementation retrieves the content with {@link #fetch()} whatever the format, so its fragments have no
+     * word timings, see {@link TranscriptContent.Fragment#getWords()}.
+     * </p>
+     *
+     * @param format The format in which the content is requested from YouTube.
+     * @return The content of the transcript as a {@link TranscriptContent} object.
+     * @throws TranscriptRetrievalException If the transcript content cannot be retrieved.
+     */
+    default TranscriptContent fetch(TranscriptFormat format) throws TranscriptRetrievalException {
+        Objects.requireNonNull(format, "format");
+        return fetch();
+    }
+
+    /**
+     * Retrieves the content of the transcript in the given format without blocking the calling thread.
+     * <p>
+     * The default implementation runs {@link #fetch(TranscriptFormat)} in the default asynchronous executor of {@link CompletableFuture}.
+     * </p>
+     *
+     * @param format The format in which the content is requested from YouTube.
+     * @return A {@link CompletableFuture} with the content of the transcript, completed exceptionally with {@link TranscriptRetrievalException}
+     * if the transcript content cannot be retrieved.
+     */
+    default CompletableFuture<TranscriptContent> fetchAsync(TranscriptFormat format) {
+        return supplyAsync(() -> fetch(format));
+    }
+
+    /**
+     * Retrieves the content of the transcript, and parses it only once its fragments are accessed.
+     * <p>
+     * The returned content keeps the response of YouTube, which is available through {@link TranscriptContent#getRawContent()},
+     * and counts its fragments without parsing them. Parsed fragments are released when memory runs low and parsed again
+     * when they are accessed. As fragments are parsed after the content was retrieved, accessing them throws
+     * an {@link IllegalStateException} if they cannot be parsed.
+     * </p>
+     * <p>
+     * The default implementation retrieves the parsed content with {@link #fetch()}.
+     * </p>
+     *
+     * @return The content of the transcript as a {@link TranscriptContent} object.
+     * @throws TranscriptRetrievalException If the transcript content cannot be retrieved.
+     */
+    default TranscriptContent fetchLazy() throws TranscriptRetrievalException {
+        return fetch();
+    }
+
+    /**
+     * Retrieves the content of the transcript without blocking the calling thread, and parses it only once its fragments are accessed.
+     * <p>
+     * The default implementation runs {@link #fetchLazy()} in the default asynchronous executor of {@link CompletableFuture}.
+     * </p>
+     *
+     * @return A {@link CompletableFuture} with the content of the transcript, completed exceptionally with {@link TranscriptRetrievalException}
+     * if the transcript content cannot be retrieved.
+     * @see #fetchLazy()
+     */
+    default CompletableFuture<TranscriptContent> fetchLazyAsync() {
+        return supplyAsync(this::fetchLazy);
+    }
+
+    /**
+     * Creates a follower for a transcript which keeps growing, such as the transcript of a live stream.
+     * <p>
+     * Each poll of the follower passes the fragments which were added since the previous poll to the listener, if there are any.
+     * </p>
+     * <p>
+     * The default implementation retrieves and parses the whole transcript with {@link #fetch()} on each poll, and passes
+     * the fragments which start after the last fragment seen so far.
+     * </p>
+     *
+     * @param listener The listener which is passed the new fragments found by each poll.
+     * @return A {@link TranscriptFollower} which has not polled the transcript yet.
+     */
+    default TranscriptFollower follow(Consumer<List<TranscriptContent.Fragment>> listener) {
+        return new FetchingTranscriptFollower(this, listener);
+    }
+
     /**
      * Gets the video id of the transcript.
      *
@@ -76,4 +175,20 @@ public interface Transcript {
      * @throws TranscriptRetrievalException If the transcript cannot be translated.
      */
     Transcript translate(String languageCode) throws TranscriptRetrievalException;
+
+    /**
+     * Runs a blocking retrieval in the default asynchronous executor of {@link CompletableFuture}, for the default implementations
+     * of the asynchronous methods.
+     */
+    private static <T> CompletableFuture<T> supplyAsync(Callable<T> retrieval) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return retrieval.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
 }
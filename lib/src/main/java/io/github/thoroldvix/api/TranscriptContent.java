@@ -1,6 +1,10 @@
 package io.github.thoroldvix.api;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Represents the content of a transcript for a single video.
@@ -32,6 +36,120 @@ public interface TranscriptContent {
      */
     List<Fragment> getContent();
 
+    /**
+     * Retrieves the number of fragments.
+     *
+     * @return The number of fragments.
+     */
+    default int size() {
+        return getContent().size();
+    }
+
+    /**
+     * Retrieves the start time of a fragment in milliseconds, without creating a {@link Fragment}.
+     *
+     * @param index The index of the fragment.
+     * @return The start time of the fragment in milliseconds.
+     * @throws IndexOutOfBoundsException If there is no fragment with the given index.
+     */
+    default int getStartMillis(int index) {
+        return (int) Math.round(getContent().get(index).getStart() * 1000);
+    }
+
+    /**
+     * Retrieves the duration of a fragment in milliseconds, without creating a {@link Fragment}.
+     *
+     * @param index The index of the fragment.
+     * @return The duration of the fragment in milliseconds.
+     * @throws IndexOutOfBoundsException If there is no fragment with the given index.
+     */
+    default int getDurationMillis(int index) {
+        return (int) Math.round(getContent().get(index).getDur() * 1000);
+    }
+
+    /**
+     * Retrieves the text of a fragment, without creating a {@link Fragment}.
+     *
+     * @param index The index of the fragment.
+     * @return The text of the fragment.
+     * @throws IndexOutOfBoundsException If there is no fragment with the given index.
+     */
+    default String getText(int index) {
+        return getContent().get(index).getText();
+    }
+
+    /**
+     * Finds the fragment which is being said at the given time.
+     * <p>
+     * Fragments of automatically generated transcripts may overlap, in which case the fragment which started last is found.
+     * </p>
+     *
+     * @param time The time in seconds from the start of the video.
+     * @return The index of the fragment in {@link #getContent()}, or {@code -1} if no fragment is being said at the given time.
+     */
+    default int indexOf(double time) {
+        List<Fragment> content = getContent();
+        int found = -1;
+        for (int i = 0; i < content.size(); i++) {
+            Fragment fragment = content.get(i);
+            if (fragment.getStart() <= time && time < fragment.getStart() + fragment.getDur()
+                && (found < 0 || fragment.getStart() >= content.get(found).getStart())) {
+                found = i;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds the fragment which is being said at the given time.
+     *
+     * @param time The time in seconds from the start of the video.
+     * @return An {@link Optional} with the fragment, or an empty {@link Optional} if no fragment is being said at the given time.
+     * @see #indexOf(double)
+     */
+    default Optional<Fragment> fragmentAt(double time) {
+        int index = indexOf(time);
+        return index < 0 ? Optional.empty() : Optional.of(getContent().get(index));
+    }
+
+    /**
+     * Finds all fragments which are being said at any time between the given times.
+     * <p>
+     * This includes fragments which started before the start time and are still being said at that time,
+     * which happens for overlapping fragments of automatically generated transcripts.
+     * </p>
+     *
+     * @param start The start time in seconds from the start of the video, inclusive.
+     * @param end   The end time in seconds from the start of the video, exclusive.
+     * @return A {@link List} of the fragments ordered by their start time, empty if the end time is not after the start time.
+     */
+    default List<Fragment> fragmentsBetween(double start, double end) {
+        if (!(start < end)) {
+            return List.of();
+        }
+        List<Fragment> fragments = new ArrayList<>();
+        for (Fragment fragment : getContent()) {
+            if (fragment.getStart() < end && fragment.getStart() + fragment.getDur() > start) {
+                fragments.add(fragment);
+            }
+        }
+        fragments.sort(Comparator.comparingDouble(Fragment::getStart));
+        return fragments;
+    }
+
+    /**
+     * Retrieves the transcript as received from YouTube, without parsing it.
+     * <p>
+     * Only content fetched with {@link Transcript#fetchLazy()} keeps the response, for any other content this is empty.
+     * </p>
+     *
+     * @return An {@link Optional} with a read-only view of the UTF-8 encoded response, positioned at its start,
+     * or an empty {@link Optional} if the response was not kept.
+     */
+    default Optional<ByteBuffer> getRawContent() {
+        return Optional.empty();
+    }
+
     /**
      * Represents a single fragment of the transcript content.
      */
@@ -56,6 +174,37 @@ public interface TranscriptContent {
          * @return The duration of the fragment as a {@link Double}.
          */
         double getDur();
+
+        /**
+         * Retrieves the words of the fragment with their start times.
+         * <p>
+         * Word timings are only provided by YouTube for automatically generated transcripts fetched in the {@link TranscriptFormat#JSON3} format.
+         * </p>
+         *
+         * @return A {@link List} of {@link Word} objects, empty if word timings are not available.
+         */
+        default List<Word> getWords() {
+            return List.of();
+        }
+    }
+
+    /**
+     * Represents a single word of a transcript fragment.
+     */
+    interface Word {
+        /**
+         * Retrieves the text of the word.
+         *
+         * @return The text of the word as a {@link String}.
+         */
+        String getText();
+
+        /**
+         * Retrieves the start time of the word in seconds, from the start of the video.
+         *
+         * @return The start time of the word as a {@link Double}.
+         */
+        double getStart();
     }
 }
 
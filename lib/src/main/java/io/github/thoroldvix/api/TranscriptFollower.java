@@ -0,0 +1,37 @@
+package io.github.thoroldvix.api;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Follows a transcript which keeps growing, such as the transcript of a live stream, by polling it for new fragments.
+ * <p>
+ * Each poll retrieves the whole transcript, since YouTube does not provide only its end, but parses only the fragments which were
+ * appended since the previous poll. If the transcript was changed otherwise, it is parsed again and the fragments which start after
+ * the last fragment seen so far are new. New fragments are returned by the poll and passed to the listener given to
+ * {@link Transcript#follow(java.util.function.Consumer)}, in the order in which they were found.
+ * </p>
+ * <p>
+ * Polls are not scheduled by the follower, they are meant to be made periodically by the caller.
+ * </p>
+ */
+public interface TranscriptFollower {
+
+    /**
+     * Retrieves the transcript and finds the fragments which were added since the previous poll.
+     * The first poll finds all fragments of the transcript.
+     *
+     * @return The new fragments, empty if the transcript has not grown.
+     * @throws TranscriptRetrievalException If the transcript content cannot be retrieved.
+     */
+    List<TranscriptContent.Fragment> poll() throws TranscriptRetrievalException;
+
+    /**
+     * Retrieves the transcript and finds the fragments which were added since the previous poll, without blocking the calling thread.
+     *
+     * @return A {@link CompletableFuture} with the new fragments, completed exceptionally with {@link TranscriptRetrievalException}
+     * if the transcript content cannot be retrieved.
+     * @see #poll()
+     */
+    CompletableFuture<List<TranscriptContent.Fragment>> pollAsync();
+}
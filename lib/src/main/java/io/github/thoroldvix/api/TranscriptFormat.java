@@ -0,0 +1,20 @@
+package io.github.thoroldvix.api;
+
+/**
+ * Format in which the content of a transcript is requested from YouTube.
+ */
+public enum TranscriptFormat {
+    /**
+     * The default XML format, with the text and timing of each fragment.
+     */
+    XML,
+    /**
+     * The JSON format, which for automatically generated transcripts also contains the start time of each word,
+     * see {@link TranscriptContent.Fragment#getWords()}.
+     * <p>
+     * This format is slower than {@link #XML}: with word timings the response is several times larger, and it takes longer
+     * to download and parse. Use it only when word timings are needed.
+     * </p>
+     */
+    JSON3
+}
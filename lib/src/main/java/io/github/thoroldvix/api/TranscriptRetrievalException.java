@@ -11,6 +11,8 @@ public class TranscriptRetrievalException extends Exception {
     private static final String ERROR_MESSAGE = "Could not retrieve transcript for the video: %s.\nReason: %s";
     private static final String YOUTUBE_WATCH_URL = "https://www.youtube.com/watch?v=";
     private String videoId;
+    private int statusCode;
+    private boolean retryable;
 
     /**
      * Constructs a new exception with the specified detail message and cause.
@@ -35,6 +37,21 @@ public class TranscriptRetrievalException extends Exception {
         this.videoId = videoId;
     }
 
+    /**
+     * Constructs a new exception for a failed request to YouTube.
+     *
+     * @param videoId    The ID of the video for which the transcript retrieval failed.
+     * @param message    The detail message explaining the reason for the failure.
+     * @param cause      The cause of the failure (which is saved for later retrieval by the {@link Throwable#getCause()} method).
+     * @param statusCode The HTTP status code of the response, or {@code 0} if no response was received.
+     * @param retryable  Whether the failure is transient and the request may succeed if retried.
+     */
+    public TranscriptRetrievalException(String videoId, String message, Throwable cause, int statusCode, boolean retryable) {
+        this(videoId, message, cause);
+        this.statusCode = statusCode;
+        this.retryable = retryable;
+    }
+
     /**
      * Constructs a new exception with the specified detail message and cause.
      *
@@ -45,6 +62,20 @@ public class TranscriptRetrievalException extends Exception {
         super(message, cause);
     }
 
+    /**
+     * Constructs a new exception for a failed request to YouTube.
+     *
+     * @param message    The detail message explaining the reason for the failure.
+     * @param cause      The cause of the failure (which is saved for later retrieval by the {@link Throwable#getCause()} method).
+     * @param statusCode The HTTP status code of the response, or {@code 0} if no response was received.
+     * @param retryable  Whether the failure is transient and the request may succeed if retried.
+     */
+    public TranscriptRetrievalException(String message, Throwable cause, int statusCode, boolean retryable) {
+        this(message, cause);
+        this.statusCode = statusCode;
+        this.retryable = retryable;
+    }
+
     /**
      * Constructs a new exception with the specified detail message.
      *
@@ -72,5 +103,18 @@ public class TranscriptRetrievalException extends Exception {
     public String getVideoId() {
         return videoId;
     }
-}
 
+    /**
+     * @return The HTTP status code of the failed response, or {@code 0} if the failure was not caused by an unexpected response.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return Whether the failure is transient, such as a connection error or status code 429 or 5xx, and the request may succeed if retried.
+     */
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.thoroldvix.api;
+
+import java.net.URI;
+
+/**
+ * Receives the number of bytes transferred for each response received by the default YouTube client.
+ * <p>
+ * Can be registered with {@link YoutubeClientBuilder#transferListener(TransferListener)}.
+ * Implementations must be thread-safe, since responses are processed concurrently.
+ * </p>
+ */
+@FunctionalInterface
+public interface TransferListener {
+
+    /**
+     * Called once the response body was received, or its download was stopped early.
+     *
+     * @param uri               The URI of the request
+     * @param contentEncoding   The content encoding of the response, {@code identity} if the response was not compressed
+     * @param compressedBytes   The number of bytes received over the network
+     * @param uncompressedBytes The number of bytes after decompression
+     */
+    void onTransfer(URI uri, String contentEncoding, long compressedBytes, long uncompressedBytes);
+}
@@ -2,6 +2,8 @@ package io.github.thoroldvix.api;
 
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 
 /**
@@ -33,5 +35,115 @@ public interface YoutubeClient {
      * @throws TranscriptRetrievalException If the request to YouTube fails.
      */
     String get(YtApiV3Endpoint endpoint, Map<String, String> params) throws TranscriptRetrievalException;
-}
 
+    /**
+     * Sends a conditional GET request to the specified endpoint, which YouTube answers without a body
+     * if the requested resource still has the given entity tag.
+     * <p>
+     * The default implementation ignores the entity tag and delegates to {@link #get(YtApiV3Endpoint, Map)}.
+     * </p>
+     *
+     * @param endpoint The endpoint to which the GET request is made.
+     * @param params   A map of parameters to include in the request.
+     * @param etag     The entity tag of a previously received response, sent as {@code If-None-Match}.
+     *
+     * @return The body of the response as a {@link String}, or {@code null} if the resource was not modified.
+     *
+     * @throws TranscriptRetrievalException If the request to YouTube fails.
+     */
+    default String get(YtApiV3Endpoint endpoint, Map<String, String> params, String etag) throws TranscriptRetrievalException {
+        return get(endpoint, params);
+    }
+
+    /**
+     * Sends an asynchronous GET request to the specified URL.
+     * <p>
+     * The default implementation runs {@link #get(String, Map)} in the default asynchronous executor of {@link CompletableFuture},
+     * so that concurrent requests are sent in parallel. Implementations backed by a non-blocking HTTP client should override it,
+     * so that no thread is held while the request is in flight.
+     * </p>
+     *
+     * @param url     The URL to which the GET request is made.
+     * @param headers A map of additional headers to include in the request.
+     *
+     * @return A {@link CompletableFuture} with the body of the response, completed exceptionally with {@link TranscriptRetrievalException} if the request to YouTube fails.
+     */
+    default CompletableFuture<String> getAsync(String url, Map<String, String> headers) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return get(url, headers);
+            } catch (TranscriptRetrievalException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Sends an asynchronous GET request to the specified URL and reads the response body only until the given markers were found.
+     * <p>
+     * The markers are searched for in order, each one after the end of the previous one. Once the last marker is found, the rest
+     * of the response is not downloaded and the returned body ends right after that marker. If the markers are not found,
+     * the whole body is returned.
+     * </p>
+     * <p>
+     * The default implementation downloads the whole body with {@link #getAsync(String, Map)} and truncates it.
+     * </p>
+     *
+     * @param url     The URL to which the GET request is made.
+     * @param headers A map of additional headers to include in the request.
+     * @param markers The markers after which the body is no longer needed.
+     *
+     * @return A {@link CompletableFuture} with the body of the response up to and including the last marker,
+     * completed exceptionally with {@link TranscriptRetrievalException} if the request to YouTube fails.
+     */
+    default CompletableFuture<String> getUntilAsync(String url, Map<String, String> headers, String... markers) {
+        return getAsync(url, headers).thenApply(body -> {
+            int position = 0;
+            for (String marker : markers) {
+                int index = body.indexOf(marker, position);
+                if (index < 0) {
+                    return body;
+                }
+                position = index + marker.length();
+            }
+            return body.substring(0, position);
+        });
+    }
+
+    /**
+     * Sends an asynchronous GET request to the specified endpoint.
+     * <p>
+     * The default implementation runs {@link #get(YtApiV3Endpoint, Map)} in the default asynchronous executor of {@link CompletableFuture},
+     * so that concurrent requests are sent in parallel. Implementations backed by a non-blocking HTTP client should override it,
+     * so that no thread is held while the request is in flight.
+     * </p>
+     *
+     * @param endpoint The endpoint to which the GET request is made.
+     * @param params   A map of parameters to include in the request.
+     *
+     * @return A {@link CompletableFuture} with the body of the response, completed exceptionally with {@link TranscriptRetrievalException} if the request to YouTube fails.
+     */
+    default CompletableFuture<String> getAsync(YtApiV3Endpoint endpoint, Map<String, String> params) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return get(endpoint, params);
+            } catch (TranscriptRetrievalException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Opens connections to the hosts requests are sent to, so that the first requests do not have to wait for DNS resolution
+     * and TLS handshakes.
+     * <p>
+     * The default implementation does nothing.
+     * </p>
+     *
+     * @return A {@link CompletableFuture} completed once the connections are open,
+     * completed exceptionally with {@link TranscriptRetrievalException} if a connection could not be opened.
+     */
+    default CompletableFuture<Void> warmUpAsync() {
+        return CompletableFuture.completedFuture(null);
+    }
+}
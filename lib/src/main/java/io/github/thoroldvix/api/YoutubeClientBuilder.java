@@ -0,0 +1,199 @@
+package io.github.thoroldvix.api;
+
+import io.github.thoroldvix.internal.TranscriptApiFactory;
+
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.Executor;
+
+/**
+ * Builder for the default {@link YoutubeClient} implementation backed by Java 11 {@link HttpClient}.
+ * <p>
+ * Instances can be obtained through {@link TranscriptApiFactory#clientBuilder()}.
+ * A built client owns its connection pool, so passing the same client to several {@link YoutubeTranscriptApi} instances
+ * (see {@link TranscriptApiFactory#createWithClient(YoutubeClient)}) makes them reuse the same warm connections.
+ * </p>
+ */
+public interface YoutubeClientBuilder {
+
+    /**
+     * Sets the preferred HTTP protocol version. Defaults to {@link HttpClient.Version#HTTP_2},
+     * which multiplexes concurrent requests to the same host over a single connection and falls back to HTTP/1.1 if the server does not support it.
+     *
+     * @param version The preferred HTTP version
+     * @return This builder
+     */
+    YoutubeClientBuilder version(HttpClient.Version version);
+
+    /**
+     * Sets the executor used for asynchronous tasks of the underlying {@link HttpClient}.
+     * If not set, the {@link HttpClient} default executor is used.
+     *
+     * @param executor The executor
+     * @return This builder
+     */
+    YoutubeClientBuilder executor(Executor executor);
+
+    /**
+     * Sets the maximum time to wait for a connection to be established.
+     *
+     * @param connectTimeout The connect timeout
+     * @return This builder
+     */
+    YoutubeClientBuilder connectTimeout(Duration connectTimeout);
+
+    /**
+     * Sets the maximum time to wait for a response to a single request. Defaults to 30 seconds.
+     * If the response is not received within the timeout, the request fails with {@link TranscriptRetrievalException}.
+     *
+     * @param requestTimeout The request timeout
+     * @return This builder
+     */
+    YoutubeClientBuilder requestTimeout(Duration requestTimeout);
+
+    /**
+     * Sets whether the timeout of a request should adapt to the latencies recently observed for the same kind of request.
+     * Once enough responses were received, a request times out after a multiple of the 99th percentile of their latencies,
+     * but never later than the {@link #requestTimeout(Duration) request timeout}. Disabled by default.
+     *
+     * @param adaptiveRequestTimeout Whether to adapt request timeouts to observed latencies
+     * @return This builder
+     */
+    YoutubeClientBuilder adaptiveRequestTimeout(boolean adaptiveRequestTimeout);
+
+    /**
+     * Limits the duration of each call of {@link YoutubeTranscriptApi} made with the built client.
+     * All requests of a call, including retries and requests for further pages of a playlist, must complete within the timeout,
+     * and each request is only given the time which remains of it. Once the time is up, the call fails with
+     * {@link TranscriptRetrievalException}. Defaults to no limit.
+     *
+     * @param callTimeout The timeout of a single call
+     * @return This builder
+     */
+    YoutubeClientBuilder callTimeout(Duration callTimeout);
+
+    /**
+     * Sets the number of connections opened to each host by {@link YoutubeClient#warmUpAsync()}. Defaults to 1.
+     * Counts above 1 only apply if the HTTP client uses HTTP/1.1. With HTTP/2, the default, the requests to a host are
+     * multiplexed over a single connection, so a single connection is opened to each host.
+     *
+     * @param warmUpConnections The number of connections per host, only used with HTTP/1.1
+     * @return This builder
+     */
+    YoutubeClientBuilder warmUpConnections(int warmUpConnections);
+
+    /**
+     * Sets the redirect policy. Defaults to {@link HttpClient.Redirect#NEVER}.
+     *
+     * @param redirect The redirect policy
+     * @return This builder
+     */
+    YoutubeClientBuilder followRedirects(HttpClient.Redirect redirect);
+
+    /**
+     * Limits the number of requests in flight to a single host. Requests over the limit wait without holding a thread
+     * until one of the in-flight requests completes. With HTTP/2 this caps the number of concurrent streams per connection.
+     * Defaults to no limit.
+     *
+     * @param maxConcurrentRequestsPerHost The maximum number of concurrent requests per host
+     * @return This builder
+     */
+    YoutubeClientBuilder maxConcurrentRequestsPerHost(int maxConcurrentRequestsPerHost);
+
+    /**
+     * Sets whether responses should be requested with {@code Accept-Encoding: gzip, deflate}.
+     * Compressed responses are decompressed while they are being received. Enabled by default.
+     *
+     * @param compression Whether to request compressed responses
+     * @return This builder
+     */
+    YoutubeClientBuilder compression(boolean compression);
+
+    /**
+     * Sets a listener receiving the number of compressed and uncompressed bytes of each response.
+     *
+     * @param transferListener The listener
+     * @return This builder
+     */
+    YoutubeClientBuilder transferListener(TransferListener transferListener);
+
+    /**
+     * Sets the rate limiter pacing requests of the built client.
+     * The same {@link RateLimiter} can be set on several clients to make them share its budgets.
+     * Defaults to no rate limit.
+     *
+     * @param rateLimiter The rate limiter
+     * @return This builder
+     * @throws IllegalArgumentException If the rate limiter was not built with {@link TranscriptApiFactory#rateLimiterBuilder()}
+     */
+    YoutubeClientBuilder rateLimiter(RateLimiter rateLimiter);
+
+    /**
+     * Sets the policy for retrying requests which failed with a transient error. Defaults to no retries.
+     *
+     * @param retryPolicy The retry policy
+     * @return This builder
+     */
+    YoutubeClientBuilder retryPolicy(RetryPolicy retryPolicy);
+
+    /**
+     * Sets the circuit breaker which suspends requests to YouTube after it started answering with captcha pages
+     * or status code 429. The same {@link CircuitBreaker} can be set on several clients to make them stop together.
+     * With {@link #proxies}, each proxy gets a copy with the same settings and listener, so that a blocked proxy does not stop
+     * the others, and the state of the given circuit breaker stays closed. Defaults to no circuit breaker.
+     *
+     * @param circuitBreaker The circuit breaker
+     * @return This builder
+     * @throws IllegalArgumentException If the circuit breaker was not built with {@link TranscriptApiFactory#circuitBreakerBuilder()}
+     */
+    YoutubeClientBuilder circuitBreaker(CircuitBreaker circuitBreaker);
+
+    /**
+     * Enables hedging of requests for video pages and transcripts: a request which is slower than usual
+     * is sent a second time and the first response is used. Defaults to no hedging.
+     *
+     * @param hedgePolicy The hedging policy
+     * @return This builder
+     */
+    YoutubeClientBuilder hedgePolicy(HedgePolicy hedgePolicy);
+
+    /**
+     * Spreads requests across a pool of HTTP proxies. Each proxy gets its own connection pool, and every request is sent
+     * through the proxy with the lowest latency weighted by its current load. A proxy whose requests keep failing with
+     * transient errors or captcha pages is quarantined for {@link #proxyQuarantine(Duration)}.
+     * All other settings, including a {@link RateLimiter}, apply to the requests of every proxy, except that each proxy gets
+     * its own copy of the {@link CircuitBreaker}.
+     *
+     * @param proxies The addresses of the proxies
+     * @return This builder
+     */
+    YoutubeClientBuilder proxies(Collection<InetSocketAddress> proxies);
+
+    /**
+     * Sets how long an unhealthy proxy is not used. Defaults to 1 minute.
+     *
+     * @param proxyQuarantine The quarantine duration
+     * @return This builder
+     */
+    YoutubeClientBuilder proxyQuarantine(Duration proxyQuarantine);
+
+    /**
+     * Uses an existing {@link HttpClient} as the transport, so that its connections are shared with other users of the same instance.
+     * When set, {@link #version}, {@link #executor}, {@link #connectTimeout} and {@link #followRedirects} are ignored,
+     * since these are properties of the {@link HttpClient} itself.
+     *
+     * @param httpClient The {@link HttpClient} to use
+     * @return This builder
+     */
+    YoutubeClientBuilder httpClient(HttpClient httpClient);
+
+    /**
+     * Creates a new {@link YoutubeClient} with the configured settings.
+     *
+     * @return A new {@link YoutubeClient}
+     * @throws IllegalStateException If both {@link #httpClient} and {@link #proxies} are set
+     */
+    YoutubeClient build();
+}
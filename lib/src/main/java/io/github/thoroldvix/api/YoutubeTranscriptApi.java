@@ -3,6 +3,9 @@ package io.github.thoroldvix.api;
 import io.github.thoroldvix.internal.TranscriptApiFactory;
 
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * This is the main interface for the YouTube Transcript API.
@@ -97,6 +100,72 @@ public interface YoutubeTranscriptApi {
      */
     TranscriptContent getTranscript(String videoId, String... languageCodes) throws TranscriptRetrievalException;
 
+    /**
+     * Asynchronous version of {@link #listTranscriptsWithCookies(String, String)}.
+     * <p>
+     * The default implementation runs it in the default asynchronous executor of {@link CompletableFuture}.
+     * </p>
+     *
+     * @param videoId     The ID of the video
+     * @param cookiesPath The file path to the text file containing the authentication cookies
+     * @return A {@link CompletableFuture} with a {@link TranscriptList} of all available transcripts for the given video,
+     * completed exceptionally with {@link TranscriptRetrievalException} if the retrieval of the transcript list fails
+     * @throws IllegalArgumentException If the video ID is invalid
+     */
+    default CompletableFuture<TranscriptList> listTranscriptsWithCookiesAsync(String videoId, String cookiesPath) {
+        return supplyAsync(() -> listTranscriptsWithCookies(videoId, cookiesPath));
+    }
+
+    /**
+     * Asynchronous version of {@link #listTranscripts(String)}.
+     * <p>
+     * The default implementation runs it in the default asynchronous executor of {@link CompletableFuture}.
+     * </p>
+     *
+     * @param videoId The ID of the video
+     * @return A {@link CompletableFuture} with a {@link TranscriptList} of all available transcripts for the given video,
+     * completed exceptionally with {@link TranscriptRetrievalException} if the retrieval of the transcript list fails
+     * @throws IllegalArgumentException If the video ID is invalid
+     */
+    default CompletableFuture<TranscriptList> listTranscriptsAsync(String videoId) {
+        return supplyAsync(() -> listTranscripts(videoId));
+    }
+
+    /**
+     * Asynchronous version of {@link #getTranscriptWithCookies(String, String, String...)}.
+     * <p>
+     * The default implementation runs it in the default asynchronous executor of {@link CompletableFuture}.
+     * </p>
+     *
+     * @param videoId       The ID of the video
+     * @param cookiesPath   The file path to the text file containing the authentication cookies
+     * @param languageCodes A varargs list of language codes in descending priority.
+     *                      If no language code is provided, it uses English as the default language.
+     * @return A {@link CompletableFuture} with the {@link TranscriptContent},
+     * completed exceptionally with {@link TranscriptRetrievalException} if the retrieval of the transcript fails
+     * @throws IllegalArgumentException If the video ID is invalid
+     */
+    default CompletableFuture<TranscriptContent> getTranscriptWithCookiesAsync(String videoId, String cookiesPath, String... languageCodes) {
+        return supplyAsync(() -> getTranscriptWithCookies(videoId, cookiesPath, languageCodes));
+    }
+
+    /**
+     * Asynchronous version of {@link #getTranscript(String, String...)}.
+     * <p>
+     * The default implementation runs it in the default asynchronous executor of {@link CompletableFuture}.
+     * </p>
+     *
+     * @param videoId       The ID of the video
+     * @param languageCodes A varargs list of language codes in descending priority.
+     *                      If no language code is provided, it uses English as the default language.
+     * @return A {@link CompletableFuture} with the {@link TranscriptContent},
+     * completed exceptionally with {@link TranscriptRetrievalException} if the retrieval of the transcript fails
+     * @throws IllegalArgumentException If the video ID is invalid
+     */
+    default CompletableFuture<TranscriptContent> getTranscriptAsync(String videoId, String... languageCodes) {
+        return supplyAsync(() -> getTranscript(videoId, languageCodes));
+    }
+
     /**
      * Retrieves transcript lists for all videos in the specified playlist.
      *
@@ -153,4 +222,51 @@ public interface YoutubeTranscriptApi {
      * @throws TranscriptRetrievalException If the retrieval of the transcript fails
      */
     Map<String, TranscriptContent> getTranscriptsForChannel(String channelName, TranscriptRequest request, String... languageCodes) throws TranscriptRetrievalException;
+
+    /**
+     * Prepares this API for the first requests: opens connections to YouTube and the YouTube Data API
+     * and initializes the parsers of video pages, transcripts and API responses.
+     * <p>
+     * Calling it once at startup avoids the latency of cold connections and class loading in the first calls.
+     * </p>
+     * <p>
+     * The default implementation does nothing.
+     * </p>
+     *
+     * @throws TranscriptRetrievalException If a connection could not be opened
+     */
+    default void warmUp() throws TranscriptRetrievalException {
+    }
+
+    /**
+     * Asynchronous version of {@link #warmUp()}.
+     * <p>
+     * The default implementation runs it in the default asynchronous executor of {@link CompletableFuture}.
+     * </p>
+     *
+     * @return A {@link CompletableFuture} completed once the API is warmed up,
+     * completed exceptionally with {@link TranscriptRetrievalException} if a connection could not be opened
+     */
+    default CompletableFuture<Void> warmUpAsync() {
+        return supplyAsync(() -> {
+            warmUp();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a blocking retrieval in the default asynchronous executor of {@link CompletableFuture}, for the default implementations
+     * of the asynchronous methods.
+     */
+    private static <T> CompletableFuture<T> supplyAsync(Callable<T> retrieval) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return retrieval.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
 }
@@ -0,0 +1,56 @@
+package io.github.thoroldvix.internal;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Derives the timeout of a request from the latencies recently observed for the same kind of request.
+ * <p>
+ * The timeout is a multiple of a high percentile of the latencies, so that it only cuts off requests which are stuck,
+ * not those which are merely slower than usual.
+ * Video pages, transcripts and Data API responses differ in size, so their latencies are tracked separately.
+ * </p>
+ */
+final class AdaptiveTimeout {
+
+    private static final int LATENCY_SAMPLES = 256;
+    /**
+     * Timeouts are adapted only once enough latencies were observed for the percentile to be meaningful.
+     */
+    private static final int MIN_SAMPLES = 20;
+    private static final double PERCENTILE = 0.99;
+    private static final int MULTIPLIER = 3;
+    private static final Duration MIN_TIMEOUT = Duration.ofSeconds(1);
+
+    private final Map<DefaultRateLimiter.Budget, LatencyTracker> latencies = new EnumMap<>(DefaultRateLimiter.Budget.class);
+
+    AdaptiveTimeout() {
+        for (DefaultRateLimiter.Budget budget : DefaultRateLimiter.Budget.values()) {
+            latencies.put(budget, new LatencyTracker(LATENCY_SAMPLES));
+        }
+    }
+
+    void record(DefaultRateLimiter.Budget budget, long latencyNanos) {
+        latencies.get(budget).record(latencyNanos);
+    }
+
+    /**
+     * @param fallback The timeout used until enough latencies were observed, may be {@code null}
+     * @return The timeout for the next request, never longer than the fallback
+     */
+    Duration timeout(DefaultRateLimiter.Budget budget, Duration fallback) {
+        LatencyTracker tracker = latencies.get(budget);
+        if (tracker.size() < MIN_SAMPLES) {
+            return fallback;
+        }
+        Duration adapted = Duration.ofNanos(tracker.percentile(PERCENTILE) * MULTIPLIER);
+        if (adapted.compareTo(MIN_TIMEOUT) < 0) {
+            adapted = MIN_TIMEOUT;
+        }
+        if (fallback != null && fallback.compareTo(adapted) < 0) {
+            return fallback;
+        }
+        return adapted;
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.thoroldvix.internal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Semaphore which hands out permits as {@link CompletableFuture}s instead of blocking the caller.
+ * <p>
+ * Waiters are served in FIFO order. A waiter whose future was cancelled before it got a permit is skipped.
+ * </p>
+ */
+final class AsyncSemaphore {
+
+    private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int available;
+
+    AsyncSemaphore(int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("Number of permits must be positive");
+        }
+        this.available = permits;
+    }
+
+    /**
+     * Acquires a permit.
+     *
+     * @return A future completed once the permit is granted
+     */
+    CompletableFuture<Void> acquire() {
+        synchronized (this) {
+            if (available > 0) {
+                available--;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        }
+    }
+
+    /**
+     * Returns a permit, handing it directly to the oldest waiter if there is one.
+     */
+    void release() {
+        while (true) {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                next = waiters.poll();
+                if (next == null) {
+                    available++;
+                    return;
+                }
+            }
+            if (next.complete(null)) {
+                return;
+            }
+        }
+    }
+
+    synchronized int availablePermits() {
+        return available;
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.TranscriptRetrievalException;
+import io.github.thoroldvix.api.YoutubeClient;
+import io.github.thoroldvix.api.YtApiV3Endpoint;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Adapts a {@link YoutubeClient} which was not created by this library, whose blocking methods are the only ones it is known to implement.
+ * <p>
+ * Asynchronous requests are sent by calling the blocking methods in the default asynchronous executor of {@link CompletableFuture},
+ * so that bulk calls still send their requests in parallel, as they did before the API was asynchronous.
+ * </p>
+ */
+final class BlockingClientAdapter implements YoutubeClient {
+
+    private final YoutubeClient client;
+
+    private BlockingClientAdapter(YoutubeClient client) {
+        this.client = client;
+    }
+
+    /**
+     * @return The client itself if it was created by this library, otherwise an adapter sending its asynchronous requests in parallel
+     */
+    static YoutubeClient adapt(YoutubeClient client) {
+        if (client instanceof CallScopedClient || client instanceof BlockingClientAdapter) {
+            return client;
+        }
+        return new BlockingClientAdapter(client);
+    }
+
+    @Override
+    public String get(String url, Map<String, String> headers) throws TranscriptRetrievalException {
+        return client.get(url, headers);
+    }
+
+    @Override
+    public String get(YtApiV3Endpoint endpoint, Map<String, String> params) throws TranscriptRetrievalException {
+        return client.get(endpoint, params);
+    }
+
+    @Override
+    public String get(YtApiV3Endpoint endpoint, Map<String, String> params, String etag) throws TranscriptRetrievalException {
+        return client.get(endpoint, params, etag);
+    }
+
+    @Override
+    public CompletableFuture<String> getAsync(String url, Map<String, String> headers) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return client.get(url, headers);
+            } catch (TranscriptRetrievalException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<String> getAsync(YtApiV3Endpoint endpoint, Map<String, String> params) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return client.get(endpoint, params);
+            } catch (TranscriptRetrievalException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> warmUpAsync() {
+        return client.warmUpAsync();
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.YoutubeClient;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link YoutubeClient} which can limit the retries and the duration of the requests made for a single call of the API.
+ */
+interface CallScopedClient extends YoutubeClient {
+
+    /**
+     * Creates a view of this client sharing its transport and limits, but with its own budget of retries.
+     * Used to limit the total number of retries of a single bulk call.
+     *
+     * @return A client with a fresh retry budget, or this client if retries are disabled
+     */
+    CallScopedClient withRetryBudget();
+
+    /**
+     * Creates a view of this client sharing its transport and limits, whose requests must complete within the configured
+     * call timeout, counted from now. Each request only gets the time which remains of it.
+     *
+     * @return A client with a fresh deadline, or this client if no call timeout is configured
+     */
+    CallScopedClient withDeadline();
+
+    /**
+     * Sends a GET request for a video page, which is scanned as it is received and not buffered.
+     *
+     * @param url     The URL of the video page
+     * @param headers A map of headers to include in the request
+     * @return A future with the {@link VideoPage#summary() summary} of the page
+     */
+    CompletableFuture<String> getVideoPageAsync(String url, Map<String, String> headers);
+}
@@ -0,0 +1,103 @@
+package io.github.thoroldvix.internal;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * {@link HttpResponse.BodySubscriber} which aborts the exchange once the request is no longer needed, by cancelling
+ * the subscription to the response body.
+ * <p>
+ * Cancelling the future returned by {@link java.net.http.HttpClient#sendAsync} does not stop the exchange on Java 11,
+ * whereas cancelling the subscription makes the client reset the stream, or close the connection with HTTP/1.1.
+ * If the request is no longer needed before the response headers were received, the subscription is cancelled as soon as
+ * it is available. In both cases the body is completed with {@link CancellationException}, so that the response future
+ * completes and whatever it holds, such as a permit for the host, is released.
+ * </p>
+ */
+final class CancellableBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+    private final HttpResponse.BodySubscriber<T> downstream;
+    private final CompletableFuture<T> body = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+    private boolean cancelled;
+
+    CancellableBodySubscriber(HttpResponse.BodySubscriber<T> downstream, CompletableFuture<Void> cancelled) {
+        this.downstream = downstream;
+        downstream.getBody().whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                body.complete(value);
+            } else {
+                body.completeExceptionally(throwable);
+            }
+        });
+        cancelled.thenRun(this::cancel);
+    }
+
+    /**
+     * Creates a body handler which aborts the exchange once {@code cancelled} is completed.
+     *
+     * @param downstream The handler receiving the body
+     * @param cancelled  Completed when the request is no longer needed
+     * @return The cancellable body handler
+     */
+    static <T> HttpResponse.BodyHandler<T> handler(HttpResponse.BodyHandler<T> downstream, CompletableFuture<Void> cancelled) {
+        return responseInfo -> new CancellableBodySubscriber<>(downstream.apply(responseInfo), cancelled);
+    }
+
+    @Override
+    public CompletionStage<T> getBody() {
+        return body;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        boolean subscribed;
+        synchronized (this) {
+            subscribed = !cancelled;
+            if (subscribed) {
+                this.subscription = subscription;
+            }
+        }
+        if (subscribed) {
+            downstream.onSubscribe(subscription);
+        } else {
+            subscription.cancel();
+        }
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        downstream.onNext(items);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        downstream.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        downstream.onComplete();
+    }
+
+    private void cancel() {
+        Flow.Subscription subscription;
+        synchronized (this) {
+            // the winner of a hedge is cancelled too, once its body was received
+            if (cancelled || body.isDone()) {
+                return;
+            }
+            cancelled = true;
+            subscription = this.subscription;
+        }
+        body.completeExceptionally(new CancellationException("Request is no longer needed"));
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+}
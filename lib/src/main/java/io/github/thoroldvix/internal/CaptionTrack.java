@@ -0,0 +1,34 @@
+package io.github.thoroldvix.internal;
+
+/**
+ * Caption track of a video page, from which a {@link DefaultTranscript} is created.
+ */
+final class CaptionTrack {
+    private final String baseUrl;
+    private final String name;
+    private final String languageCode;
+    private final boolean generated;
+
+    CaptionTrack(String baseUrl, String name, String languageCode, boolean generated) {
+        this.baseUrl = baseUrl;
+        this.name = name;
+        this.languageCode = languageCode;
+        this.generated = generated;
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    String name() {
+        return name;
+    }
+
+    String languageCode() {
+        return languageCode;
+    }
+
+    boolean generated() {
+        return generated;
+    }
+}
@@ -0,0 +1,157 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.TranscriptRetrievalException;
+
+import java.io.IOException;
+import java.net.HttpCookie;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Provides the {@code Cookie} header for cookie files in the Netscape format.
+ * <p>
+ * Each file is parsed once and its header is cached. The modification time of the file is checked at most once per second,
+ * and the file is parsed again once it changed. Expired cookies are left out of the header.
+ * </p>
+ */
+final class CookieJar {
+
+    private static final long CHECK_INTERVAL_MILLIS = Duration.ofSeconds(1).toMillis();
+
+    private final FileLinesReader fileLinesReader;
+    private final LongSupplier clock;
+    private final Map<String, CookieFile> files = new ConcurrentHashMap<>();
+
+    CookieJar(FileLinesReader fileLinesReader) {
+        this(fileLinesReader, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock Supplies the current time in milliseconds since the epoch
+     */
+    CookieJar(FileLinesReader fileLinesReader, LongSupplier clock) {
+        this.fileLinesReader = fileLinesReader;
+        this.clock = clock;
+    }
+
+    private static Cookie createCookie(String[] parts) {
+        String domain = parts[0];
+        boolean secure = Boolean.parseBoolean(parts[1]);
+        String path = parts[2];
+        boolean httpOnly = Boolean.parseBoolean(parts[3]);
+        long expiration = Long.parseLong(parts[4]);
+        String name = parts[5];
+        String value = parts[6];
+
+        HttpCookie cookie = new HttpCookie(name, value);
+        cookie.setDomain(domain);
+        cookie.setPath(path);
+        cookie.setSecure(secure);
+        cookie.setHttpOnly(httpOnly);
+        return new Cookie(cookie.toString(), expiration * 1000);
+    }
+
+    /**
+     * @param videoId     The ID of the video the cookies are needed for, used in error messages
+     * @param cookiesPath The path of the cookies file
+     * @return The value of the {@code Cookie} header with all cookies of the file which did not expire yet
+     * @throws TranscriptRetrievalException If the file could not be read
+     */
+    String header(String videoId, String cookiesPath) throws TranscriptRetrievalException {
+        long now = clock.getAsLong();
+        CookieFile file = files.get(cookiesPath);
+        if (file != null && file.isFresh(now)) {
+            return file.header;
+        }
+        try {
+            return refresh(cookiesPath, now).header;
+        } catch (IOException e) {
+            throw new TranscriptRetrievalException(videoId, String.format("Failed to load cookies from a file: %s.", cookiesPath), e);
+        }
+    }
+
+    private synchronized CookieFile refresh(String cookiesPath, long now) throws IOException {
+        CookieFile current = files.get(cookiesPath);
+        if (current != null && current.isFresh(now)) {
+            // refreshed by another thread in the meantime
+            return current;
+        }
+        long lastModified = fileLinesReader.lastModified(cookiesPath);
+        List<Cookie> cookies;
+        if (current != null && current.lastModified == lastModified) {
+            cookies = current.cookies;
+        } else {
+            cookies = parse(fileLinesReader.readLines(cookiesPath));
+        }
+        CookieFile refreshed = new CookieFile(cookies, lastModified, now);
+        files.put(cookiesPath, refreshed);
+        return refreshed;
+    }
+
+    private static List<Cookie> parse(List<String> lines) {
+        return lines.stream()
+                .filter(line -> !line.startsWith("#"))
+                .map(line -> line.split("\t"))
+                .filter(parts -> parts.length >= 7)
+                .map(CookieJar::createCookie)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * A single cookie of the file, with its expiry time in milliseconds since the epoch, or {@code 0} for a session cookie.
+     */
+    private static final class Cookie {
+        private final String headerValue;
+        private final long expiresAt;
+
+        Cookie(String headerValue, long expiresAt) {
+            this.headerValue = headerValue;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt != 0 && expiresAt <= now;
+        }
+    }
+
+    /**
+     * Parsed content of a cookies file, with the header built from the cookies which were valid when it was checked.
+     */
+    private static final class CookieFile {
+        private final List<Cookie> cookies;
+        private final long lastModified;
+        private final long checkedAt;
+        private final String header;
+        private final long headerExpiresAt;
+
+        CookieFile(List<Cookie> cookies, long lastModified, long checkedAt) {
+            this.cookies = cookies;
+            this.lastModified = lastModified;
+            this.checkedAt = checkedAt;
+            long expiresAt = Long.MAX_VALUE;
+            StringBuilder header = new StringBuilder();
+            for (Cookie cookie : cookies) {
+                if (cookie.isExpired(checkedAt)) {
+                    continue;
+                }
+                if (header.length() > 0) {
+                    header.append("; ");
+                }
+                header.append(cookie.headerValue);
+                if (cookie.expiresAt != 0) {
+                    expiresAt = Math.min(expiresAt, cookie.expiresAt);
+                }
+            }
+            this.header = header.toString();
+            this.headerExpiresAt = expiresAt;
+        }
+
+        boolean isFresh(long now) {
+            return now - checkedAt < CHECK_INTERVAL_MILLIS && now < headerExpiresAt;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.thoroldvix.internal;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Point in time by which all requests of a single call of the API must complete.
+ */
+final class Deadline {
+
+    private final long deadlineNanos;
+    private final LongSupplier nanoClock;
+
+    Deadline(Duration timeout, LongSupplier nanoClock) {
+        this.deadlineNanos = nanoClock.getAsLong() + timeout.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    static Deadline after(Duration timeout) {
+        return new Deadline(timeout, System::nanoTime);
+    }
+
+    /**
+     * @return The time remaining until the deadline, zero or negative once it has passed
+     */
+    long remainingNanos() {
+        return deadlineNanos - nanoClock.getAsLong();
+    }
+
+    boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * @param timeout The timeout of a single request, may be {@code null}
+     * @return The shorter of the given timeout and the remaining time, at least one millisecond
+     */
+    Duration limit(Duration timeout) {
+        Duration remaining = Duration.ofNanos(Math.max(remainingNanos(), Duration.ofMillis(1).toNanos()));
+        if (timeout == null || remaining.compareTo(timeout) < 0) {
+            return remaining;
+        }
+        return timeout;
+    }
+}
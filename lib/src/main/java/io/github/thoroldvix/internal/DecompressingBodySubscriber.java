@@ -0,0 +1,346 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.TransferListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * {@link HttpResponse.BodySubscriber} which decompresses {@code gzip} and {@code deflate} encoded bodies as they are received
+ * and passes the decompressed bytes to a downstream subscriber.
+ * <p>
+ * Counts compressed and uncompressed bytes and reports them to a {@link TransferListener} once the body is received
+ * or the downstream subscriber cancels the download.
+ * </p>
+ */
+final class DecompressingBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+    private static final String IDENTITY = "identity";
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+    private static final int OUTPUT_CHUNK_SIZE = 16 * 1024;
+    private static final int GZIP_HEADER_SIZE = 10;
+    private static final int GZIP_TRAILER_SIZE = 8;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final HttpResponse.BodySubscriber<T> downstream;
+    private final String encoding;
+    private final URI uri;
+    private final TransferListener listener;
+    private final CRC32 crc;
+    private Flow.Subscription subscription;
+    private Inflater inflater;
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private Phase phase = Phase.HEADER;
+    private boolean done;
+    private long compressedBytes;
+    private long uncompressedBytes;
+
+    DecompressingBodySubscriber(HttpResponse.BodySubscriber<T> downstream, String encoding, URI uri, TransferListener listener) {
+        this.downstream = downstream;
+        this.encoding = encoding;
+        this.uri = uri;
+        this.listener = listener;
+        this.crc = GZIP.equals(encoding) ? new CRC32() : null;
+    }
+
+    /**
+     * Creates a body handler which decompresses the response according to its {@code Content-Encoding} header
+     * before passing it to the downstream handler.
+     *
+     * @param uri        The URI of the request, reported to the listener
+     * @param downstream The handler receiving the decompressed body
+     * @param listener   The listener receiving transferred byte counts, may be {@code null}
+     * @return The decompressing body handler
+     */
+    static <T> HttpResponse.BodyHandler<T> handler(URI uri, HttpResponse.BodyHandler<T> downstream, TransferListener listener) {
+        return responseInfo -> {
+            String encoding = responseInfo.headers()
+                    .firstValue("Content-Encoding")
+                    .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                    .orElse(IDENTITY);
+            return new DecompressingBodySubscriber<>(downstream.apply(responseInfo), encoding, uri, listener);
+        };
+    }
+
+    @Override
+    public CompletionStage<T> getBody() {
+        return downstream.getBody();
+    }
+
+    @Override
+    public synchronized void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        downstream.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                subscription.request(n);
+            }
+
+            @Override
+            public void cancel() {
+                synchronized (DecompressingBodySubscriber.this) {
+                    finish();
+                }
+                subscription.cancel();
+            }
+        });
+        if (!IDENTITY.equals(encoding) && !GZIP.equals(encoding) && !DEFLATE.equals(encoding)) {
+            fail(new IOException("Unsupported Content-Encoding: " + encoding));
+        }
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        List<ByteBuffer> output;
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            try {
+                output = decode(items);
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+        }
+        downstream.onNext(output);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            finish();
+        }
+        downstream.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            boolean emptyBody = compressedBytes == 0;
+            if (!IDENTITY.equals(encoding) && phase != Phase.FINISHED && !emptyBody) {
+                fail(new EOFException("Unexpected end of " + encoding + " encoded response body"));
+                return;
+            }
+            finish();
+        }
+        downstream.onComplete();
+    }
+
+    private List<ByteBuffer> decode(List<ByteBuffer> items) throws IOException {
+        List<ByteBuffer> output = new ArrayList<>(items.size());
+        for (ByteBuffer item : items) {
+            compressedBytes += item.remaining();
+            if (IDENTITY.equals(encoding)) {
+                uncompressedBytes += item.remaining();
+                output.add(item);
+            } else {
+                decode(item, output);
+            }
+        }
+        return output;
+    }
+
+    private void decode(ByteBuffer input, List<ByteBuffer> output) throws IOException {
+        while (input.hasRemaining()) {
+            switch (phase) {
+                case HEADER:
+                    input = readHeader(input);
+                    if (input == null) {
+                        return;
+                    }
+                    break;
+                case BODY:
+                    inflate(input, output);
+                    if (!inflater.finished()) {
+                        return;
+                    }
+                    phase = crc != null ? Phase.TRAILER : Phase.FINISHED;
+                    break;
+                case TRAILER:
+                    readTrailer(input);
+                    break;
+                default:
+                    // data after the end of the compressed stream is ignored
+                    input.position(input.limit());
+                    return;
+            }
+        }
+    }
+
+    /**
+     * Buffers bytes until the complete header is available, then creates the inflater.
+     *
+     * @return The input remaining after the header, or {@code null} if more bytes are needed
+     */
+    private ByteBuffer readHeader(ByteBuffer input) throws IOException {
+        byte[] chunk = new byte[input.remaining()];
+        input.get(chunk);
+        pending.write(chunk, 0, chunk.length);
+        byte[] bytes = pending.toByteArray();
+
+        int headerLength;
+        boolean nowrap;
+        if (crc != null) {
+            headerLength = gzipHeaderLength(bytes);
+            nowrap = true;
+        } else {
+            if (bytes.length < 2) {
+                return null;
+            }
+            // "deflate" should be zlib wrapped, but some servers send raw deflate data
+            headerLength = 0;
+            nowrap = !isZlibHeader(bytes);
+        }
+        if (headerLength < 0) {
+            return null;
+        }
+        inflater = new Inflater(nowrap);
+        pending = new ByteArrayOutputStream(GZIP_TRAILER_SIZE);
+        phase = Phase.BODY;
+        return ByteBuffer.wrap(bytes, headerLength, bytes.length - headerLength);
+    }
+
+    private void inflate(ByteBuffer input, List<ByteBuffer> output) throws IOException {
+        inflater.setInput(input);
+        try {
+            while (true) {
+                ByteBuffer chunk = ByteBuffer.allocate(OUTPUT_CHUNK_SIZE);
+                int inflated = inflater.inflate(chunk);
+                if (inflated > 0) {
+                    chunk.flip();
+                    if (crc != null) {
+                        crc.update(chunk.duplicate());
+                    }
+                    uncompressedBytes += inflated;
+                    output.add(chunk);
+                }
+                if (inflater.finished()) {
+                    return;
+                }
+                if (inflater.needsDictionary()) {
+                    throw new IOException("Compressed response body requires a preset dictionary");
+                }
+                if (inflated == 0 && inflater.needsInput()) {
+                    return;
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Invalid " + encoding + " encoded response body", e);
+        }
+    }
+
+    private void readTrailer(ByteBuffer input) throws IOException {
+        while (input.hasRemaining() && pending.size() < GZIP_TRAILER_SIZE) {
+            pending.write(input.get());
+        }
+        if (pending.size() < GZIP_TRAILER_SIZE) {
+            return;
+        }
+        byte[] trailer = pending.toByteArray();
+        long expectedCrc = readInt(trailer, 0);
+        long expectedSize = readInt(trailer, 4);
+        if (expectedCrc != crc.getValue() || expectedSize != (uncompressedBytes & 0xffffffffL)) {
+            throw new IOException("Corrupt gzip trailer");
+        }
+        phase = Phase.FINISHED;
+    }
+
+    private static int gzipHeaderLength(byte[] bytes) throws IOException {
+        if (bytes.length < GZIP_HEADER_SIZE) {
+            return -1;
+        }
+        if ((bytes[0] & 0xff) != 0x1f || (bytes[1] & 0xff) != 0x8b || bytes[2] != 8) {
+            throw new IOException("Response body is not in gzip format");
+        }
+        int flags = bytes[3] & 0xff;
+        int position = GZIP_HEADER_SIZE;
+        if ((flags & FEXTRA) != 0) {
+            if (bytes.length < position + 2) {
+                return -1;
+            }
+            position += 2 + ((bytes[position] & 0xff) | ((bytes[position + 1] & 0xff) << 8));
+        }
+        if ((flags & FNAME) != 0) {
+            position = skipZeroTerminated(bytes, position);
+        }
+        if (position >= 0 && (flags & FCOMMENT) != 0) {
+            position = skipZeroTerminated(bytes, position);
+        }
+        if (position >= 0 && (flags & FHCRC) != 0) {
+            position += 2;
+        }
+        return position >= 0 && position <= bytes.length ? position : -1;
+    }
+
+    private static int skipZeroTerminated(byte[] bytes, int position) {
+        for (int i = position; i < bytes.length; i++) {
+            if (bytes[i] == 0) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isZlibHeader(byte[] bytes) {
+        int cmf = bytes[0] & 0xff;
+        int flg = bytes[1] & 0xff;
+        return (cmf & 0x0f) == 8 && ((cmf << 8) | flg) % 31 == 0;
+    }
+
+    private static long readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xffL)
+               | (bytes[offset + 1] & 0xffL) << 8
+               | (bytes[offset + 2] & 0xffL) << 16
+               | (bytes[offset + 3] & 0xffL) << 24;
+    }
+
+    private void fail(IOException e) {
+        subscription.cancel();
+        finish();
+        downstream.onError(e);
+    }
+
+    private void finish() {
+        if (done) {
+            return;
+        }
+        done = true;
+        if (inflater != null) {
+            inflater.end();
+        }
+        if (listener != null) {
+            listener.onTransfer(uri, encoding, compressedBytes, uncompressedBytes);
+        }
+    }
+
+    private enum Phase {
+        HEADER,
+        BODY,
+        TRAILER,
+        FINISHED
+    }
+}
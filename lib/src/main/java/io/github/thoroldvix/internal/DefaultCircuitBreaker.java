@@ -0,0 +1,164 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.CircuitBreaker;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Default implementation of {@link CircuitBreaker}.
+ */
+final class DefaultCircuitBreaker implements CircuitBreaker {
+
+    private final int failureThreshold;
+    private final long coolDownNanos;
+    private final Listener listener;
+    private final LongSupplier nanoClock;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    DefaultCircuitBreaker(int failureThreshold, Duration coolDown, Listener listener, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.coolDownNanos = coolDown.toNanos();
+        this.listener = listener;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return A closed circuit breaker with the same settings and listener, whose state is independent of this one
+     */
+    DefaultCircuitBreaker copy() {
+        return new DefaultCircuitBreaker(failureThreshold, Duration.ofNanos(coolDownNanos), listener, nanoClock);
+    }
+
+    @Override
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Asks for permission to send a request.
+     *
+     * @return {@link Permission#PROBE} if the request is the probe after a cool-down,
+     * {@link Permission#REJECTED} if the request must not be sent
+     */
+    Permission acquire() {
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return Permission.ALLOWED;
+            }
+            if (state == State.HALF_OPEN || nanoClock.getAsLong() - openedAt < coolDownNanos) {
+                return Permission.REJECTED;
+            }
+            state = State.HALF_OPEN;
+        }
+        notifyListener(State.OPEN, State.HALF_OPEN);
+        return Permission.PROBE;
+    }
+
+    /**
+     * Records the outcome of a request sent with the given permission.
+     *
+     * @param permission The permission the request was sent with
+     * @param outcome    The outcome of the request
+     */
+    void record(Permission permission, Outcome outcome) {
+        State previous;
+        State current;
+        synchronized (this) {
+            previous = state;
+            if (permission == Permission.PROBE) {
+                if (outcome == Outcome.SUCCESS) {
+                    close();
+                } else {
+                    open();
+                }
+            } else if (outcome == Outcome.BLOCKED) {
+                if (state == State.CLOSED && ++consecutiveFailures >= failureThreshold) {
+                    open();
+                }
+            } else if (outcome == Outcome.SUCCESS) {
+                consecutiveFailures = 0;
+            }
+            current = state;
+        }
+        if (previous != current) {
+            notifyListener(previous, current);
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    private void notifyListener(State previous, State current) {
+        if (listener != null) {
+            listener.onStateChange(previous, current);
+        }
+    }
+
+    enum Permission {
+        ALLOWED,
+        PROBE,
+        REJECTED
+    }
+
+    enum Outcome {
+        SUCCESS,
+        BLOCKED,
+        /**
+         * The request failed without a response, which tells nothing about being blocked.
+         */
+        FAILED
+    }
+
+    /**
+     * Default implementation of {@link CircuitBreaker.Builder}.
+     */
+    static final class Builder implements CircuitBreaker.Builder {
+        private int failureThreshold = 5;
+        private Duration coolDown = Duration.ofMinutes(5);
+        private Listener listener;
+
+        Builder() {
+        }
+
+        @Override
+        public Builder failureThreshold(int failureThreshold) {
+            if (failureThreshold <= 0) {
+                throw new IllegalArgumentException("Failure threshold must be positive");
+            }
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        @Override
+        public Builder coolDown(Duration coolDown) {
+            Objects.requireNonNull(coolDown, "coolDown");
+            if (coolDown.isNegative()) {
+                throw new IllegalArgumentException("coolDown must not be negative");
+            }
+            this.coolDown = coolDown;
+            return this;
+        }
+
+        @Override
+        public Builder listener(Listener listener) {
+            this.listener = Objects.requireNonNull(listener, "listener");
+            return this;
+        }
+
+        @Override
+        public CircuitBreaker build() {
+            return new DefaultCircuitBreaker(failureThreshold, coolDown, listener, System::nanoTime);
+        }
+    }
+}
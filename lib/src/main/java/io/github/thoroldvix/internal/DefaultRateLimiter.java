@@ -0,0 +1,69 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.RateLimiter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Default implementation of {@link RateLimiter}, keeping a {@link TokenBucket} for each configured budget.
+ */
+final class DefaultRateLimiter implements RateLimiter {
+
+    private final Map<Budget, TokenBucket> buckets;
+
+    private DefaultRateLimiter(Map<Budget, TokenBucket> buckets) {
+        this.buckets = buckets;
+    }
+
+    CompletableFuture<Void> acquire(Budget budget) {
+        TokenBucket bucket = buckets.get(budget);
+        if (bucket == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return bucket.acquire();
+    }
+
+    /**
+     * Kind of request, each with its own budget.
+     */
+    enum Budget {
+        VIDEO_PAGE,
+        TIMEDTEXT,
+        DATA_API
+    }
+
+    /**
+     * Default implementation of {@link RateLimiter.Builder}.
+     */
+    static final class Builder implements RateLimiter.Builder {
+        private final Map<Budget, TokenBucket> buckets = new EnumMap<>(Budget.class);
+
+        Builder() {
+        }
+
+        @Override
+        public Builder videoPages(double requestsPerSecond, int burst) {
+            buckets.put(Budget.VIDEO_PAGE, new TokenBucket(requestsPerSecond, burst));
+            return this;
+        }
+
+        @Override
+        public Builder timedText(double requestsPerSecond, int burst) {
+            buckets.put(Budget.TIMEDTEXT, new TokenBucket(requestsPerSecond, burst));
+            return this;
+        }
+
+        @Override
+        public Builder dataApi(double requestsPerSecond, int burst) {
+            buckets.put(Budget.DATA_API, new TokenBucket(requestsPerSecond, burst));
+            return this;
+        }
+
+        @Override
+        public RateLimiter build() {
+            return new DefaultRateLimiter(new EnumMap<>(buckets));
+        }
+    }
+}
@@ -3,10 +3,16 @@ package io.github.thoroldvix.internal;
 
 import io.github.thoroldvix.api.Transcript;
 import io.github.thoroldvix.api.TranscriptContent;
+import io.github.thoroldvix.api.TranscriptFollower;
+import io.github.thoroldvix.api.TranscriptFormat;
 import io.github.thoroldvix.api.TranscriptRetrievalException;
 import io.github.thoroldvix.api.YoutubeClient;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Default implementation of {@link Transcript}.
@@ -21,6 +27,7 @@ final class DefaultTranscript implements Transcript {
     private final boolean isGenerated;
     private final Map<String, String> translationLanguages;
     private final boolean isTranslatable;
+    private final SingleFlight<String, TranscriptContent> contentFetches;
 
     DefaultTranscript(YoutubeClient client,
                       String videoId,
@@ -29,6 +36,21 @@ final class DefaultTranscript implements Transcript {
                       String languageCode,
                       boolean isGenerated,
                       Map<String, String> translationLanguages) {
+        this(client, videoId, apiUrl, language, languageCode, isGenerated, translationLanguages, new SingleFlight<>());
+    }
+
+    /**
+     * @param contentFetches Shared by transcripts of all lists extracted by the same API instance,
+     *                       so that concurrent fetches of the same transcript URL are done only once
+     */
+    DefaultTranscript(YoutubeClient client,
+                      String videoId,
+                      String apiUrl,
+                      String language,
+                      String languageCode,
+                      boolean isGenerated,
+                      Map<String, String> translationLanguages,
+                      SingleFlight<String, TranscriptContent> contentFetches) {
         this.client = client;
         this.videoId = videoId;
         this.apiUrl = apiUrl;
@@ -37,13 +59,72 @@ final class DefaultTranscript implements Transcript {
         this.isGenerated = isGenerated;
         this.translationLanguages = translationLanguages;
         this.isTranslatable = translationLanguages != null && !translationLanguages.isEmpty();
+        this.contentFetches = contentFetches;
     }
 
     @Override
     public TranscriptContent fetch() throws TranscriptRetrievalException {
-        String transcriptXml = client.get(apiUrl, Map.of("Accept-Language", "en-US"));
-        TranscriptContentExtractor extractor = new TranscriptContentExtractor(videoId);
-        return extractor.extract(transcriptXml);
+        return Futures.await(fetchAsync());
+    }
+
+    @Override
+    public CompletableFuture<TranscriptContent> fetchAsync() {
+        return fetchAsync(client);
+    }
+
+    @Override
+    public TranscriptContent fetch(TranscriptFormat format) throws TranscriptRetrievalException {
+        return Futures.await(fetchAsync(format));
+    }
+
+    @Override
+    public CompletableFuture<TranscriptContent> fetchAsync(TranscriptFormat format) {
+        return fetchAsync(client, format);
+    }
+
+    @Override
+    public TranscriptContent fetchLazy() throws TranscriptRetrievalException {
+        return Futures.await(fetchLazyAsync());
+    }
+
+    @Override
+    public CompletableFuture<TranscriptContent> fetchLazyAsync() {
+        // not coalesced with eager fetches of the same URL, which return parsed content
+        return contentFetches.execute("lazy:" + apiUrl, () -> client.getAsync(apiUrl, Map.of("Accept-Language", "en-US"))
+                .thenApply(Futures.unchecked(xml -> LazyTranscriptContent.of(videoId, xml))));
+    }
+
+    @Override
+    public TranscriptFollower follow(Consumer<List<TranscriptContent.Fragment>> listener) {
+        Objects.requireNonNull(listener, "listener");
+        return new DefaultTranscriptFollower(client, videoId, apiUrl, listener);
+    }
+
+    CompletableFuture<TranscriptContent> fetchAsync(YoutubeClient client) {
+        return fetchAsync(client, TranscriptFormat.XML);
+    }
+
+    /**
+     * Fetches the content with the given client instead of the one of this transcript,
+     * so that the request is subject to the limits of the call it is made for.
+     */
+    CompletableFuture<TranscriptContent> fetchAsync(YoutubeClient client, TranscriptFormat format) {
+        Objects.requireNonNull(format, "format");
+        String url = format == TranscriptFormat.JSON3 ? withQueryParameter(apiUrl, "fmt", "json3") : apiUrl;
+        return contentFetches.execute(url, () -> client.getAsync(url, Map.of("Accept-Language", "en-US"))
+                .thenCompose(content -> extract(content, format)));
+    }
+
+    private CompletableFuture<TranscriptContent> extract(String content, TranscriptFormat format) {
+        if (format == TranscriptFormat.JSON3) {
+            try {
+                return CompletableFuture.completedFuture(new Json3TranscriptContentExtractor(videoId).extract(content));
+            } catch (TranscriptRetrievalException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        // large transcripts are parsed in parallel, without blocking the thread which completed the response
+        return new TranscriptContentExtractor(videoId).extractAsync(content);
     }
 
     @Override
@@ -56,7 +137,8 @@ final class DefaultTranscript implements Transcript {
                 translationLanguages.get(languageCode),
                 languageCode,
                 isGenerated,
-                translationLanguages
+                translationLanguages,
+                contentFetches
         );
     }
 
@@ -69,6 +151,25 @@ final class DefaultTranscript implements Transcript {
         }
     }
 
+    /**
+     * @return The URL with the given query parameter, replacing any value it already has
+     */
+    static String withQueryParameter(String url, String name, String value) {
+        int queryStart = url.indexOf('?');
+        StringBuilder result = new StringBuilder(url.length() + name.length() + value.length() + 2);
+        if (queryStart < 0) {
+            result.append(url).append('?');
+        } else {
+            result.append(url, 0, queryStart + 1);
+            for (String parameter : url.substring(queryStart + 1).split("&")) {
+                if (!parameter.isEmpty() && !parameter.equals(name) && !parameter.startsWith(name + "=")) {
+                    result.append(parameter).append('&');
+                }
+            }
+        }
+        return result.append(name).append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8)).toString();
+    }
+
     private String createTranslationApiUrl(String languageCode) {
         return String.format("%s&tlang=%s", apiUrl, languageCode);
     }
@@ -1,35 +1,173 @@
 package io.github.thoroldvix.internal;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
-import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
-import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlText;
 import io.github.thoroldvix.api.TranscriptContent;
 
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.stream.Collectors;
 
 /**
  * Default implementation of {@link TranscriptContent}
+ * <p>
+ * Fragments are stored in columns: their start times and durations in milliseconds in {@code int} arrays, and their texts
+ * encoded as UTF-8 in a single {@code byte} array with an array of offsets. Words are stored the same way. {@link Fragment}
+ * objects are only created when they are accessed through {@link #getContent()}, bulk consumers can use the primitive accessors instead.
+ * </p>
  */
 final class DefaultTranscriptContent implements TranscriptContent {
 
-    private final List<DefaultTranscriptContent.Fragment> content;
+    private final int size;
+    private final int[] startMillis;
+    private final int[] durationMillis;
+    private final byte[] text;
+    private final int[] textOffsets;
+    /**
+     * Index of the first word of each fragment, with the number of words as the last element.
+     */
+    private final int[] wordOffsets;
+    private final int[] wordStartMillis;
+    private final byte[] wordText;
+    private final int[] wordTextOffsets;
+    private final List<TranscriptContent.Fragment> content = new FragmentList();
+    /**
+     * Built on the first lookup by time, may be built more than once by concurrent lookups.
+     */
+    private volatile TimeIndex timeIndex;
 
     public DefaultTranscriptContent(List<DefaultTranscriptContent.Fragment> content) {
-        this.content = content;
+        this(builder(content));
+    }
+
+    private DefaultTranscriptContent(Builder builder) {
+        this.size = builder.size;
+        this.startMillis = Arrays.copyOf(builder.startMillis, size);
+        this.durationMillis = Arrays.copyOf(builder.durationMillis, size);
+        this.text = Arrays.copyOf(builder.text.bytes, builder.text.length);
+        this.textOffsets = Arrays.copyOf(builder.textOffsets, size + 1);
+        this.wordOffsets = Arrays.copyOf(builder.wordOffsets, size + 1);
+        this.wordStartMillis = Arrays.copyOf(builder.wordStartMillis, builder.words);
+        this.wordText = Arrays.copyOf(builder.wordText.bytes, builder.wordText.length);
+        this.wordTextOffsets = Arrays.copyOf(builder.wordTextOffsets, builder.words + 1);
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    private static Builder builder(List<DefaultTranscriptContent.Fragment> content) {
+        Builder builder = new Builder();
+        for (Fragment fragment : content) {
+            builder.add(fragment.getText(), toMillis(fragment.getStart()), toMillis(fragment.getDur()));
+            for (TranscriptContent.Word word : fragment.getWords()) {
+                builder.addWord(word.getText(), toMillis(word.getStart()));
+            }
+        }
+        return builder;
+    }
+
+    static int toMillis(double seconds) {
+        return (int) Math.round(seconds * 1000);
+    }
+
+    private static double toSeconds(int millis) {
+        return millis / 1000.0;
     }
 
     @Override
     public List<TranscriptContent.Fragment> getContent() {
-        return Collections.unmodifiableList(content);
+        return content;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getStartMillis(int index) {
+        Objects.checkIndex(index, size);
+        return startMillis[index];
+    }
+
+    @Override
+    public int getDurationMillis(int index) {
+        Objects.checkIndex(index, size);
+        return durationMillis[index];
+    }
+
+    @Override
+    public String getText(int index) {
+        Objects.checkIndex(index, size);
+        return new String(text, textOffsets[index], textOffsets[index + 1] - textOffsets[index], StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int indexOf(double time) {
+        if (Double.isNaN(time)) {
+            return -1;
+        }
+        return timeIndex().indexOf(floorMillis(time));
+    }
+
+    @Override
+    public List<TranscriptContent.Fragment> fragmentsBetween(double start, double end) {
+        if (!(start < end)) {
+            return List.of();
+        }
+        int[] indices = timeIndex().indicesBetween(floorMillis(start), ceilMillis(end));
+        TranscriptContent.Fragment[] fragments = new TranscriptContent.Fragment[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            fragments[i] = content.get(indices[i]);
+        }
+        return List.of(fragments);
+    }
+
+    private TimeIndex timeIndex() {
+        TimeIndex index = timeIndex;
+        if (index == null) {
+            index = new TimeIndex(startMillis, durationMillis, size);
+            timeIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Fragments start and end at whole milliseconds, so rounding a start time down and an end time up keeps comparisons exact.
+     */
+    private static int floorMillis(double seconds) {
+        return (int) Math.max(Integer.MIN_VALUE + 1, Math.min(Integer.MAX_VALUE, Math.floor(seconds * 1000)));
+    }
+
+    private static int ceilMillis(double seconds) {
+        return (int) Math.max(Integer.MIN_VALUE + 1, Math.min(Integer.MAX_VALUE, Math.ceil(seconds * 1000)));
+    }
+
+    private List<TranscriptContent.Word> words(int index) {
+        int from = wordOffsets[index];
+        int to = wordOffsets[index + 1];
+        if (from == to) {
+            return List.of();
+        }
+        TranscriptContent.Word[] words = new TranscriptContent.Word[to - from];
+        for (int i = from; i < to; i++) {
+            String text = new String(wordText, wordTextOffsets[i], wordTextOffsets[i + 1] - wordTextOffsets[i], StandardCharsets.UTF_8);
+            words[i - from] = new Word(text, toSeconds(wordStartMillis[i]));
+        }
+        return List.of(words);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(content);
+        int result = Arrays.hashCode(startMillis);
+        result = 31 * result + Arrays.hashCode(durationMillis);
+        result = 31 * result + Arrays.hashCode(text);
+        result = 31 * result + Arrays.hashCode(textOffsets);
+        return result;
     }
 
     @Override
@@ -37,7 +175,10 @@ final class DefaultTranscriptContent implements TranscriptContent {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         DefaultTranscriptContent that = (DefaultTranscriptContent) o;
-        return Objects.equals(content, that.content);
+        return Arrays.equals(startMillis, that.startMillis) && Arrays.equals(durationMillis, that.durationMillis) &&
+               Arrays.equals(text, that.text) && Arrays.equals(textOffsets, that.textOffsets) &&
+               Arrays.equals(wordOffsets, that.wordOffsets) && Arrays.equals(wordStartMillis, that.wordStartMillis) &&
+               Arrays.equals(wordText, that.wordText) && Arrays.equals(wordTextOffsets, that.wordTextOffsets);
     }
 
     @Override
@@ -47,28 +188,182 @@ final class DefaultTranscriptContent implements TranscriptContent {
                 .collect(Collectors.joining(", ")) + "]";
     }
 
+    /**
+     * Creates fragment views over the columns.
+     */
+    private final class FragmentList extends AbstractList<TranscriptContent.Fragment> implements RandomAccess {
+
+        @Override
+        public TranscriptContent.Fragment get(int index) {
+            return new Fragment(getText(index), toSeconds(startMillis[index]), toSeconds(durationMillis[index]), words(index));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Builds a {@link DefaultTranscriptContent} by appending fragments to its columns.
+     */
+    static final class Builder {
+        private int size;
+        private int[] startMillis = new int[64];
+        private int[] durationMillis = new int[64];
+        private final Utf8Buffer text = new Utf8Buffer();
+        private int[] textOffsets = new int[65];
+        private int[] wordOffsets = new int[65];
+        private int words;
+        private int[] wordStartMillis = new int[0];
+        private final Utf8Buffer wordText = new Utf8Buffer();
+        private int[] wordTextOffsets = new int[1];
+
+        private Builder() {
+        }
+
+        /**
+         * Appends a fragment, the text is encoded right away so that it can be a reused buffer.
+         */
+        Builder add(CharSequence fragmentText, int startMillis, int durationMillis) {
+            ensureFragmentCapacity(size + 1);
+            this.startMillis[size] = startMillis;
+            this.durationMillis[size] = durationMillis;
+            text.append(fragmentText);
+            size++;
+            textOffsets[size] = text.length;
+            wordOffsets[size] = words;
+            return this;
+        }
+
+        /**
+         * Appends a word to the last added fragment.
+         */
+        Builder addWord(CharSequence word, int startMillis) {
+            if (size == 0) {
+                throw new IllegalStateException("A fragment must be added before its words");
+            }
+            ensureWordCapacity(words + 1);
+            wordStartMillis[words] = startMillis;
+            wordText.append(word);
+            words++;
+            wordTextOffsets[words] = wordText.length;
+            wordOffsets[size] = words;
+            return this;
+        }
+
+        /**
+         * Appends all fragments of the other builder, with their words.
+         */
+        Builder addAll(Builder other) {
+            ensureFragmentCapacity(size + other.size);
+            ensureWordCapacity(words + other.words);
+            System.arraycopy(other.startMillis, 0, startMillis, size, other.size);
+            System.arraycopy(other.durationMillis, 0, durationMillis, size, other.size);
+            for (int i = 1; i <= other.size; i++) {
+                textOffsets[size + i] = text.length + other.textOffsets[i];
+                wordOffsets[size + i] = words + other.wordOffsets[i];
+            }
+            System.arraycopy(other.wordStartMillis, 0, wordStartMillis, words, other.words);
+            for (int i = 1; i <= other.words; i++) {
+                wordTextOffsets[words + i] = wordText.length + other.wordTextOffsets[i];
+            }
+            text.append(other.text);
+            wordText.append(other.wordText);
+            size += other.size;
+            words += other.words;
+            return this;
+        }
+
+        DefaultTranscriptContent build() {
+            return new DefaultTranscriptContent(this);
+        }
+
+        private void ensureFragmentCapacity(int capacity) {
+            if (capacity > startMillis.length) {
+                capacity = Math.max(capacity, startMillis.length * 2);
+                startMillis = Arrays.copyOf(startMillis, capacity);
+                durationMillis = Arrays.copyOf(durationMillis, capacity);
+                textOffsets = Arrays.copyOf(textOffsets, capacity + 1);
+                wordOffsets = Arrays.copyOf(wordOffsets, capacity + 1);
+            }
+        }
+
+        private void ensureWordCapacity(int capacity) {
+            if (capacity > wordStartMillis.length) {
+                capacity = Math.max(capacity, Math.max(64, wordStartMillis.length * 2));
+                wordStartMillis = Arrays.copyOf(wordStartMillis, capacity);
+                wordTextOffsets = Arrays.copyOf(wordTextOffsets, capacity + 1);
+            }
+        }
+    }
+
+    /**
+     * Growable byte array to which characters are appended encoded as UTF-8.
+     */
+    private static final class Utf8Buffer {
+        private byte[] bytes = new byte[1024];
+        private int length;
+
+        void append(CharSequence chars) {
+            int count = chars.length();
+            // at most three bytes for each char, four for each surrogate pair
+            ensureCapacity(length + count * 3);
+            for (int i = 0; i < count; i++) {
+                char c = chars.charAt(i);
+                if (c < 0x80) {
+                    bytes[length++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[length++] = (byte) (0xC0 | c >> 6);
+                    bytes[length++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && i + 1 < count && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+                    bytes[length++] = (byte) (0xF0 | codePoint >> 18);
+                    bytes[length++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    bytes[length++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    bytes[length++] = (byte) (0x80 | codePoint & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    // unpaired surrogate, replaced like String.getBytes does
+                    bytes[length++] = '?';
+                } else {
+                    bytes[length++] = (byte) (0xE0 | c >> 12);
+                    bytes[length++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    bytes[length++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+        }
+
+        void append(Utf8Buffer other) {
+            ensureCapacity(length + other.length);
+            System.arraycopy(other.bytes, 0, bytes, length, other.length);
+            length += other.length;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+            }
+        }
+    }
+
     /**
      * Default implementation of {@link TranscriptContent.Fragment}
      */
-    @JacksonXmlRootElement(localName = "transcript")
     static final class Fragment implements TranscriptContent.Fragment {
-        @JacksonXmlText
-        @JsonProperty("text")
-        private String text;
-        @JacksonXmlProperty(isAttribute = true)
-        @JsonProperty("start")
-        private double start;
-        @JacksonXmlProperty(isAttribute = true)
-        @JsonProperty("dur")
-        private double dur;
+        private final String text;
+        private final double start;
+        private final double dur;
+        private final List<TranscriptContent.Word> words;
 
         public Fragment(String text, double start, double dur) {
+            this(text, start, dur, List.of());
+        }
+
+        Fragment(String text, double start, double dur, List<TranscriptContent.Word> words) {
             this.text = text;
             this.start = start;
             this.dur = dur;
-        }
-
-        Fragment() {
+            this.words = words;
         }
 
         @Override
@@ -86,17 +381,23 @@ final class DefaultTranscriptContent implements TranscriptContent {
             return dur;
         }
 
+        @Override
+        public List<TranscriptContent.Word> getWords() {
+            return Collections.unmodifiableList(words);
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             Fragment fragment = (Fragment) o;
-            return Double.compare(start, fragment.start) == 0 && Double.compare(dur, fragment.dur) == 0 && Objects.equals(text, fragment.text);
+            return Double.compare(start, fragment.start) == 0 && Double.compare(dur, fragment.dur) == 0 && Objects.equals(text, fragment.text) &&
+                   Objects.equals(words, fragment.words);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(text, start, dur);
+            return Objects.hash(text, start, dur, words);
         }
 
         @Override
@@ -105,6 +406,51 @@ final class DefaultTranscriptContent implements TranscriptContent {
                    "text='" + text + '\'' +
                    ", start=" + start +
                    ", dur=" + dur +
+                   (words.isEmpty() ? "" : ", words=" + words) +
+                   '}';
+        }
+    }
+
+    /**
+     * Default implementation of {@link TranscriptContent.Word}
+     */
+    static final class Word implements TranscriptContent.Word {
+        private final String text;
+        private final double start;
+
+        Word(String text, double start) {
+            this.text = text;
+            this.start = start;
+        }
+
+        @Override
+        public String getText() {
+            return text;
+        }
+
+        @Override
+        public double getStart() {
+            return start;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Word word = (Word) o;
+            return Double.compare(start, word.start) == 0 && Objects.equals(text, word.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(text, start);
+        }
+
+        @Override
+        public String toString() {
+            return "{" +
+                   "text='" + text + '\'' +
+                   ", start=" + start +
                    '}';
         }
     }
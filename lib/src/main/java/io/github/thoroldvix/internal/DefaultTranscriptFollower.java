@@ -0,0 +1,145 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.TranscriptContent;
+import io.github.thoroldvix.api.TranscriptFollower;
+import io.github.thoroldvix.api.TranscriptRetrievalException;
+import io.github.thoroldvix.api.YoutubeClient;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Default implementation of {@link TranscriptFollower}.
+ * <p>
+ * The follower remembers where it stopped parsing the previous document, and the last element it parsed. If the next document has
+ * the same element at the same index, it grew by appending elements and only the elements after that index are parsed, so that the
+ * cost of a poll does not grow with the transcript. Otherwise the whole document is parsed, and the fragments which start after the
+ * last fragment seen so far are new. Only the last element is compared, so an edit of an earlier element is not noticed until
+ * the document changes at its end. Start times are compared instead of end times, since automatically generated cues overlap.
+ * </p>
+ * <p>
+ * New fragments are queued while the state of the follower is locked, and passed to the listener after it was released, so that a slow
+ * listener does not hold up parsing. One thread at a time passes the queued fragments to the listener, in the order of the polls.
+ * </p>
+ */
+final class DefaultTranscriptFollower implements TranscriptFollower {
+
+    private final YoutubeClient client;
+    private final String apiUrl;
+    private final Consumer<List<TranscriptContent.Fragment>> listener;
+    private final TranscriptContentExtractor extractor;
+    /**
+     * Index after the last parsed element of the previous document, {@code 0} before the first poll.
+     */
+    private int parsedEnd;
+    /**
+     * The last parsed element of the previous document, which ends at {@link #parsedEnd}.
+     */
+    private String lastElement = "";
+    private int lastStartMillis = Integer.MIN_VALUE;
+    private final Queue<List<TranscriptContent.Fragment>> notifications = new ArrayDeque<>();
+    private boolean notifying;
+
+    DefaultTranscriptFollower(YoutubeClient client, String videoId, String apiUrl, Consumer<List<TranscriptContent.Fragment>> listener) {
+        this.client = client;
+        this.apiUrl = apiUrl;
+        this.listener = listener;
+        this.extractor = new TranscriptContentExtractor(videoId);
+    }
+
+    @Override
+    public List<TranscriptContent.Fragment> poll() throws TranscriptRetrievalException {
+        return Futures.await(pollAsync());
+    }
+
+    @Override
+    public CompletableFuture<List<TranscriptContent.Fragment>> pollAsync() {
+        return client.getAsync(apiUrl, Map.of("Accept-Language", "en-US"))
+                .thenApply(Futures.unchecked(this::advance));
+    }
+
+    private List<TranscriptContent.Fragment> advance(String xml) throws TranscriptRetrievalException {
+        List<TranscriptContent.Fragment> newFragments = findNewFragments(xml);
+        notifyListener();
+        return newFragments;
+    }
+
+    /**
+     * Finds the new fragments of the document and queues them for the listener. Synchronized, so that the fragments of
+     * concurrent polls are found and queued one poll after another.
+     */
+    private synchronized List<TranscriptContent.Fragment> findNewFragments(String xml) throws TranscriptRetrievalException {
+        boolean appended = isAppended(xml);
+        DefaultTranscriptContent.Builder builder = DefaultTranscriptContent.builder();
+        int end = extractor.extract(xml, appended ? parsedEnd : 0, builder);
+        TranscriptContent content = builder.build();
+        List<TranscriptContent.Fragment> fragments = new ArrayList<>();
+        int lastStartMillis = this.lastStartMillis;
+        for (int i = 0; i < content.size(); i++) {
+            int startMillis = content.getStartMillis(i);
+            if (appended || startMillis > this.lastStartMillis) {
+                fragments.add(content.getContent().get(i));
+                lastStartMillis = Math.max(lastStartMillis, startMillis);
+            }
+        }
+        this.lastStartMillis = lastStartMillis;
+        // a changed document without new fragments may be the response of an earlier poll which arrived late,
+        // the appended elements of the next document would be found again if it replaced the previous one
+        if (appended || !fragments.isEmpty()) {
+            lastElement = xml.substring(TranscriptContentExtractor.lastElementStart(xml, end), end);
+            parsedEnd = end;
+        }
+        List<TranscriptContent.Fragment> newFragments = Collections.unmodifiableList(fragments);
+        if (!newFragments.isEmpty()) {
+            synchronized (notifications) {
+                notifications.add(newFragments);
+            }
+        }
+        return newFragments;
+    }
+
+    private boolean isAppended(String xml) {
+        return parsedEnd > 0 && xml.length() >= parsedEnd
+               && xml.regionMatches(parsedEnd - lastElement.length(), lastElement, 0, lastElement.length());
+    }
+
+    /**
+     * Passes the queued fragments to the listener, unless another thread is already doing so and will pass them as well.
+     */
+    private void notifyListener() {
+        synchronized (notifications) {
+            if (notifying) {
+                return;
+            }
+            notifying = true;
+        }
+        boolean drained = false;
+        try {
+            while (!drained) {
+                List<TranscriptContent.Fragment> fragments;
+                synchronized (notifications) {
+                    fragments = notifications.poll();
+                    // cleared together with finding the queue empty, so that fragments queued afterwards are not left behind
+                    drained = fragments == null;
+                    notifying = !drained;
+                }
+                if (fragments != null) {
+                    listener.accept(fragments);
+                }
+            }
+        } finally {
+            if (!drained) {
+                // the listener failed, the fragments queued meanwhile are passed to it by the next poll
+                synchronized (notifications) {
+                    notifying = false;
+                }
+            }
+        }
+    }
+}
@@ -5,76 +5,454 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
+import io.github.thoroldvix.api.RetryPolicy;
 import io.github.thoroldvix.api.TranscriptRetrievalException;
+import io.github.thoroldvix.api.TransferListener;
 import io.github.thoroldvix.api.YoutubeClient;
 import io.github.thoroldvix.api.YtApiV3Endpoint;
 
 
 /**
  * Default implementation of {@link YoutubeClient}.
+ * <p>
+ * All requests are sent with {@link HttpClient#sendAsync}, blocking methods simply wait for the asynchronous result.
+ * Responses are requested compressed and decompressed while they are being received.
+ * </p>
+ * <p>
+ * The timeout of each request is the shortest of the configured request timeout, the timeout adapted to observed latencies
+ * and the time remaining until the deadline of the call, if any.
+ * </p>
  */
-final class DefaultYoutubeClient implements YoutubeClient {
+final class DefaultYoutubeClient implements CallScopedClient {
+
+    private static final String CIRCUIT_OPEN = "Requests to YouTube are suspended, because YouTube blocked too many of the previous requests.";
+    private static final String CALL_TIMEOUT_EXCEEDED = "Request to YouTube could not be completed within the call timeout.";
+    private static final String WARM_UP_FAILED = "Failed to open connections to YouTube.";
+    private static final List<URI> WARM_UP_URIS = List.of(URI.create("https://www.youtube.com/"), URI.create("https://www.googleapis.com/"));
 
     private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final AdaptiveTimeout adaptiveTimeout;
+    private final Duration callTimeout;
+    private final int warmUpConnections;
+    private final int maxConcurrentRequestsPerHost;
+    private final boolean compression;
+    private final TransferListener transferListener;
+    private final DefaultRateLimiter rateLimiter;
+    private final RetryPolicy retryPolicy;
+    private final DefaultCircuitBreaker circuitBreaker;
+    private final Hedger hedger;
+    private final AtomicInteger retryBudget;
+    private final Deadline deadline;
+    private final Map<String, AsyncSemaphore> hostPermits;
 
     DefaultYoutubeClient() {
-        this.httpClient = HttpClient.newHttpClient();
+        this(new DefaultYoutubeClientBuilder());
     }
 
     DefaultYoutubeClient(HttpClient httpClient) {
+        this(new DefaultYoutubeClientBuilder().httpClient(httpClient));
+    }
+
+    DefaultYoutubeClient(DefaultYoutubeClientBuilder builder) {
+        this(builder, builder.buildHttpClient());
+    }
+
+    DefaultYoutubeClient(DefaultYoutubeClientBuilder builder, HttpClient httpClient) {
+        this(builder, httpClient, builder.circuitBreaker);
+    }
+
+    DefaultYoutubeClient(DefaultYoutubeClientBuilder builder, HttpClient httpClient, DefaultCircuitBreaker circuitBreaker) {
         this.httpClient = httpClient;
+        this.requestTimeout = builder.requestTimeout;
+        this.adaptiveTimeout = builder.adaptiveRequestTimeout ? new AdaptiveTimeout() : null;
+        this.callTimeout = builder.callTimeout;
+        // with HTTP/2 further requests would only be multiplexed over the first connection
+        this.warmUpConnections = httpClient.version() == HttpClient.Version.HTTP_1_1 ? builder.warmUpConnections : 1;
+        this.maxConcurrentRequestsPerHost = builder.maxConcurrentRequestsPerHost;
+        this.compression = builder.compression;
+        this.transferListener = builder.transferListener;
+        this.rateLimiter = builder.rateLimiter;
+        this.retryPolicy = builder.retryPolicy;
+        this.circuitBreaker = circuitBreaker;
+        this.hedger = builder.hedgePolicy == null ? null : new Hedger(builder.hedgePolicy);
+        this.retryBudget = null;
+        this.deadline = null;
+        this.hostPermits = new ConcurrentHashMap<>();
+    }
+
+    private DefaultYoutubeClient(DefaultYoutubeClient client, AtomicInteger retryBudget, Deadline deadline) {
+        this.httpClient = client.httpClient;
+        this.requestTimeout = client.requestTimeout;
+        this.adaptiveTimeout = client.adaptiveTimeout;
+        this.callTimeout = client.callTimeout;
+        this.warmUpConnections = client.warmUpConnections;
+        this.maxConcurrentRequestsPerHost = client.maxConcurrentRequestsPerHost;
+        this.compression = client.compression;
+        this.transferListener = client.transferListener;
+        this.rateLimiter = client.rateLimiter;
+        this.retryPolicy = client.retryPolicy;
+        this.circuitBreaker = client.circuitBreaker;
+        this.hedger = client.hedger;
+        this.retryBudget = retryBudget;
+        this.deadline = deadline;
+        this.hostPermits = client.hostPermits;
+    }
+
+    @Override
+    public DefaultYoutubeClient withRetryBudget() {
+        if (retryPolicy == null) {
+            return this;
+        }
+        return withRetryBudget(new AtomicInteger(retryPolicy.getRetryBudget()));
+    }
+
+    DefaultYoutubeClient withRetryBudget(AtomicInteger retryBudget) {
+        return new DefaultYoutubeClient(this, retryBudget, deadline);
+    }
+
+    @Override
+    public DefaultYoutubeClient withDeadline() {
+        if (callTimeout == null) {
+            return this;
+        }
+        return withDeadline(Deadline.after(callTimeout));
+    }
+
+    DefaultYoutubeClient withDeadline(Deadline deadline) {
+        return new DefaultYoutubeClient(this, retryBudget, deadline);
+    }
+
+    RetryPolicy retryPolicy() {
+        return retryPolicy;
+    }
+
+    Duration callTimeout() {
+        return callTimeout;
     }
 
     @Override
     public String get(String url, Map<String, String> headers) throws TranscriptRetrievalException {
+        return Futures.await(getAsync(url, headers));
+    }
+
+    @Override
+    public String get(YtApiV3Endpoint endpoint, Map<String, String> params) throws TranscriptRetrievalException {
+        return Futures.await(getAsync(endpoint, params));
+    }
+
+    @Override
+    public String get(YtApiV3Endpoint endpoint, Map<String, String> params, String etag) throws TranscriptRetrievalException {
+        return Futures.await(getIfNoneMatchAsync(endpoint, params, etag));
+    }
+
+    @Override
+    public CompletableFuture<String> getAsync(String url, Map<String, String> headers) {
+        return get(url, headers, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Override
+    public CompletableFuture<String> getUntilAsync(String url, Map<String, String> headers, String... markers) {
+        return get(url, headers, responseInfo -> new TruncatingBodySubscriber(markers));
+    }
+
+    @Override
+    public CompletableFuture<String> getVideoPageAsync(String url, Map<String, String> headers) {
+        return get(url, headers, responseInfo -> new VideoPageBodySubscriber());
+    }
+
+    @Override
+    public CompletableFuture<String> getAsync(YtApiV3Endpoint endpoint, Map<String, String> params) {
+        return getIfNoneMatchAsync(endpoint, params, null);
+    }
+
+    /**
+     * Sends {@code HEAD} requests to YouTube and the Data API, which makes the {@link HttpClient} resolve their addresses,
+     * open connections and complete TLS handshakes. The responses themselves are discarded.
+     * The requests bypass the rate limiter, the circuit breaker and retries, since they do not count against any YouTube quota.
+     */
+    @Override
+    public CompletableFuture<Void> warmUpAsync() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+        for (URI uri : WARM_UP_URIS) {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                    .timeout(requestTimeout)
+                    .build();
+            for (int i = 0; i < warmUpConnections; i++) {
+                responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+            }
+        }
+        return CompletableFuture.allOf(responses.toArray(new CompletableFuture<?>[0]))
+                .handle((ignored, throwable) -> {
+                    if (throwable != null) {
+                        Throwable cause = Futures.unwrap(throwable);
+                        throw new CompletionException(new TranscriptRetrievalException(WARM_UP_FAILED, cause, 0, cause instanceof IOException));
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * @return A future with the body of the response, or {@code null} if the resource still has the given entity tag
+     */
+    CompletableFuture<String> getIfNoneMatchAsync(YtApiV3Endpoint endpoint, Map<String, String> params, String etag) {
+        String errorMessage = String.format("Request to YouTube '%s' endpoint failed.", endpoint);
+        URI uri = URI.create(endpoint.url(params));
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+                .uri(uri);
+        if (etag != null) {
+            requestBuilder.header("If-None-Match", etag.startsWith("\"") ? etag : "\"" + etag + "\"");
+        }
+
+        return send(configure(requestBuilder), DefaultRateLimiter.Budget.DATA_API, bodyHandler(uri, HttpResponse.BodyHandlers.ofString()), errorMessage,
+                TranscriptRetrievalException::new, 1);
+    }
+
+    private CompletableFuture<String> get(String url, Map<String, String> headers, HttpResponse.BodyHandler<String> bodyHandler) {
         String videoId = url.split("=")[1];
         String errorMessage = "Request to YouTube failed.";
         String[] headersArray = createHeaders(headers);
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .headers(headersArray)
-                .build();
+        URI uri = URI.create(url);
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+                .uri(uri)
+                .headers(headersArray);
+
+        return send(configure(requestBuilder), budget(uri), bodyHandler(uri, bodyHandler), errorMessage,
+                (message, cause, statusCode, retryable) -> new TranscriptRetrievalException(videoId, message, cause, statusCode, retryable), 1);
+    }
 
-        HttpResponse<String> response;
-        try {
-            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        } catch (IOException e) {
-            throw new TranscriptRetrievalException(videoId, errorMessage, e);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new TranscriptRetrievalException(videoId, errorMessage, e);
+    /**
+     * @param requestBuilder Builder of the request, completed with the timeout of each attempt
+     */
+    private CompletableFuture<String> send(HttpRequest.Builder requestBuilder,
+                                           DefaultRateLimiter.Budget budget,
+                                           HttpResponse.BodyHandler<String> bodyHandler,
+                                           String errorMessage,
+                                           ExceptionFactory exceptionFactory,
+                                           int attempt) {
+        if (deadline != null && deadline.isExpired()) {
+            return CompletableFuture.failedFuture(exceptionFactory.create(CALL_TIMEOUT_EXCEEDED, null, 0, false));
+        }
+        // the Data API quota is not tied to the IP address, so it is not guarded by the circuit breaker
+        DefaultCircuitBreaker breaker = budget == DefaultRateLimiter.Budget.DATA_API ? null : circuitBreaker;
+        DefaultCircuitBreaker.Permission permission = breaker == null ? DefaultCircuitBreaker.Permission.ALLOWED : breaker.acquire();
+        if (permission == DefaultCircuitBreaker.Permission.REJECTED) {
+            return CompletableFuture.failedFuture(exceptionFactory.create(CIRCUIT_OPEN, null, 0, true));
+        }
+        HttpRequest request = withTimeout(requestBuilder, budget);
+        // completed once the call timed out, which aborts the request wherever it is
+        CompletableFuture<Void> abandoned = deadline == null ? null : new CompletableFuture<>();
+        CompletableFuture<HttpResponse<String>> response = sendHedged(request, budget, bodyHandler, abandoned)
+                .whenComplete((result, throwable) -> {
+                    if (breaker != null) {
+                        breaker.record(permission, outcome(budget, result, throwable));
+                    }
+                });
+        if (deadline != null) {
+            // the request timeout does not cover waiting for the rate limiter or a free connection
+            response = response.orTimeout(Math.max(deadline.remainingNanos(), 1), TimeUnit.NANOSECONDS);
         }
+        return response
+                .handle((result, throwable) -> {
+                    TranscriptRetrievalException exception;
+                    if (throwable != null) {
+                        Throwable cause = Futures.unwrap(throwable);
+                        if (cause instanceof TimeoutException) {
+                            if (abandoned != null) {
+                                abandoned.complete(null);
+                            }
+                            return CompletableFuture.<String>failedFuture(exceptionFactory.create(CALL_TIMEOUT_EXCEEDED, cause, 0, false));
+                        }
+                        String message = cause instanceof HttpTimeoutException ? errorMessage + " Request timed out." : errorMessage;
+                        exception = exceptionFactory.create(message, cause, 0, cause instanceof IOException);
+                    } else if (result.statusCode() == 304) {
+                        // only sent in response to a conditional request
+                        return CompletableFuture.<String>completedFuture(null);
+                    } else if (result.statusCode() != 200) {
+                        int statusCode = result.statusCode();
+                        exception = exceptionFactory.create(errorMessage + " Status code: " + statusCode, null,
+                                statusCode, Retries.isRetryable(statusCode));
+                    } else {
+                        return CompletableFuture.completedFuture(result.body());
+                    }
+                    Optional<Duration> retryDelay = retryDelay(exception, result, attempt);
+                    if (retryDelay.isEmpty()) {
+                        return CompletableFuture.<String>failedFuture(exception);
+                    }
+                    if (deadline != null && deadline.remainingNanos() <= retryDelay.get().toNanos()) {
+                        return CompletableFuture.<String>failedFuture(exceptionFactory.create(CALL_TIMEOUT_EXCEEDED, exception,
+                                exception.getStatusCode(), false));
+                    }
+                    return CompletableFuture.runAsync(() -> {
+                            }, CompletableFuture.delayedExecutor(retryDelay.get().toMillis(), TimeUnit.MILLISECONDS))
+                            .thenCompose(ignored -> send(requestBuilder, budget, bodyHandler, errorMessage, exceptionFactory, attempt + 1));
+                })
+                .thenCompose(Function.identity());
+    }
 
-        if (response.statusCode() != 200) {
-            throw new TranscriptRetrievalException(videoId, errorMessage + " Status code: " + response.statusCode());
+    private static DefaultCircuitBreaker.Outcome outcome(DefaultRateLimiter.Budget budget, HttpResponse<String> response, Throwable throwable) {
+        if (throwable != null) {
+            return DefaultCircuitBreaker.Outcome.FAILED;
+        }
+        if (response.statusCode() == 429) {
+            return DefaultCircuitBreaker.Outcome.BLOCKED;
+        }
+        if (response.statusCode() == 200 && isCaptchaPage(budget, response.body())) {
+            return DefaultCircuitBreaker.Outcome.BLOCKED;
         }
-        return response.body();
+        return DefaultCircuitBreaker.Outcome.SUCCESS;
     }
 
-    @Override
-    public String get(YtApiV3Endpoint endpoint, Map<String, String> params) throws TranscriptRetrievalException {
-        String errorMessage = String.format("Request to YouTube '%s' endpoint failed.", endpoint);
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(endpoint.url(params)))
-                .build();
+    private Optional<Duration> retryDelay(TranscriptRetrievalException exception, HttpResponse<String> response, int attempt) {
+        if (retryPolicy == null || !exception.isRetryable() || attempt >= retryPolicy.getMaxAttempts()) {
+            return Optional.empty();
+        }
+        Duration delay = Retries.backoff(retryPolicy, attempt);
+        if (response != null) {
+            Optional<Duration> retryAfter = response.headers()
+                    .firstValue("Retry-After")
+                    .flatMap(value -> Retries.parseRetryAfter(value, Instant.now()));
+            if (retryAfter.isPresent()) {
+                if (retryAfter.get().compareTo(retryPolicy.getMaxBackoff()) > 0) {
+                    return Optional.empty();
+                }
+                if (retryAfter.get().compareTo(delay) > 0) {
+                    delay = retryAfter.get();
+                }
+            }
+        }
+        if (retryBudget != null && retryBudget.getAndDecrement() <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(delay);
+    }
+
+    private HttpRequest.Builder configure(HttpRequest.Builder builder) {
+        if (compression) {
+            builder.setHeader("Accept-Encoding", DecompressingBodySubscriber.ACCEPT_ENCODING);
+        }
+        return builder;
+    }
 
-        HttpResponse<String> response;
-        try {
-            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        } catch (IOException e) {
-            throw new TranscriptRetrievalException(errorMessage, e);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new TranscriptRetrievalException(errorMessage, e);
+    private HttpRequest withTimeout(HttpRequest.Builder requestBuilder, DefaultRateLimiter.Budget budget) {
+        Duration timeout = adaptiveTimeout == null ? requestTimeout : adaptiveTimeout.timeout(budget, requestTimeout);
+        if (deadline != null) {
+            timeout = deadline.limit(timeout);
+        }
+        if (timeout == null) {
+            return requestBuilder.build();
         }
+        return requestBuilder.copy().timeout(timeout).build();
+    }
+
+    private HttpResponse.BodyHandler<String> bodyHandler(URI uri, HttpResponse.BodyHandler<String> downstream) {
+        return DecompressingBodySubscriber.handler(uri, downstream, transferListener);
+    }
 
-        if (response.statusCode() != 200) {
-            throw new TranscriptRetrievalException(errorMessage + " Status code: " + response.statusCode());
+    /**
+     * Only video pages are replaced by a captcha page, so that transcripts, which may be large, are not searched for it.
+     * Video pages are classified by {@link VideoPage}, the body is usually already reduced to its summary.
+     *
+     * @param budget The budget of the request the body was received for
+     * @param body   The body of a successful response
+     */
+    static boolean isCaptchaPage(DefaultRateLimiter.Budget budget, String body) {
+        return budget == DefaultRateLimiter.Budget.VIDEO_PAGE && body != null
+               && VideoPage.scan(body).status() == VideoPage.Status.CAPTCHA;
+    }
+
+    static DefaultRateLimiter.Budget budget(URI uri) {
+        String path = uri.getPath();
+        if (path != null && path.startsWith("/api/timedtext")) {
+            return DefaultRateLimiter.Budget.TIMEDTEXT;
         }
+        return DefaultRateLimiter.Budget.VIDEO_PAGE;
+    }
 
-        return response.body();
+    /**
+     * @param abandoned Completed when the call no longer waits for the response, may be {@code null}
+     */
+    private CompletableFuture<HttpResponse<String>> sendHedged(HttpRequest request,
+                                                               DefaultRateLimiter.Budget budget,
+                                                               HttpResponse.BodyHandler<String> bodyHandler,
+                                                               CompletableFuture<Void> abandoned) {
+        if (hedger == null || budget == DefaultRateLimiter.Budget.DATA_API) {
+            return sendWithinRateLimit(request, budget, bodyHandler, abandoned);
+        }
+        return hedger.send(lost -> sendWithinRateLimit(request, budget, bodyHandler,
+                abandoned == null ? lost : lost.applyToEither(abandoned, Function.identity())));
+    }
+
+    private CompletableFuture<HttpResponse<String>> sendWithinRateLimit(HttpRequest request,
+                                                                        DefaultRateLimiter.Budget budget,
+                                                                        HttpResponse.BodyHandler<String> bodyHandler,
+                                                                        CompletableFuture<Void> cancelled) {
+        if (rateLimiter == null) {
+            return sendWithinHostLimit(request, budget, bodyHandler, cancelled);
+        }
+        return rateLimiter.acquire(budget)
+                .thenCompose(ignored -> sendWithinHostLimit(request, budget, bodyHandler, cancelled));
+    }
+
+    private CompletableFuture<HttpResponse<String>> sendWithinHostLimit(HttpRequest request,
+                                                                        DefaultRateLimiter.Budget budget,
+                                                                        HttpResponse.BodyHandler<String> bodyHandler,
+                                                                        CompletableFuture<Void> cancelled) {
+        if (maxConcurrentRequestsPerHost == 0) {
+            return sendAsync(request, budget, bodyHandler, cancelled);
+        }
+        AsyncSemaphore permits = hostPermits.computeIfAbsent(request.uri().getHost(),
+                host -> new AsyncSemaphore(maxConcurrentRequestsPerHost));
+        return permits.acquire()
+                .thenCompose(ignored -> sendAsync(request, budget, bodyHandler, cancelled)
+                        .whenComplete((response, throwable) -> permits.release()));
+    }
+
+    /**
+     * @param cancelled Completed when the request is no longer needed, may be {@code null}
+     */
+    private CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request,
+                                                              DefaultRateLimiter.Budget budget,
+                                                              HttpResponse.BodyHandler<String> bodyHandler,
+                                                              CompletableFuture<Void> cancelled) {
+        if (cancelled != null && cancelled.isDone()) {
+            return CompletableFuture.failedFuture(new CancellationException("Request is no longer needed"));
+        }
+        long startedAt = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> response;
+        if (cancelled == null) {
+            response = httpClient.sendAsync(request, bodyHandler);
+        } else {
+            // cancelling the response future alone does not stop the exchange on Java 11, cancelling the body subscription does
+            CompletableFuture<HttpResponse<String>> sent = httpClient.sendAsync(request, CancellableBodySubscriber.handler(bodyHandler, cancelled));
+            cancelled.thenRun(() -> sent.cancel(true));
+            response = sent;
+        }
+        if (adaptiveTimeout == null) {
+            return response;
+        }
+        return response.whenComplete((result, throwable) -> {
+            if (throwable == null) {
+                adaptiveTimeout.record(budget, System.nanoTime() - startedAt);
+            }
+        });
     }
 
     private String[] createHeaders(Map<String, String> headers) {
@@ -86,4 +464,9 @@ final class DefaultYoutubeClient implements YoutubeClient {
         }
         return headersArray;
     }
+
+    @FunctionalInterface
+    private interface ExceptionFactory {
+        TranscriptRetrievalException create(String message, Throwable cause, int statusCode, boolean retryable);
+    }
 }
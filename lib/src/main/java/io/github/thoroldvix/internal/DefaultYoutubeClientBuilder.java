@@ -0,0 +1,214 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.CircuitBreaker;
+import io.github.thoroldvix.api.HedgePolicy;
+import io.github.thoroldvix.api.RateLimiter;
+import io.github.thoroldvix.api.RetryPolicy;
+import io.github.thoroldvix.api.TransferListener;
+import io.github.thoroldvix.api.YoutubeClient;
+import io.github.thoroldvix.api.YoutubeClientBuilder;
+
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * Default implementation of {@link YoutubeClientBuilder}, whose settings are read by the clients it builds.
+ */
+final class DefaultYoutubeClientBuilder implements YoutubeClientBuilder {
+
+    HttpClient httpClient;
+    HttpClient.Version version = HttpClient.Version.HTTP_2;
+    HttpClient.Redirect redirect = HttpClient.Redirect.NEVER;
+    Executor executor;
+    Duration connectTimeout;
+    Duration requestTimeout = Duration.ofSeconds(30);
+    boolean adaptiveRequestTimeout;
+    Duration callTimeout;
+    int warmUpConnections = 1;
+    int maxConcurrentRequestsPerHost;
+    boolean compression = true;
+    TransferListener transferListener;
+    DefaultRateLimiter rateLimiter;
+    RetryPolicy retryPolicy;
+    DefaultCircuitBreaker circuitBreaker;
+    HedgePolicy hedgePolicy;
+    List<InetSocketAddress> proxies;
+    Duration proxyQuarantine = Duration.ofMinutes(1);
+
+    DefaultYoutubeClientBuilder() {
+    }
+
+    @Override
+    public DefaultYoutubeClientBuilder version(HttpClient.Version version) {
+        this.version = Objects.requireNonNull(version, "version");
+        return this;
+    }
+
+    @Override
+    public DefaultYoutubeClientBuilder executor(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+        return this;
+    }
+
+    @Override
+    public DefaultYoutubeClientBuilder connectTimeout(Duration connectTimeout) {
+        this.connectTimeout = requirePositive(connectTimeout, "connectTimeout");
+        return this;
+    }
+
+    @Override
+    public DefaultYoutubeClientBuilder requestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requirePositive(requestTimeout, "requestTimeout");
+        return this;
+    }
+
+    @Override
+    public DefaultYoutubeClientBuilder adaptiveRequestTimeout(boolean adaptiveRequestTimeout) {
+        this.adaptiveRequestTimeout = adaptiveRequestTimeout;
+        return this;
+    }
+
+    @Override
+    public DefaultYoutubeClientBuilder callTimeout(Duration callTimeout) {
+        this.callTimeout = requirePositive(callTimeout, "callTimeout");
+        return this;
+    }
+
+    @Override
+    public DefaultYoutubeClientBuilder warmUpConnections(int warmUpConnections) {
+        if (warmUpConnections <= 0) {
+            throw new IllegalArgumentException("Number of warm-up connections must be positive");
+        }
+        this.warmUpConnections = warmUpConnections;
+        return this;
+    }
+
+    @Override
+    public DefaultYoutubeClientBuilder followRedirects(HttpClient.Redirect redirect) {
+        this.redirect = Objects.requireNonNull(redirect, "redirect");
+        return this;
+    }
+
+    @Override
+    public DefaultYoutubeClientBuilder maxConcurrentRequestsPerHost(int maxConcurrentRequestsPerHost) {
+        if (maxConcurrentRequestsPerHost <= 0) {
+            throw new IllegalArgumentException("Maximum number of concurrent requests per host must be positive");
+        }
+        this.maxConcurrentRequestsPerHost = maxConcurrentRequestsPerHost;
+        return this;
+    }
+
+    @Override
+    public DefaultYoutubeClientBuilder compression(boolean compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    @Override
+    public DefaultYoutubeClientBuilder transferListener(TransferListener transferListener) {
+        this.transferListener = Objects.requireNonNull(transferListener, "transferListener");
+        return this;
+    }
+
+    @Override
+    public DefaultYoutubeClientBuilder rateLimiter(RateLimiter rateLimiter) {
+        Objects.requireNonNull(rateLimiter, "rateLimiter");
+        if (!(rateLimiter instanceof DefaultRateLimiter)) {
+            throw new IllegalArgumentException("rateLimiter must be created with TranscriptApiFactory.rateLimiterBuilder()");
+        }
+        this.rateLimiter = (DefaultRateLimiter) rateLimiter;
+        return this;
+    }
+
+    @Override
+    public DefaultYoutubeClientBuilder retryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = Objects.requireNonNull(retryPolicy, "retryPolicy");
+        return this;
+    }
+
+    @Override
+    public DefaultYoutubeClientBuilder circuitBreaker(CircuitBreaker circuitBreaker) {
+        Objects.requireNonNull(circuitBreaker, "circuitBreaker");
+        if (!(circuitBreaker instanceof DefaultCircuitBreaker)) {
+            throw new IllegalArgumentException("circuitBreaker must be created with TranscriptApiFactory.circuitBreakerBuilder()");
+        }
+        this.circuitBreaker = (DefaultCircuitBreaker) circuitBreaker;
+        return this;
+    }
+
+    @Override
+    public DefaultYoutubeClientBuilder hedgePolicy(HedgePolicy hedgePolicy) {
+        this.hedgePolicy = Objects.requireNonNull(hedgePolicy, "hedgePolicy");
+        return this;
+    }
+
+    @Override
+    public DefaultYoutubeClientBuilder proxies(Collection<InetSocketAddress> proxies) {
+        Objects.requireNonNull(proxies, "proxies");
+        if (proxies.isEmpty()) {
+            throw new IllegalArgumentException("At least one proxy is required");
+        }
+        this.proxies = List.copyOf(proxies);
+        return this;
+    }
+
+    @Override
+    public DefaultYoutubeClientBuilder proxyQuarantine(Duration proxyQuarantine) {
+        this.proxyQuarantine = requirePositive(proxyQuarantine, "proxyQuarantine");
+        return this;
+    }
+
+    @Override
+    public DefaultYoutubeClientBuilder httpClient(HttpClient httpClient) {
+        this.httpClient = Objects.requireNonNull(httpClient, "httpClient");
+        return this;
+    }
+
+    @Override
+    public YoutubeClient build() {
+        if (proxies != null) {
+            if (httpClient != null) {
+                throw new IllegalStateException("An existing HttpClient cannot be used with a pool of proxies");
+            }
+            return new ProxyPoolYoutubeClient(this);
+        }
+        return new DefaultYoutubeClient(this);
+    }
+
+    HttpClient buildHttpClient() {
+        if (httpClient != null) {
+            return httpClient;
+        }
+        return buildHttpClient(null);
+    }
+
+    HttpClient buildHttpClient(ProxySelector proxySelector) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(version)
+                .followRedirects(redirect);
+        if (proxySelector != null) {
+            builder.proxy(proxySelector);
+        }
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        if (connectTimeout != null) {
+            builder.connectTimeout(connectTimeout);
+        }
+        return builder.build();
+    }
+
+    private static Duration requirePositive(Duration duration, String name) {
+        Objects.requireNonNull(duration, name);
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return duration;
+    }
+}
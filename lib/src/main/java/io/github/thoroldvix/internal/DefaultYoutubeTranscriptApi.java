@@ -8,33 +8,75 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
  * Default implementation of {@link YoutubeTranscriptApi}.
+ * <p>
+ * Blocking methods wait for their asynchronous counterparts, bulk methods issue all requests asynchronously and wait for them once.
+ * </p>
+ * <p>
+ * Concurrent requests for the transcript list of the same video, or for the same transcript, are coalesced into a single request
+ * to YouTube, whose result is shared by all callers.
+ * </p>
+ * <p>
+ * Each call is made through a view of this instance whose client is scoped to the call, see {@link CallScopedClient}.
+ * Transcripts of returned lists keep the unscoped client, so that they can be fetched after the call completed.
+ * </p>
+ * <p>
+ * Clients which were not created by this library are only known to implement the blocking methods of {@link YoutubeClient},
+ * so their requests are sent through a {@link BlockingClientAdapter}.
+ * </p>
  */
 final class DefaultYoutubeTranscriptApi implements YoutubeTranscriptApi {
     private final VideoPageFetcher videoPageFetcher;
     private final YoutubeApi youtubeApi;
     private final YoutubeClient client;
+    private final YoutubeClient transcriptClient;
+    private final CookieJar cookieJar;
+    private final AtomicReference<String> consentCookie;
+    private final SingleFlight<String, TranscriptList> listFetches;
+    private final SingleFlight<String, TranscriptContent> contentFetches;
 
     DefaultYoutubeTranscriptApi(YoutubeClient client, FileLinesReader fileLinesReader) {
-        this.videoPageFetcher = new VideoPageFetcher(client, fileLinesReader);
-        this.youtubeApi = new YoutubeApi(client);
+        this(BlockingClientAdapter.adapt(client), new CookieJar(fileLinesReader));
+    }
+
+    private DefaultYoutubeTranscriptApi(YoutubeClient client, CookieJar cookieJar) {
+        this(client, client, cookieJar, new AtomicReference<>(), new YoutubeApi(client), new SingleFlight<>(), new SingleFlight<>());
+    }
+
+    private DefaultYoutubeTranscriptApi(YoutubeClient client,
+                                        YoutubeClient transcriptClient,
+                                        CookieJar cookieJar,
+                                        AtomicReference<String> consentCookie,
+                                        YoutubeApi youtubeApi,
+                                        SingleFlight<String, TranscriptList> listFetches,
+                                        SingleFlight<String, TranscriptContent> contentFetches) {
+        this.videoPageFetcher = new VideoPageFetcher(client, cookieJar, consentCookie);
+        this.youtubeApi = youtubeApi;
         this.client = client;
+        this.transcriptClient = transcriptClient;
+        this.cookieJar = cookieJar;
+        this.consentCookie = consentCookie;
+        this.listFetches = listFetches;
+        this.contentFetches = contentFetches;
     }
 
-    private static TranscriptContent transcriptContentSupplier(TranscriptRequest request, String[] languageCodes, TranscriptList transcriptList) {
-        try {
-            return transcriptList.findTranscript(languageCodes).fetch();
-        } catch (TranscriptRetrievalException e) {
-            if (request.isStopOnError()) {
-                throw new CompletionException(e);
-            }
+    private static <T> CompletableFuture<T> skipOnError(CompletableFuture<T> future, TranscriptRequest request) {
+        if (request.isStopOnError()) {
+            return future;
         }
-        return null;
+        return future.exceptionally(throwable -> {
+            if (Futures.unwrap(throwable) instanceof TranscriptRetrievalException) {
+                return null;
+            }
+            throw new CompletionException(Futures.unwrap(throwable));
+        });
     }
 
+
     private static void joinFutures(List<CompletableFuture<Void>> futures, String playlistId) throws TranscriptRetrievalException {
         try {
             CompletableFuture<Void> allOf = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
@@ -50,41 +92,73 @@ final class DefaultYoutubeTranscriptApi implements YoutubeTranscriptApi {
 
     @Override
     public TranscriptContent getTranscriptWithCookies(String videoId, String cookiesPath, String... languageCodes) throws TranscriptRetrievalException {
-        return listTranscriptsWithCookies(videoId, cookiesPath)
-                .findTranscript(languageCodes)
-                .fetch();
+        return Futures.await(getTranscriptWithCookiesAsync(videoId, cookiesPath, languageCodes));
     }
 
     @Override
     public TranscriptContent getTranscript(String videoId, String... languageCodes) throws TranscriptRetrievalException {
-        return listTranscripts(videoId)
-                .findTranscript(languageCodes)
-                .fetch();
+        return Futures.await(getTranscriptAsync(videoId, languageCodes));
     }
 
     @Override
     public TranscriptList listTranscriptsWithCookies(String videoId, String cookiesPath) throws TranscriptRetrievalException {
-        validateVideoId(videoId);
-        TranscriptListExtractor extractor = new TranscriptListExtractor(client, videoId);
-        String videoPageHtml = videoPageFetcher.fetch(videoId, cookiesPath);
-        return extractor.extract(videoPageHtml);
+        return Futures.await(listTranscriptsWithCookiesAsync(videoId, cookiesPath));
     }
 
     @Override
     public TranscriptList listTranscripts(String videoId) throws TranscriptRetrievalException {
-        validateVideoId(videoId);
-        TranscriptListExtractor extractor = new TranscriptListExtractor(client, videoId);
-        String videoPageHtml = videoPageFetcher.fetch(videoId);
-        return extractor.extract(videoPageHtml);
+        return Futures.await(listTranscriptsAsync(videoId));
+    }
+
+    @Override
+    public CompletableFuture<TranscriptContent> getTranscriptWithCookiesAsync(String videoId, String cookiesPath, String... languageCodes) {
+        DefaultYoutubeTranscriptApi api = withDeadline();
+        return api.listTranscriptsAsync(videoId, cookiesPath)
+                .thenCompose(transcriptList -> api.fetchTranscript(transcriptList, languageCodes));
+    }
+
+    @Override
+    public CompletableFuture<TranscriptContent> getTranscriptAsync(String videoId, String... languageCodes) {
+        DefaultYoutubeTranscriptApi api = withDeadline();
+        return api.listTranscriptsAsync(videoId, null)
+                .thenCompose(transcriptList -> api.fetchTranscript(transcriptList, languageCodes));
+    }
+
+    @Override
+    public CompletableFuture<TranscriptList> listTranscriptsWithCookiesAsync(String videoId, String cookiesPath) {
+        return withDeadline().listTranscriptsAsync(videoId, cookiesPath);
+    }
+
+    @Override
+    public CompletableFuture<TranscriptList> listTranscriptsAsync(String videoId) {
+        return withDeadline().listTranscriptsAsync(videoId, null);
+    }
+
+    @Override
+    public void warmUp() throws TranscriptRetrievalException {
+        Futures.await(warmUpAsync());
+    }
+
+    @Override
+    public CompletableFuture<Void> warmUpAsync() {
+        // the parsers are initialized in the default asynchronous executor while the connections are opened,
+        // so that the calling thread, possibly an event loop, is not blocked by class loading
+        CompletableFuture<Void> connections = client.warmUpAsync();
+        CompletableFuture<Void> parsers = CompletableFuture.runAsync(ParserWarmUp::run);
+        return CompletableFuture.allOf(connections, parsers);
     }
 
     @Override
     public Map<String, TranscriptList> listTranscriptsForPlaylist(String playlistId, TranscriptRequest request) throws TranscriptRetrievalException {
+        return forBulkCall().listTranscriptsForPlaylistWithinBudget(playlistId, request);
+    }
+
+    private Map<String, TranscriptList> listTranscriptsForPlaylistWithinBudget(String playlistId, TranscriptRequest request) throws TranscriptRetrievalException {
         Map<String, TranscriptList> transcriptLists = new ConcurrentHashMap<>();
         List<String> videoIds = youtubeApi.getVideoIds(playlistId, request.getApiKey());
 
         List<CompletableFuture<Void>> futures = videoIds.stream()
-                .map(videoId -> CompletableFuture.supplyAsync(() -> transcriptListSupplier(request, videoId))
+                .map(videoId -> skipOnError(listTranscriptsAsync(videoId, request.getCookiesPath()), request)
                         .thenAccept(transcriptList -> {
                             if (transcriptList != null) {
                                 transcriptLists.put(transcriptList.getVideoId(), transcriptList);
@@ -98,14 +172,20 @@ final class DefaultYoutubeTranscriptApi implements YoutubeTranscriptApi {
 
     @Override
     public Map<String, TranscriptContent> getTranscriptsForPlaylist(String playlistId, TranscriptRequest request, String... languageCodes) throws TranscriptRetrievalException {
-        Map<String, TranscriptList> transcriptLists = listTranscriptsForPlaylist(playlistId, request);
+        return forBulkCall().getTranscriptsForPlaylistWithinBudget(playlistId, request, languageCodes);
+    }
+
+    private Map<String, TranscriptContent> getTranscriptsForPlaylistWithinBudget(String playlistId, TranscriptRequest request, String... languageCodes) throws TranscriptRetrievalException {
         Map<String, TranscriptContent> transcripts = new ConcurrentHashMap<>();
+        List<String> videoIds = youtubeApi.getVideoIds(playlistId, request.getApiKey());
 
-        List<CompletableFuture<Void>> futures = transcriptLists.values().stream()
-                .map(transcriptList -> CompletableFuture.supplyAsync(() -> transcriptContentSupplier(request, languageCodes, transcriptList))
+        // each transcript is fetched as soon as its own video page was parsed, without waiting for the other pages
+        List<CompletableFuture<Void>> futures = videoIds.stream()
+                .map(videoId -> skipOnError(listTranscriptsAsync(videoId, request.getCookiesPath())
+                        .thenCompose(transcriptList -> fetchTranscript(transcriptList, languageCodes)), request)
                         .thenAccept(transcriptContent -> {
                             if (transcriptContent != null) {
-                                transcripts.put(transcriptList.getVideoId(), transcriptContent);
+                                transcripts.put(videoId, transcriptContent);
                             }
                         })).collect(Collectors.toList());
 
@@ -116,14 +196,44 @@ final class DefaultYoutubeTranscriptApi implements YoutubeTranscriptApi {
 
     @Override
     public Map<String, TranscriptList> listTranscriptsForChannel(String channelName, TranscriptRequest request) throws TranscriptRetrievalException {
-        String channelPlaylistId = youtubeApi.getChannelPlaylistId(channelName, request.getApiKey());
-        return listTranscriptsForPlaylist(channelPlaylistId, request);
+        DefaultYoutubeTranscriptApi api = forBulkCall();
+        String channelPlaylistId = api.youtubeApi.getChannelPlaylistId(channelName, request.getApiKey());
+        return api.listTranscriptsForPlaylistWithinBudget(channelPlaylistId, request);
     }
 
     @Override
     public Map<String, TranscriptContent> getTranscriptsForChannel(String channelName, TranscriptRequest request, String... languageCodes) throws TranscriptRetrievalException {
-        String channelPlaylistId = youtubeApi.getChannelPlaylistId(channelName, request.getApiKey());
-        return getTranscriptsForPlaylist(channelPlaylistId, request, languageCodes);
+        DefaultYoutubeTranscriptApi api = forBulkCall();
+        String channelPlaylistId = api.youtubeApi.getChannelPlaylistId(channelName, request.getApiKey());
+        return api.getTranscriptsForPlaylistWithinBudget(channelPlaylistId, request, languageCodes);
+    }
+
+    /**
+     * @return An instance whose requests share a deadline, used for a single call
+     */
+    private DefaultYoutubeTranscriptApi withDeadline() {
+        if (client instanceof CallScopedClient) {
+            return withClient(((CallScopedClient) client).withDeadline());
+        }
+        return this;
+    }
+
+    /**
+     * @return An instance whose requests share a deadline and a retry budget, used for a single bulk call
+     */
+    private DefaultYoutubeTranscriptApi forBulkCall() {
+        if (client instanceof CallScopedClient) {
+            return withClient(((CallScopedClient) client).withRetryBudget().withDeadline());
+        }
+        return this;
+    }
+
+    private DefaultYoutubeTranscriptApi withClient(YoutubeClient scopedClient) {
+        if (scopedClient == client) {
+            return this;
+        }
+        return new DefaultYoutubeTranscriptApi(scopedClient, transcriptClient, cookieJar, consentCookie, youtubeApi.withClient(scopedClient),
+                listFetches, contentFetches);
     }
 
     private void validateVideoId(String videoId) {
@@ -132,18 +242,32 @@ final class DefaultYoutubeTranscriptApi implements YoutubeTranscriptApi {
         }
     }
 
-    private TranscriptList transcriptListSupplier(TranscriptRequest request, String videoId) {
+    /**
+     * @param cookiesPath The path of the cookies file, may be {@code null}
+     */
+    private CompletableFuture<TranscriptList> listTranscriptsAsync(String videoId, String cookiesPath) {
+        validateVideoId(videoId);
+        String key = cookiesPath == null ? videoId : videoId + "\n" + cookiesPath;
+        // a call joining a request in flight shares the deadline of the call which started it
+        return listFetches.execute(key, () -> {
+            TranscriptListExtractor extractor = new TranscriptListExtractor(transcriptClient, videoId, contentFetches);
+            CompletableFuture<VideoPage> videoPage = cookiesPath == null
+                    ? videoPageFetcher.fetchAsync(videoId)
+                    : videoPageFetcher.fetchAsync(videoId, cookiesPath);
+            return videoPage.thenApply(Futures.unchecked(extractor::extract));
+        });
+    }
+
+    private CompletableFuture<TranscriptContent> fetchTranscript(TranscriptList transcriptList, String[] languageCodes) {
+        Transcript transcript;
         try {
-            String cookiesPath = request.getCookiesPath();
-            if (cookiesPath != null) {
-                return listTranscriptsWithCookies(videoId, cookiesPath);
-            }
-            return listTranscripts(videoId);
+            transcript = transcriptList.findTranscript(languageCodes);
         } catch (TranscriptRetrievalException e) {
-            if (request.isStopOnError()) {
-                throw new CompletionException(e);
-            }
+            return CompletableFuture.failedFuture(e);
+        }
+        if (transcript instanceof DefaultTranscript) {
+            return ((DefaultTranscript) transcript).fetchAsync(client);
         }
-        return null;
+        return transcript.fetchAsync();
     }
 }
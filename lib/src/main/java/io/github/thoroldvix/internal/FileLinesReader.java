@@ -1,6 +1,8 @@
 package io.github.thoroldvix.internal;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -16,4 +18,15 @@ interface FileLinesReader {
      * @throws IOException If the file could not be read
      */
     List<String> readLines(String filePath) throws IOException;
+
+    /**
+     * Returns the time a file was last modified, used to detect whether it has to be read again.
+     *
+     * @param filePath The path to the file
+     * @return The modification time in milliseconds since the epoch
+     * @throws IOException If the modification time could not be read
+     */
+    default long lastModified(String filePath) throws IOException {
+        return Files.getLastModifiedTime(Path.of(filePath)).toMillis();
+    }
 }
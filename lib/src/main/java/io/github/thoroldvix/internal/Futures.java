@@ -0,0 +1,86 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.TranscriptRetrievalException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Helpers for bridging {@link CompletableFuture} based code with checked {@link TranscriptRetrievalException}.
+ */
+final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * Waits for the future to complete and returns its result, rethrowing the original failure.
+     *
+     * @param future The future to wait for
+     * @return The result of the future
+     * @throws TranscriptRetrievalException If the future completed with a {@link TranscriptRetrievalException}, or the waiting thread was interrupted
+     */
+    static <T> T await(CompletableFuture<T> future) throws TranscriptRetrievalException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new TranscriptRetrievalException("Interrupted while waiting for YouTube response.", e);
+        } catch (CancellationException e) {
+            throw new TranscriptRetrievalException("Request to YouTube was cancelled.", e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    /**
+     * Unwraps {@link CompletionException} and {@link ExecutionException} layers added by {@link CompletableFuture}.
+     *
+     * @param throwable The throwable to unwrap
+     * @return The original cause
+     */
+    static Throwable unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Adapts a function throwing {@link TranscriptRetrievalException} for use in {@link CompletableFuture} stages.
+     * The checked exception is wrapped in {@link CompletionException}.
+     */
+    static <T, R> Function<T, R> unchecked(CheckedFunction<T, R> function) {
+        return value -> {
+            try {
+                return function.apply(value);
+            } catch (TranscriptRetrievalException e) {
+                throw new CompletionException(e);
+            }
+        };
+    }
+
+    private static TranscriptRetrievalException rethrow(Throwable throwable) {
+        Throwable cause = unwrap(throwable);
+        if (cause instanceof TranscriptRetrievalException) {
+            return (TranscriptRetrievalException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new TranscriptRetrievalException("Request to YouTube failed.", cause);
+    }
+
+    @FunctionalInterface
+    interface CheckedFunction<T, R> {
+        R apply(T value) throws TranscriptRetrievalException;
+    }
+}
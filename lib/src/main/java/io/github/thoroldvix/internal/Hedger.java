@@ -0,0 +1,98 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.HedgePolicy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Sends a second, identical request if the first one is slower than usual, according to a {@link HedgePolicy}.
+ */
+final class Hedger {
+
+    private static final int LATENCY_SAMPLES = 1024;
+    /**
+     * Hedging starts only once enough latencies were observed for the percentile to be meaningful.
+     */
+    private static final int MIN_SAMPLES = 20;
+    private static final double MAX_STORED_HEDGES = 10;
+
+    private final HedgePolicy policy;
+    private final LatencyTracker latencies;
+    private double hedgeTokens;
+
+    Hedger(HedgePolicy policy) {
+        this(policy, new LatencyTracker(LATENCY_SAMPLES));
+    }
+
+    Hedger(HedgePolicy policy, LatencyTracker latencies) {
+        this.policy = policy;
+        this.latencies = latencies;
+    }
+
+    /**
+     * Sends a request, and a hedged copy of it if it is not answered in time.
+     *
+     * @param attempt Sends the request. Receives a future which is completed once the request lost against the other one,
+     *                and should then be cancelled
+     * @return A future completed with the first successful response, or with the failure if all sent requests failed
+     */
+    <T> CompletableFuture<T> send(Function<CompletableFuture<Void>, CompletableFuture<T>> attempt) {
+        depositHedgeToken();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CompletableFuture<Void> lost = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        start(attempt, lost, result, pending);
+
+        long delayNanos = hedgeDelayNanos();
+        if (delayNanos >= 0) {
+            CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS).execute(() -> {
+                if (!result.isDone() && takeHedgeToken()) {
+                    pending.incrementAndGet();
+                    start(attempt, lost, result, pending);
+                }
+            });
+        }
+        result.whenComplete((value, throwable) -> lost.complete(null));
+        return result;
+    }
+
+    private <T> void start(Function<CompletableFuture<Void>, CompletableFuture<T>> attempt,
+                           CompletableFuture<Void> lost,
+                           CompletableFuture<T> result,
+                           AtomicInteger pending) {
+        long startedAt = System.nanoTime();
+        attempt.apply(lost).whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                latencies.record(System.nanoTime() - startedAt);
+                result.complete(value);
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(throwable);
+            }
+        });
+    }
+
+    /**
+     * @return The delay after which the request is hedged, or {@code -1} if not enough latencies were observed yet
+     */
+    long hedgeDelayNanos() {
+        if (latencies.size() < MIN_SAMPLES) {
+            return -1;
+        }
+        return Math.max(policy.getMinDelay().toNanos(), latencies.percentile(policy.getPercentile()));
+    }
+
+    private synchronized void depositHedgeToken() {
+        hedgeTokens = Math.min(MAX_STORED_HEDGES, hedgeTokens + policy.getMaxHedgeRatio());
+    }
+
+    private synchronized boolean takeHedgeToken() {
+        if (hedgeTokens < 1) {
+            return false;
+        }
+        hedgeTokens--;
+        return true;
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.thoroldvix.internal;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.github.thoroldvix.api.TranscriptContent;
+import io.github.thoroldvix.api.TranscriptRetrievalException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Responsible for extracting transcript content from the json3 format.
+ * <p>
+ * Each event with segments becomes a fragment, whose text is the text of all its segments. Segments of automatically
+ * generated transcripts carry their offset from the start of the event, which is kept as the start time of a word.
+ * The JSON is read with a streaming parser in a single pass.
+ * </p>
+ */
+final class Json3TranscriptContentExtractor {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final String videoId;
+
+    Json3TranscriptContentExtractor(String videoId) {
+        this.videoId = videoId;
+    }
+
+    TranscriptContent extract(String json) throws TranscriptRetrievalException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw parseFailure(null);
+            }
+            DefaultTranscriptContent.Builder content = DefaultTranscriptContent.builder();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                if (parser.nextToken() == JsonToken.START_ARRAY && field.equals("events")) {
+                    readEvents(parser, content);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return content.build();
+        } catch (IOException e) {
+            throw parseFailure(e);
+        }
+    }
+
+    private static void readEvents(JsonParser parser, DefaultTranscriptContent.Builder content) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            int startMs = 0;
+            int durationMs = 0;
+            segments.clear();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (field.equals("tStartMs")) {
+                    startMs = parser.getValueAsInt();
+                } else if (field.equals("dDurationMs")) {
+                    durationMs = parser.getValueAsInt();
+                } else if (field.equals("segs") && value == JsonToken.START_ARRAY) {
+                    readSegments(parser, segments);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            addFragment(content, segments, text, startMs, durationMs);
+        }
+    }
+
+    private static void readSegments(JsonParser parser, List<Segment> segments) throws IOException {
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            String text = null;
+            int offsetMs = -1;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if (field.equals("utf8")) {
+                    text = parser.getValueAsString();
+                } else if (field.equals("tOffsetMs")) {
+                    offsetMs = parser.getValueAsInt();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (text != null) {
+                segments.add(new Segment(text, offsetMs));
+            }
+        }
+    }
+
+    /**
+     * Adds the fragment of an event, unless its text is blank, like the line breaks appended to automatically generated transcripts.
+     */
+    private static void addFragment(DefaultTranscriptContent.Builder content, List<Segment> segments, StringBuilder text,
+                                    int startMs, int durationMs) {
+        text.setLength(0);
+        boolean timed = false;
+        for (Segment segment : segments) {
+            text.append(segment.text);
+            timed |= segment.offsetMs >= 0;
+        }
+        if (isBlank(text)) {
+            return;
+        }
+        content.add(text, startMs, durationMs);
+        if (timed) {
+            // segments become words only if they carry offsets
+            for (Segment segment : segments) {
+                String word = segment.text.strip();
+                if (!word.isEmpty()) {
+                    content.addWord(word, startMs + Math.max(0, segment.offsetMs));
+                }
+            }
+        }
+    }
+
+    private static boolean isBlank(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private TranscriptRetrievalException parseFailure(IOException cause) {
+        return new TranscriptRetrievalException(videoId, "Failed to parse transcript content JSON.", cause);
+    }
+
+    private static final class Segment {
+        private final String text;
+        private final int offsetMs;
+
+        private Segment(String text, int offsetMs) {
+            this.text = text;
+            this.offsetMs = offsetMs;
+        }
+    }
+}
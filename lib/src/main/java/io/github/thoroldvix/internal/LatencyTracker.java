@@ -0,0 +1,55 @@
+package io.github.thoroldvix.internal;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent response latencies and computes their percentiles.
+ * <p>
+ * Sorting the samples is deferred until a percentile is requested and the result is reused for a number of new samples,
+ * so that recording a latency stays cheap.
+ * </p>
+ */
+final class LatencyTracker {
+
+    private static final int RECALCULATE_AFTER = 32;
+
+    private final long[] samples;
+    private int count;
+    private int next;
+    private long[] sorted;
+    private int recordedSinceSort;
+
+    LatencyTracker(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    synchronized void record(long latencyNanos) {
+        samples[next] = latencyNanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        recordedSinceSort++;
+    }
+
+    synchronized int size() {
+        return count;
+    }
+
+    /**
+     * @param percentile The percentile between 0 and 1
+     * @return The latency at the given percentile in nanoseconds, or {@code -1} if no latency was recorded yet
+     */
+    synchronized long percentile(double percentile) {
+        if (count == 0) {
+            return -1;
+        }
+        if (sorted == null || recordedSinceSort >= RECALCULATE_AFTER || (recordedSinceSort > 0 && sorted.length < RECALCULATE_AFTER)) {
+            sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            recordedSinceSort = 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.TranscriptContent;
+import io.github.thoroldvix.api.TranscriptRetrievalException;
+
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link TranscriptContent} which keeps the transcript XML as received and parses it only when its fragments are accessed.
+ * <p>
+ * The parsed content and the decoded XML are softly referenced, so that they are dropped when memory runs low and decoded
+ * and parsed again when they are needed. The number of fragments and the raw XML are available without parsing. Since the XML is only parsed once fragments are
+ * accessed, a malformed fragment fails with an {@link IllegalStateException} at that point instead of when the content is fetched.
+ * </p>
+ */
+final class LazyTranscriptContent implements TranscriptContent {
+
+    private final String videoId;
+    private final byte[] xml;
+    private volatile int size = -1;
+    private SoftReference<TranscriptContent> parsed = new SoftReference<>(null);
+    private SoftReference<String> decoded = new SoftReference<>(null);
+
+    private LazyTranscriptContent(String videoId, byte[] xml) {
+        this.videoId = videoId;
+        this.xml = xml;
+    }
+
+    /**
+     * @throws TranscriptRetrievalException If the xml is not a transcript
+     */
+    static LazyTranscriptContent of(String videoId, String xml) throws TranscriptRetrievalException {
+        if (!TranscriptContentExtractor.isTranscript(xml)) {
+            throw new TranscriptRetrievalException(videoId, "Failed to parse transcript content XML.");
+        }
+        return new LazyTranscriptContent(videoId, xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private synchronized TranscriptContent parsed() {
+        TranscriptContent content = parsed.get();
+        if (content == null) {
+            try {
+                content = new TranscriptContentExtractor(videoId).extract(xml());
+            } catch (TranscriptRetrievalException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+            parsed = new SoftReference<>(content);
+            size = content.size();
+        }
+        return content;
+    }
+
+    private synchronized String xml() {
+        String content = decoded.get();
+        if (content == null) {
+            content = new String(xml, StandardCharsets.UTF_8);
+            decoded = new SoftReference<>(content);
+        }
+        return content;
+    }
+
+    @Override
+    public List<Fragment> getContent() {
+        return parsed().getContent();
+    }
+
+    @Override
+    public int size() {
+        if (size < 0) {
+            try {
+                size = new TranscriptContentExtractor(videoId).countFragments(xml());
+            } catch (TranscriptRetrievalException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public int getStartMillis(int index) {
+        return parsed().getStartMillis(index);
+    }
+
+    @Override
+    public int getDurationMillis(int index) {
+        return parsed().getDurationMillis(index);
+    }
+
+    @Override
+    public String getText(int index) {
+        return parsed().getText(index);
+    }
+
+    @Override
+    public int indexOf(double time) {
+        return parsed().indexOf(time);
+    }
+
+    @Override
+    public List<Fragment> fragmentsBetween(double start, double end) {
+        return parsed().fragmentsBetween(start, end);
+    }
+
+    @Override
+    public Optional<ByteBuffer> getRawContent() {
+        return Optional.of(ByteBuffer.wrap(xml).asReadOnlyBuffer());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LazyTranscriptContent that = (LazyTranscriptContent) o;
+        return Arrays.equals(xml, that.xml);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(xml);
+    }
+
+    @Override
+    public String toString() {
+        return parsed().toString();
+    }
+}
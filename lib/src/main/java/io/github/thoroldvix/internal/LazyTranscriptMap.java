@@ -0,0 +1,101 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.Transcript;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Immutable map of transcripts by language code, which creates each transcript from its caption track when it is first accessed.
+ * <p>
+ * Most transcripts of a listed video are never fetched, so only the few fields of their caption tracks are kept until then.
+ * Lookups of language codes do not create transcripts. Transcripts are iterated in the order of their tracks.
+ * </p>
+ */
+final class LazyTranscriptMap extends AbstractMap<String, Transcript> {
+
+    private final CaptionTrack[] tracks;
+    private final AtomicReferenceArray<Transcript> transcripts;
+    private final Function<CaptionTrack, Transcript> transcriptFactory;
+
+    /**
+     * @param tracks Caption tracks with distinct language codes
+     */
+    LazyTranscriptMap(List<CaptionTrack> tracks, Function<CaptionTrack, Transcript> transcriptFactory) {
+        this.tracks = tracks.toArray(new CaptionTrack[0]);
+        this.transcripts = new AtomicReferenceArray<>(this.tracks.length);
+        this.transcriptFactory = transcriptFactory;
+    }
+
+    private int indexOf(Object languageCode) {
+        for (int i = 0; i < tracks.length; i++) {
+            if (tracks[i].languageCode().equals(languageCode)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Transcript transcript(int index) {
+        Transcript transcript = transcripts.get(index);
+        if (transcript == null) {
+            // created at most once, so that every caller sees the same instance
+            transcripts.compareAndSet(index, null, transcriptFactory.apply(tracks[index]));
+            transcript = transcripts.get(index);
+        }
+        return transcript;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Transcript get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : transcript(index);
+    }
+
+    @Override
+    public int size() {
+        return tracks.length;
+    }
+
+    @Override
+    public Set<Entry<String, Transcript>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Transcript>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < tracks.length;
+                    }
+
+                    @Override
+                    public Entry<String, Transcript> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int index = next++;
+                        return new SimpleImmutableEntry<>(tracks[index].languageCode(), transcript(index));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return tracks.length;
+            }
+        };
+    }
+}
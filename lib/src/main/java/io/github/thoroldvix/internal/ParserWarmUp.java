@@ -0,0 +1,36 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.TranscriptRetrievalException;
+
+/**
+ * Runs the parsers of video pages, transcripts and API responses once on small samples,
+ * so that their classes are loaded and initialized before the first real response arrives.
+ */
+final class ParserWarmUp {
+
+    private static final String VIDEO_ID = "dQw4w9WgXcQ";
+    private static final String VIDEO_PAGE = "<html><script>{\"playabilityStatus\":{},\"captions\":{\"playerCaptionsTracklistRenderer\":" +
+                                             "{\"captionTracks\":[{\"baseUrl\":\"https://www.youtube.com/api/timedtext?v=" + VIDEO_ID + "\"," +
+                                             "\"name\":{\"simpleText\":\"English\"},\"languageCode\":\"en\"}]," +
+                                             "\"translationLanguages\":[{\"languageCode\":\"de\",\"languageName\":{\"simpleText\":\"German\"}}]}}" +
+                                             TranscriptListExtractor.VIDEO_DETAILS_MARKER + "\":{}}</script></html>";
+    private static final String TRANSCRIPT_XML = "<?xml version=\"1.0\" encoding=\"utf-8\" ?><transcript>" +
+                                                 "<text start=\"0\" dur=\"1.5\">Warm &amp;amp; up</text></transcript>";
+    private static final String TRANSCRIPT_JSON3 = "{\"events\":[{\"tStartMs\":0,\"dDurationMs\":1500," +
+                                                   "\"segs\":[{\"utf8\":\"Warm\"},{\"utf8\":\" up\",\"tOffsetMs\":500}]}]}";
+    private static final String API_RESPONSE = "{\"etag\":\"etag\",\"items\":[]}";
+
+    private ParserWarmUp() {
+    }
+
+    static void run() {
+        try {
+            new TranscriptListExtractor(null, VIDEO_ID, new SingleFlight<>()).extract(VideoPage.scan(VIDEO_PAGE));
+            new TranscriptContentExtractor(VIDEO_ID).extract(TRANSCRIPT_XML);
+            new Json3TranscriptContentExtractor(VIDEO_ID).extract(TRANSCRIPT_JSON3);
+            YoutubeApiResponseParser.getETag(YoutubeApiResponseParser.parseJson(API_RESPONSE));
+        } catch (TranscriptRetrievalException e) {
+            throw new IllegalStateException("Failed to parse warm-up sample", e);
+        }
+    }
+}
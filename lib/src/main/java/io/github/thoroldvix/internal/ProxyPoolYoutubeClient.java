@@ -0,0 +1,244 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.RetryPolicy;
+import io.github.thoroldvix.api.TranscriptRetrievalException;
+import io.github.thoroldvix.api.YoutubeClient;
+import io.github.thoroldvix.api.YtApiV3Endpoint;
+
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link YoutubeClient} which spreads requests across a pool of HTTP proxies.
+ * <p>
+ * Each proxy has its own {@link DefaultYoutubeClient} and therefore its own connection pool.
+ * A request is sent through the proxy with the lowest average latency weighted by the number of its requests in flight.
+ * A proxy whose requests keep failing with transient errors or captcha pages is quarantined and not used until the quarantine is over.
+ * </p>
+ * <p>
+ * Since YouTube blocks each proxy address on its own, every proxy has its own copy of the circuit breaker, whereas the rate limiter
+ * is shared so that it limits the requests of the whole pool.
+ * </p>
+ */
+final class ProxyPoolYoutubeClient implements CallScopedClient {
+
+    private static final String ALL_PROXIES_QUARANTINED = "Request to YouTube failed, all proxies are quarantined.";
+    private static final double LATENCY_WEIGHT = 0.3;
+    private static final double ERROR_WEIGHT = 0.2;
+    private static final double QUARANTINE_ERROR_RATE = 0.5;
+    private static final int MIN_SAMPLES = 5;
+
+    private final List<Proxy> proxies;
+    private final List<DefaultYoutubeClient> clients;
+    private final LongSupplier nanoClock;
+
+    ProxyPoolYoutubeClient(DefaultYoutubeClientBuilder builder) {
+        this(createClients(builder), builder.proxyQuarantine, System::nanoTime);
+    }
+
+    ProxyPoolYoutubeClient(List<DefaultYoutubeClient> clients, Duration quarantine, LongSupplier nanoClock) {
+        this.clients = clients;
+        this.nanoClock = nanoClock;
+        this.proxies = new ArrayList<>(clients.size());
+        for (int i = 0; i < clients.size(); i++) {
+            proxies.add(new Proxy(quarantine.toNanos()));
+        }
+    }
+
+    private ProxyPoolYoutubeClient(ProxyPoolYoutubeClient pool, List<DefaultYoutubeClient> clients) {
+        this.proxies = pool.proxies;
+        this.clients = clients;
+        this.nanoClock = pool.nanoClock;
+    }
+
+    private static List<DefaultYoutubeClient> createClients(DefaultYoutubeClientBuilder builder) {
+        List<DefaultYoutubeClient> clients = new ArrayList<>(builder.proxies.size());
+        for (InetSocketAddress address : builder.proxies) {
+            DefaultCircuitBreaker circuitBreaker = builder.circuitBreaker == null ? null : builder.circuitBreaker.copy();
+            clients.add(new DefaultYoutubeClient(builder, builder.buildHttpClient(ProxySelector.of(address)), circuitBreaker));
+        }
+        return clients;
+    }
+
+    private static boolean isFailure(DefaultRateLimiter.Budget budget, String body, Throwable throwable) {
+        if (throwable == null) {
+            return DefaultYoutubeClient.isCaptchaPage(budget, body);
+        }
+        Throwable cause = Futures.unwrap(throwable);
+        // a non-retryable error, such as 404, says nothing about the health of the proxy
+        return !(cause instanceof TranscriptRetrievalException) || ((TranscriptRetrievalException) cause).isRetryable();
+    }
+
+    @Override
+    public String get(String url, Map<String, String> headers) throws TranscriptRetrievalException {
+        return Futures.await(getAsync(url, headers));
+    }
+
+    @Override
+    public String get(YtApiV3Endpoint endpoint, Map<String, String> params) throws TranscriptRetrievalException {
+        return Futures.await(getAsync(endpoint, params));
+    }
+
+    @Override
+    public String get(YtApiV3Endpoint endpoint, Map<String, String> params, String etag) throws TranscriptRetrievalException {
+        return Futures.await(dispatch(DefaultRateLimiter.Budget.DATA_API, client -> client.getIfNoneMatchAsync(endpoint, params, etag)));
+    }
+
+    @Override
+    public CompletableFuture<String> getAsync(String url, Map<String, String> headers) {
+        return dispatch(DefaultYoutubeClient.budget(URI.create(url)), client -> client.getAsync(url, headers));
+    }
+
+    @Override
+    public CompletableFuture<String> getUntilAsync(String url, Map<String, String> headers, String... markers) {
+        return dispatch(DefaultYoutubeClient.budget(URI.create(url)), client -> client.getUntilAsync(url, headers, markers));
+    }
+
+    @Override
+    public CompletableFuture<String> getVideoPageAsync(String url, Map<String, String> headers) {
+        return dispatch(DefaultRateLimiter.Budget.VIDEO_PAGE, client -> client.getVideoPageAsync(url, headers));
+    }
+
+    @Override
+    public CompletableFuture<String> getAsync(YtApiV3Endpoint endpoint, Map<String, String> params) {
+        return dispatch(DefaultRateLimiter.Budget.DATA_API, client -> client.getAsync(endpoint, params));
+    }
+
+    @Override
+    public CompletableFuture<Void> warmUpAsync() {
+        CompletableFuture<?>[] connections = new CompletableFuture<?>[clients.size()];
+        for (int i = 0; i < clients.size(); i++) {
+            connections[i] = clients.get(i).warmUpAsync();
+        }
+        return CompletableFuture.allOf(connections);
+    }
+
+    @Override
+    public ProxyPoolYoutubeClient withRetryBudget() {
+        RetryPolicy retryPolicy = clients.get(0).retryPolicy();
+        if (retryPolicy == null) {
+            return this;
+        }
+        // the budget is shared by all proxies, so that it limits the retries of the whole bulk call
+        AtomicInteger retryBudget = new AtomicInteger(retryPolicy.getRetryBudget());
+        List<DefaultYoutubeClient> budgetedClients = new ArrayList<>(clients.size());
+        for (DefaultYoutubeClient client : clients) {
+            budgetedClients.add(client.withRetryBudget(retryBudget));
+        }
+        return new ProxyPoolYoutubeClient(this, budgetedClients);
+    }
+
+    @Override
+    public ProxyPoolYoutubeClient withDeadline() {
+        Duration callTimeout = clients.get(0).callTimeout();
+        if (callTimeout == null) {
+            return this;
+        }
+        // the deadline is shared by all proxies, so that it limits the duration of the whole call
+        Deadline deadline = Deadline.after(callTimeout);
+        List<DefaultYoutubeClient> scopedClients = new ArrayList<>(clients.size());
+        for (DefaultYoutubeClient client : clients) {
+            scopedClients.add(client.withDeadline(deadline));
+        }
+        return new ProxyPoolYoutubeClient(this, scopedClients);
+    }
+
+    /**
+     * @param budget The budget of the request, which tells whether its response may be a captcha page
+     */
+    private CompletableFuture<String> dispatch(DefaultRateLimiter.Budget budget, Function<DefaultYoutubeClient, CompletableFuture<String>> request) {
+        int index = select();
+        if (index < 0) {
+            return CompletableFuture.failedFuture(new TranscriptRetrievalException(ALL_PROXIES_QUARANTINED, null, 0, true));
+        }
+        Proxy proxy = proxies.get(index);
+        proxy.requestStarted();
+        long startedAt = nanoClock.getAsLong();
+        return request.apply(clients.get(index))
+                .whenComplete((body, throwable) -> {
+                    long now = nanoClock.getAsLong();
+                    proxy.requestCompleted(now - startedAt, isFailure(budget, body, throwable), now);
+                });
+    }
+
+    /**
+     * @return The index of the available proxy with the lowest score, or {@code -1} if all proxies are quarantined
+     */
+    private int select() {
+        long now = nanoClock.getAsLong();
+        int selected = -1;
+        double lowestScore = Double.MAX_VALUE;
+        for (int i = 0; i < proxies.size(); i++) {
+            double score = proxies.get(i).score(now);
+            if (score < lowestScore) {
+                lowestScore = score;
+                selected = i;
+            }
+        }
+        return selected;
+    }
+
+    boolean isQuarantined(int index) {
+        return proxies.get(index).score(nanoClock.getAsLong()) == Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Load and health statistics of a single proxy.
+     */
+    private static final class Proxy {
+        private final long quarantineNanos;
+        private int inFlight;
+        private double latencyNanos;
+        private double errorRate;
+        private int samples;
+        private boolean quarantined;
+        private long quarantinedUntil;
+
+        Proxy(long quarantineNanos) {
+            this.quarantineNanos = quarantineNanos;
+        }
+
+        /**
+         * @return The average latency weighted by the load, {@link Double#POSITIVE_INFINITY} while quarantined
+         */
+        synchronized double score(long now) {
+            if (quarantined) {
+                if (now - quarantinedUntil < 0) {
+                    return Double.POSITIVE_INFINITY;
+                }
+                quarantined = false;
+                errorRate = 0;
+                samples = 0;
+            }
+            // proxies without measured latency are preferred, so that every proxy gets measured
+            return Math.max(latencyNanos, 1) * (inFlight + 1);
+        }
+
+        synchronized void requestStarted() {
+            inFlight++;
+        }
+
+        synchronized void requestCompleted(long latency, boolean failed, long now) {
+            inFlight--;
+            // failures are often fast and would make an unhealthy proxy look attractive
+            if (!failed) {
+                latencyNanos = latencyNanos == 0 ? latency : LATENCY_WEIGHT * latency + (1 - LATENCY_WEIGHT) * latencyNanos;
+            }
+            errorRate = ERROR_WEIGHT * (failed ? 1 : 0) + (1 - ERROR_WEIGHT) * errorRate;
+            samples++;
+            if (!quarantined && samples >= MIN_SAMPLES && errorRate > QUARANTINE_ERROR_RATE) {
+                quarantined = true;
+                quarantinedUntil = now + quarantineNanos;
+            }
+        }
+    }
+}
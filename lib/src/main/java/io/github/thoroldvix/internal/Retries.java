@@ -0,0 +1,62 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.RetryPolicy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which failures of the default YouTube client are retried according to a {@link RetryPolicy}, and how long to wait before.
+ */
+final class Retries {
+
+    private Retries() {
+    }
+
+    static boolean isRetryable(int statusCode) {
+        return statusCode == 429 || (statusCode >= 500 && statusCode < 600);
+    }
+
+    /**
+     * Parses the value of a {@code Retry-After} header, given either in seconds or as an HTTP date.
+     *
+     * @param value The header value
+     * @param now   The current time, used for HTTP dates
+     * @return The time to wait, empty if the value could not be parsed
+     */
+    static Optional<Duration> parseRetryAfter(String value, Instant now) {
+        String trimmed = value.trim();
+        try {
+            return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(trimmed))));
+        } catch (NumberFormatException e) {
+            // not in seconds, try HTTP date
+        }
+        try {
+            Instant retryAt = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            Duration delay = Duration.between(now, retryAt);
+            return Optional.of(delay.isNegative() ? Duration.ZERO : delay);
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @param policy  The retry policy
+     * @param attempt The number of the attempt which failed, starting from 1
+     * @return A random delay between zero and the exponential backoff for the attempt, capped at the maximum backoff
+     */
+    static Duration backoff(RetryPolicy policy, int attempt) {
+        long maxMillis = policy.getMaxBackoff().toMillis();
+        long backoffMillis = policy.getInitialBackoff().toMillis();
+        for (int i = 1; i < attempt && backoffMillis < maxMillis; i++) {
+            backoffMillis *= 2;
+        }
+        backoffMillis = Math.min(backoffMillis, maxMillis);
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(backoffMillis + 1));
+    }
+}
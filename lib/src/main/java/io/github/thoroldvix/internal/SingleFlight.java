@@ -0,0 +1,52 @@
+package io.github.thoroldvix.internal;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent executions of the same operation, so that callers asking for the same key while an execution
+ * is in flight share its result instead of starting their own.
+ * <p>
+ * Results are not cached: once an execution completes, the next call for its key starts a new one.
+ * Every caller gets its own copy of the shared future, so a caller cancelling its future does not affect the others.
+ * </p>
+ */
+final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param key       The key identifying the operation
+     * @param operation Starts the operation, called only if no execution for the key is in flight
+     * @return A future completed with the result of the shared execution
+     */
+    CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> operation) {
+        CompletableFuture<V> execution = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, execution);
+        if (existing != null) {
+            return existing.copy();
+        }
+        CompletableFuture<V> result;
+        try {
+            result = operation.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((value, throwable) -> {
+            // removed before completion, so that callers woken up by the result start a new execution
+            inFlight.remove(key, execution);
+            if (throwable != null) {
+                execution.completeExceptionally(Futures.unwrap(throwable));
+            } else {
+                execution.complete(value);
+            }
+        });
+        return execution.copy();
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+}
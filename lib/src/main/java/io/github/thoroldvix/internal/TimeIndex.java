@@ -0,0 +1,145 @@
+package io.github.thoroldvix.internal;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Index of fragments by time, for lookups in logarithmic time.
+ * <p>
+ * Fragments are ordered by start time, so that the fragments starting before a given time are found by binary search.
+ * Since the cues of automatically generated transcripts overlap, a fragment which started long before may still be running,
+ * so the largest end time of the fragments below each node of a binary tree over the positions is kept as well.
+ * Subtrees whose fragments all ended are skipped, which keeps lookups fast even if a single fragment spans the whole transcript.
+ * </p>
+ */
+final class TimeIndex {
+
+    /**
+     * Indices of the fragments in the order of their start times, {@code null} if the fragments already are in that order.
+     */
+    private final int[] order;
+    private final int[] startMillis;
+    private final int[] endMillis;
+    /**
+     * Largest end time below each node of the tree, the root is at index {@code 1} and the children of node {@code n}
+     * are at {@code 2n} and {@code 2n + 1}. Leaves start at {@link #leaves}, those after the last position are {@link Integer#MIN_VALUE}.
+     */
+    private final int[] maxEndMillis;
+    private final int leaves;
+
+    TimeIndex(int[] startMillis, int[] durationMillis, int size) {
+        int[] order = isSorted(startMillis, size) ? null : sortedOrder(startMillis, size);
+        this.order = order;
+        this.startMillis = new int[size];
+        this.endMillis = new int[size];
+        int leaves = Integer.highestOneBit(Math.max(size, 1));
+        this.leaves = leaves < size ? leaves << 1 : leaves;
+        this.maxEndMillis = new int[2 * this.leaves];
+        Arrays.fill(maxEndMillis, Integer.MIN_VALUE);
+        for (int i = 0; i < size; i++) {
+            int fragment = order == null ? i : order[i];
+            this.startMillis[i] = startMillis[fragment];
+            this.endMillis[i] = startMillis[fragment] + durationMillis[fragment];
+            this.maxEndMillis[this.leaves + i] = endMillis[i];
+        }
+        for (int node = this.leaves - 1; node > 0; node--) {
+            maxEndMillis[node] = Math.max(maxEndMillis[2 * node], maxEndMillis[2 * node + 1]);
+        }
+    }
+
+    private static boolean isSorted(int[] startMillis, int size) {
+        for (int i = 1; i < size; i++) {
+            if (startMillis[i] < startMillis[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] sortedOrder(int[] startMillis, int size) {
+        // stable, so that fragments starting at the same time keep their order
+        return IntStream.range(0, size)
+                .boxed()
+                .sorted(Comparator.comparingInt(fragment -> startMillis[fragment]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * @return The index of the fragment which started last of those running at the given time, or {@code -1} if none is running
+     */
+    int indexOf(int timeMillis) {
+        // last position starting at or before the time
+        int position = firstPositionAfter(startMillis, timeMillis) - 1;
+        if (position < 0) {
+            return -1;
+        }
+        int node = leaves + position;
+        // climb until a subtree to the left has a fragment still running, all positions below the node are ruled out
+        while (maxEndMillis[node] <= timeMillis) {
+            while ((node & 1) == 0) {
+                node >>>= 1;
+            }
+            if (node == 1) {
+                return -1;
+            }
+            node--;
+        }
+        // descend to the last running fragment of that subtree
+        while (node < leaves) {
+            node = maxEndMillis[2 * node + 1] > timeMillis ? 2 * node + 1 : 2 * node;
+        }
+        return fragment(node - leaves);
+    }
+
+    /**
+     * @return The indices of the fragments running at any time from the start, inclusive, to the end, exclusive, ordered by start time
+     */
+    int[] indicesBetween(int fromMillis, int toMillis) {
+        int end = firstPositionAfter(startMillis, toMillis - 1);
+        IntStream.Builder indices = IntStream.builder();
+        collect(1, 0, leaves, end, fromMillis, indices);
+        return indices.build().toArray();
+    }
+
+    /**
+     * Adds the fragments below the node which start before the end position and are still running after the given time, in order.
+     *
+     * @param first The first position below the node
+     * @param width The number of positions below the node
+     */
+    private void collect(int node, int first, int width, int end, int fromMillis, IntStream.Builder indices) {
+        if (first >= end || maxEndMillis[node] <= fromMillis) {
+            return;
+        }
+        if (width == 1) {
+            indices.add(fragment(first));
+            return;
+        }
+        int half = width >>> 1;
+        collect(2 * node, first, half, end, fromMillis, indices);
+        collect(2 * node + 1, first + half, half, end, fromMillis, indices);
+    }
+
+    private int fragment(int position) {
+        return order == null ? position : order[position];
+    }
+
+    /**
+     * @return The first position in the non-decreasing values whose value is greater than the given one
+     */
+    private static int firstPositionAfter(int[] values, int value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.thoroldvix.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket which hands out tokens as {@link CompletableFuture}s instead of blocking the caller.
+ * <p>
+ * The bucket starts full and is refilled at a constant rate up to its capacity, so up to {@code capacity} requests
+ * can be sent at once before they are paced. Tokens are reserved in call order, a caller which finds the bucket empty
+ * gets a future completed once its token was refilled.
+ * </p>
+ */
+final class TokenBucket {
+
+    private final long refillIntervalNanos;
+    private final int capacity;
+    private final LongSupplier nanoClock;
+    private double storedTokens;
+    private long nextFreeNanos;
+
+    TokenBucket(double tokensPerSecond, int capacity) {
+        this(tokensPerSecond, capacity, System::nanoTime);
+    }
+
+    TokenBucket(double tokensPerSecond, int capacity, LongSupplier nanoClock) {
+        if (!(tokensPerSecond > 0) || Double.isInfinite(tokensPerSecond)) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.refillIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond));
+        this.capacity = capacity;
+        this.nanoClock = nanoClock;
+        this.storedTokens = capacity;
+        this.nextFreeNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes a token.
+     *
+     * @return A future completed once the token is available
+     */
+    CompletableFuture<Void> acquire() {
+        long waitNanos = reserve();
+        if (waitNanos == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+        }, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Reserves a token.
+     *
+     * @return The number of nanoseconds until the reserved token is available, {@code 0} if it is available now
+     */
+    synchronized long reserve() {
+        long now = nanoClock.getAsLong();
+        if (now - nextFreeNanos > 0) {
+            storedTokens = Math.min(capacity, storedTokens + (double) (now - nextFreeNanos) / refillIntervalNanos);
+            nextFreeNanos = now;
+        }
+        long availableAt = nextFreeNanos;
+        if (storedTokens >= 1) {
+            storedTokens--;
+        } else {
+            // the fraction of a token refilled so far counts towards the next one
+            nextFreeNanos += (long) ((1 - storedTokens) * refillIntervalNanos);
+            storedTokens = 0;
+            availableAt = nextFreeNanos;
+        }
+        return Math.max(0, availableAt - now);
+    }
+}
@@ -1,6 +1,9 @@
 package io.github.thoroldvix.internal;
 
+import io.github.thoroldvix.api.CircuitBreaker;
+import io.github.thoroldvix.api.RateLimiter;
 import io.github.thoroldvix.api.YoutubeClient;
+import io.github.thoroldvix.api.YoutubeClientBuilder;
 import io.github.thoroldvix.api.YoutubeTranscriptApi;
 
 import java.nio.file.Files;
@@ -16,11 +19,43 @@ public final class TranscriptApiFactory {
 
     /**
      * Creates a new instance of {@link YoutubeTranscriptApi} using the default YouTube client.
+     * <p>
+     * All instances created by this method share a single default client, and therefore its connection pool.
+     * </p>
      *
      * @return A new instance of {@link YoutubeTranscriptApi}
      */
     public static YoutubeTranscriptApi createDefault() {
-        return createWithClient(new DefaultYoutubeClient());
+        return createWithClient(DefaultClientHolder.CLIENT);
+    }
+
+    /**
+     * Creates a new {@link YoutubeClientBuilder} for configuring the default YouTube client transport.
+     * The built client can be passed to {@link #createWithClient(YoutubeClient)}.
+     *
+     * @return A new {@link YoutubeClientBuilder}
+     */
+    public static YoutubeClientBuilder clientBuilder() {
+        return new DefaultYoutubeClientBuilder();
+    }
+
+    /**
+     * Creates a new {@link RateLimiter.Builder}, for a {@link RateLimiter} which can be set with {@link YoutubeClientBuilder#rateLimiter(RateLimiter)}.
+     *
+     * @return A new {@link RateLimiter.Builder}
+     */
+    public static RateLimiter.Builder rateLimiterBuilder() {
+        return new DefaultRateLimiter.Builder();
+    }
+
+    /**
+     * Creates a new {@link CircuitBreaker.Builder}, for a {@link CircuitBreaker} which can be set with
+     * {@link YoutubeClientBuilder#circuitBreaker(CircuitBreaker)}.
+     *
+     * @return A new {@link CircuitBreaker.Builder}
+     */
+    public static CircuitBreaker.Builder circuitBreakerBuilder() {
+        return new DefaultCircuitBreaker.Builder();
     }
 
     /**
@@ -32,4 +67,8 @@ public final class TranscriptApiFactory {
     public static YoutubeTranscriptApi createWithClient(YoutubeClient client) {
         return new DefaultYoutubeTranscriptApi(client, filePath -> Files.readAllLines(Path.of(filePath)));
     }
+
+    private static final class DefaultClientHolder {
+        private static final YoutubeClient CLIENT = new DefaultYoutubeClient();
+    }
 }
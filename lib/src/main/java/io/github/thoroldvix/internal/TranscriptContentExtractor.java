@@ -1,65 +1,469 @@
 package io.github.thoroldvix.internal;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import io.github.thoroldvix.api.TranscriptContent;
 import io.github.thoroldvix.api.TranscriptRetrievalException;
-import io.github.thoroldvix.internal.DefaultTranscriptContent.Fragment;
-import org.apache.commons.text.StringEscapeUtils;
 
+import java.nio.CharBuffer;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Responsible for extracting transcript content from xml.
+ * <p>
+ * The xml is read by a scanner which only understands the {@code <text start="..." dur="...">} elements of YouTube transcripts.
+ * The text of a fragment is escaped twice by YouTube and may contain html tags. Both levels of entities are decoded and the tags
+ * are removed in a single pass over its characters into a reused buffer, which is then encoded into the content.
+ * </p>
+ * <p>
+ * Documents of at least {@link #DEFAULT_PARALLEL_THRESHOLD} characters, such as transcripts of livestreams lasting many hours,
+ * are split into chunks at {@code <text} elements which are parsed in parallel in the common {@link ForkJoinPool}. The threshold
+ * can be changed with the {@value #PARALLEL_THRESHOLD_PROPERTY} system property, which is read whenever an extractor is created.
+ * {@link #extractAsync(String)} parses such documents in a task of the pool, so that no thread outside of it waits for the chunks.
+ * </p>
  */
 final class TranscriptContentExtractor {
 
+    private static final String ROOT_ELEMENT = "<transcript";
+    private static final String TEXT_ELEMENT = "<text";
+    private static final String TEXT_END_TAG = "</text>";
+    /**
+     * Longest entity which is decoded, {@code &#x10FFFF;}.
+     */
+    private static final int MAX_ENTITY_LENGTH = 10;
+    private static final double[] POWERS_OF_TEN = {1, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+    static final String PARALLEL_THRESHOLD_PROPERTY = "io.github.thoroldvix.transcript.parallelParseThreshold";
+    static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 20;
+    /**
+     * Smallest chunk which is parsed in parallel, smaller chunks are not worth the cost of a task.
+     */
+    private static final int MIN_CHUNK_LENGTH = 1 << 16;
+    /**
+     * Chunks for each thread of the pool, so that threads which finish early can take over chunks of others.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
     private final String videoId;
-    private static final XmlMapper XML_MAPPER = new XmlMapper();
+    private final int parallelThreshold;
+    private char[] buffer = new char[256];
+    private CharBuffer bufferChars = CharBuffer.wrap(buffer);
 
     TranscriptContentExtractor(String videoId) {
+        this(videoId, Integer.getInteger(PARALLEL_THRESHOLD_PROPERTY, DEFAULT_PARALLEL_THRESHOLD));
+    }
+
+    /**
+     * @param parallelThreshold The length from which documents are parsed in parallel
+     */
+    TranscriptContentExtractor(String videoId, int parallelThreshold) {
         this.videoId = videoId;
+        this.parallelThreshold = parallelThreshold;
     }
 
-    private static List<Fragment> formatFragments(List<Fragment> fragments) {
-        return fragments.stream()
-                .filter(TranscriptContentExtractor::isValidTranscriptFragment)
-                .map(TranscriptContentExtractor::removeHtmlTags)
-                .map(TranscriptContentExtractor::unescapeXmlTags)
-                .collect(Collectors.toList());
+    /**
+     * @return Whether the xml looks like a transcript, which does not mean that its fragments can be parsed
+     */
+    static boolean isTranscript(String xml) {
+        return xml.contains(ROOT_ELEMENT);
+    }
+
+    /**
+     * Parses the document without blocking a thread outside of the common {@link ForkJoinPool} while its chunks are parsed in parallel.
+     * Documents which are parsed sequentially are parsed by the calling thread.
+     *
+     * @return A {@link CompletableFuture} with the content, completed exceptionally with {@link TranscriptRetrievalException}
+     * if the document cannot be parsed
+     */
+    CompletableFuture<TranscriptContent> extractAsync(String xml) {
+        int index = xml.indexOf(ROOT_ELEMENT);
+        if (index >= 0 && isParsedInParallel(xml, index) && !ForkJoinTask.inForkJoinPool()) {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return extract(xml);
+                } catch (TranscriptRetrievalException e) {
+                    throw new CompletionException(e);
+                }
+            }, ForkJoinPool.commonPool());
+        }
+        try {
+            return CompletableFuture.completedFuture(extract(xml));
+        } catch (TranscriptRetrievalException e) {
+            return CompletableFuture.failedFuture(e);
+        }
     }
 
     TranscriptContent extract(String xml) throws TranscriptRetrievalException {
-        List<Fragment> fragments = parseFragments(xml);
-        List<Fragment> content = formatFragments(fragments);
+        int index = xml.indexOf(ROOT_ELEMENT);
+        if (index < 0) {
+            throw parseFailure();
+        }
+        if (isParsedInParallel(xml, index)) {
+            DefaultTranscriptContent.Builder content = extractInParallel(xml, index);
+            if (content != null) {
+                return content.build();
+            }
+        }
+        DefaultTranscriptContent.Builder content = DefaultTranscriptContent.builder();
+        extract(xml, index, xml.length(), content);
+        return content.build();
+    }
+
+    private boolean isParsedInParallel(String xml, int from) {
+        return xml.length() - from >= parallelThreshold && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /**
+     * Parses the elements from the given index on, for documents which grow by appending elements.
+     *
+     * @param from The index after the last element parsed from the document before it grew, or {@code 0} to parse all elements
+     * @return The index after the last parsed element, from which the document can be parsed once it has grown
+     */
+    int extract(String xml, int from, DefaultTranscriptContent.Builder content) throws TranscriptRetrievalException {
+        int index = xml.indexOf(ROOT_ELEMENT);
+        if (index < 0) {
+            throw parseFailure();
+        }
+        return extract(xml, Math.max(index, from), xml.length(), content);
+    }
+
+    /**
+     * @param end The index after the last parsed element
+     * @return The index at which the last element before the given index starts, or {@code 0} if there is none
+     */
+    static int lastElementStart(String xml, int end) {
+        return Math.max(0, xml.lastIndexOf(TEXT_ELEMENT, end - 1));
+    }
+
+    /**
+     * Parses the elements which start before the end of the range, the last of them may end after it.
+     *
+     * @return The index after the last parsed element
+     */
+    private int extract(String xml, int from, int to, DefaultTranscriptContent.Builder content) throws TranscriptRetrievalException {
+        int position = from;
+        int index;
+        while ((index = xml.indexOf(TEXT_ELEMENT, position)) >= 0 && index < to) {
+            int tagEnd = xml.indexOf('>', index);
+            if (tagEnd < 0) {
+                throw parseFailure();
+            }
+            double start = attribute(xml, "start", index, tagEnd);
+            double dur = attribute(xml, "dur", index, tagEnd);
+            position = tagEnd + 1;
+            if (xml.charAt(tagEnd - 1) == '/') {
+                // empty fragment
+                continue;
+            }
+            int textEnd = xml.indexOf(TEXT_END_TAG, position);
+            if (textEnd < 0) {
+                throw parseFailure();
+            }
+            int length = text(xml, position, textEnd);
+            if (length >= 0) {
+                bufferChars.clear().limit(length);
+                content.add(bufferChars, DefaultTranscriptContent.toMillis(start), DefaultTranscriptContent.toMillis(dur));
+            }
+            position = textEnd + TEXT_END_TAG.length();
+        }
+        return position;
+    }
+
+    /**
+     * Splits the document before {@code <text} elements and parses the chunks in parallel, each with its own extractor.
+     *
+     * @return The fragments of all chunks in order, or {@code null} if the document has to be parsed sequentially,
+     * because a chunk failed to parse or a split turned out not to be between elements
+     */
+    private DefaultTranscriptContent.Builder extractInParallel(String xml, int from) {
+        int length = xml.length() - from;
+        int chunks = Math.min(ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD, length / MIN_CHUNK_LENGTH);
+        List<Chunk> tasks = new ArrayList<>(chunks);
+        int chunkStart = from;
+        for (int i = 1; i < chunks; i++) {
+            int split = xml.indexOf(TEXT_ELEMENT, from + (int) ((long) length * i / chunks));
+            if (split < 0) {
+                break;
+            }
+            if (split > chunkStart) {
+                tasks.add(new Chunk(videoId, xml, chunkStart, split));
+                chunkStart = split;
+            }
+        }
+        tasks.add(new Chunk(videoId, xml, chunkStart, xml.length()));
+        if (tasks.size() == 1) {
+            return null;
+        }
+        ForkJoinTask.invokeAll(tasks);
+        DefaultTranscriptContent.Builder content = DefaultTranscriptContent.builder();
+        int end = from;
+        for (Chunk chunk : tasks) {
+            // a previous chunk must not have parsed an element into this one,
+            // otherwise the split was inside the text of an element
+            if (chunk.content == null || end > chunk.from) {
+                return null;
+            }
+            content.addAll(chunk.content);
+            end = chunk.end;
+        }
+        return content;
+    }
+
+    /**
+     * Task parsing the elements of a chunk of the document.
+     */
+    private static final class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final String videoId;
+        private final String xml;
+        private final int from;
+        private final int to;
+        private transient DefaultTranscriptContent.Builder content;
+        private int end;
 
-        return new DefaultTranscriptContent(content);
+        Chunk(String videoId, String xml, int from, int to) {
+            this.videoId = videoId;
+            this.xml = xml;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            DefaultTranscriptContent.Builder content = DefaultTranscriptContent.builder();
+            try {
+                end = new TranscriptContentExtractor(videoId).extract(xml, from, to, content);
+                this.content = content;
+            } catch (TranscriptRetrievalException e) {
+                // the document is parsed again sequentially, which reports the failure
+            }
+        }
+    }
+
+    /**
+     * Counts the fragments which {@link #extract(String)} returns, without decoding their text or parsing their attributes.
+     */
+    int countFragments(String xml) throws TranscriptRetrievalException {
+        int index = xml.indexOf(ROOT_ELEMENT);
+        if (index < 0) {
+            throw parseFailure();
+        }
+        int count = 0;
+        while ((index = xml.indexOf(TEXT_ELEMENT, index)) >= 0) {
+            int tagEnd = xml.indexOf('>', index);
+            if (tagEnd < 0) {
+                throw parseFailure();
+            }
+            index = tagEnd + 1;
+            if (xml.charAt(tagEnd - 1) == '/') {
+                continue;
+            }
+            int textEnd = xml.indexOf(TEXT_END_TAG, index);
+            if (textEnd < 0) {
+                throw parseFailure();
+            }
+            if (!isBlank(xml, index, textEnd)) {
+                count++;
+            }
+            index = textEnd + TEXT_END_TAG.length();
+        }
+        return count;
     }
 
-    private static Fragment unescapeXmlTags(Fragment fragment) {
-        String formattedValue = StringEscapeUtils.unescapeXml(fragment.getText());
-        return new Fragment(formattedValue, fragment.getStart(), fragment.getDur());
+    private boolean isBlank(String xml, int from, int to) throws TranscriptRetrievalException {
+        for (int i = from; i < to; i++) {
+            int c = xml.charAt(i);
+            if (c == '&') {
+                int end = xml.indexOf(';', i);
+                if (end < 0 || end >= to || (c = decodeEntity(xml, i + 1, end)) < 0) {
+                    throw parseFailure();
+                }
+                i = end;
+            }
+            if (!Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    private static Fragment removeHtmlTags(Fragment fragment) {
-        Pattern pattern = Pattern.compile("<[^>]*>", Pattern.CASE_INSENSITIVE);
-        String text = pattern.matcher(fragment.getText()).replaceAll("");
-        return new Fragment(text, fragment.getStart(), fragment.getDur());
+    /**
+     * Decodes the xml entities of the text, removes html tags from it and decodes the entities which were escaped twice.
+     *
+     * @return The length of the text in the buffer, or {@code -1} if it is blank before removing the tags
+     */
+    private int text(String xml, int from, int to) throws TranscriptRetrievalException {
+        if (buffer.length < to - from) {
+            buffer = new char[to - from];
+            bufferChars = CharBuffer.wrap(buffer);
+        }
+        int length = 0;
+        int tagStart = -1;
+        int entityStart = -1;
+        boolean blank = true;
+        for (int i = from; i < to; i++) {
+            int c = xml.charAt(i);
+            if (c == '&') {
+                int end = xml.indexOf(';', i);
+                if (end < 0 || end >= to || (c = decodeEntity(xml, i + 1, end)) < 0) {
+                    throw parseFailure();
+                }
+                i = end;
+            }
+            if (blank && !Character.isWhitespace(c)) {
+                blank = false;
+            }
+            if (c == '<' && tagStart < 0) {
+                tagStart = length;
+                entityStart = -1;
+            } else if (c == '>' && tagStart >= 0) {
+                length = tagStart;
+                tagStart = -1;
+                entityStart = -1;
+                continue;
+            }
+            if (Character.isSupplementaryCodePoint(c)) {
+                length += Character.toChars(c, buffer, length);
+                continue;
+            }
+            buffer[length++] = (char) c;
+            if (c == '&') {
+                entityStart = length - 1;
+            } else if (c == ';' && entityStart >= 0) {
+                length = decodeEscapedEntity(entityStart, length);
+                entityStart = -1;
+            } else if (entityStart >= 0 && length - entityStart > MAX_ENTITY_LENGTH) {
+                entityStart = -1;
+            }
+        }
+        return blank ? -1 : length;
     }
 
-    private static boolean isValidTranscriptFragment(Fragment fragment) {
-        return fragment.getText() != null && !fragment.getText().isBlank();
+    /**
+     * Decodes the entity which ends at the end of the buffer, if it is known.
+     *
+     * @return The length of the buffer after decoding
+     */
+    private int decodeEscapedEntity(int entityStart, int length) {
+        bufferChars.clear();
+        int c = decodeEntity(bufferChars, entityStart + 1, length - 1);
+        if (c < 0) {
+            return length;
+        }
+        if (Character.isSupplementaryCodePoint(c)) {
+            return entityStart + Character.toChars(c, buffer, entityStart);
+        }
+        buffer[entityStart] = (char) c;
+        return entityStart + 1;
     }
 
-    private List<Fragment> parseFragments(String xml) throws TranscriptRetrievalException {
+    /**
+     * @return The code point of the entity between {@code &} and {@code ;}, or {@code -1} if it is not known
+     */
+    private static int decodeEntity(CharSequence chars, int from, int to) {
+        int length = to - from;
+        if (length >= 2 && chars.charAt(from) == '#') {
+            boolean hex = chars.charAt(from + 1) == 'x' || chars.charAt(from + 1) == 'X';
+            int radix = hex ? 16 : 10;
+            int i = hex ? from + 2 : from + 1;
+            if (i == to) {
+                return -1;
+            }
+            int codePoint = 0;
+            for (; i < to; i++) {
+                int digit = Character.digit(chars.charAt(i), radix);
+                if (digit < 0) {
+                    return -1;
+                }
+                codePoint = codePoint * radix + digit;
+                if (codePoint > Character.MAX_CODE_POINT) {
+                    return -1;
+                }
+            }
+            return codePoint;
+        }
+        if (length == 2 && chars.charAt(from + 1) == 't') {
+            if (chars.charAt(from) == 'l') return '<';
+            if (chars.charAt(from) == 'g') return '>';
+        } else if (length == 3 && chars.charAt(from) == 'a' && chars.charAt(from + 1) == 'm' && chars.charAt(from + 2) == 'p') {
+            return '&';
+        } else if (length == 4) {
+            if (chars.charAt(from) == 'q' && chars.charAt(from + 1) == 'u' && chars.charAt(from + 2) == 'o' && chars.charAt(from + 3) == 't') {
+                return '"';
+            }
+            if (chars.charAt(from) == 'a' && chars.charAt(from + 1) == 'p' && chars.charAt(from + 2) == 'o' && chars.charAt(from + 3) == 's') {
+                return '\'';
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parses a decimal attribute of the tag without copying it, falling back to {@link Double#parseDouble} for other notations.
+     *
+     * @return The value of the attribute, or {@code 0} if the tag does not have it
+     */
+    private double attribute(String xml, String name, int tagStart, int tagEnd) throws TranscriptRetrievalException {
+        int valueStart = attributeValueStart(xml, name, tagStart, tagEnd);
+        if (valueStart < 0) {
+            return 0;
+        }
+        char quote = xml.charAt(valueStart - 1);
+        int valueEnd = xml.indexOf(quote, valueStart);
+        if (valueEnd < 0 || valueEnd > tagEnd) {
+            throw parseFailure();
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (int i = valueStart; i < valueEnd; i++) {
+            char c = xml.charAt(i);
+            if (c >= '0' && c <= '9' && digits < 15) {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return parseDouble(xml.substring(valueStart, valueEnd));
+            }
+        }
+        if (digits == 0) {
+            return parseDouble(xml.substring(valueStart, valueEnd));
+        }
+        // both values are exact, so the division is correctly rounded like Double.parseDouble
+        return fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+    }
+
+    private static int attributeValueStart(String xml, String name, int tagStart, int tagEnd) {
+        int index = tagStart + TEXT_ELEMENT.length();
+        while ((index = xml.indexOf(name, index)) >= 0 && index < tagEnd) {
+            int afterName = index + name.length();
+            if (Character.isWhitespace(xml.charAt(index - 1)) && afterName + 1 < tagEnd && xml.charAt(afterName) == '=') {
+                char quote = xml.charAt(afterName + 1);
+                if (quote == '"' || quote == '\'') {
+                    return afterName + 2;
+                }
+            }
+            index = afterName;
+        }
+        return -1;
+    }
+
+    private double parseDouble(String value) throws TranscriptRetrievalException {
         try {
-            return XML_MAPPER.readValue(xml, new TypeReference<>() {
-            });
-        } catch (JsonProcessingException e) {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
             throw new TranscriptRetrievalException(videoId, "Failed to parse transcript content XML.", e);
         }
     }
+
+    private TranscriptRetrievalException parseFailure() {
+        return new TranscriptRetrievalException(videoId, "Failed to parse transcript content XML.");
+    }
 }
@@ -1,24 +1,41 @@
 package io.github.thoroldvix.internal;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
 import io.github.thoroldvix.api.Transcript;
+import io.github.thoroldvix.api.TranscriptContent;
 import io.github.thoroldvix.api.TranscriptList;
 import io.github.thoroldvix.api.TranscriptRetrievalException;
 import io.github.thoroldvix.api.YoutubeClient;
 
-import java.util.Collections;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Extracts transcript list from video page HTML.
+ * <p>
+ * The captions JSON is read with a streaming parser in a single pass, skipping everything not needed for the list.
+ * </p>
  */
 final class TranscriptListExtractor {
 
+    /**
+     * Marks the start of the captions JSON in the video page HTML.
+     */
+    static final String CAPTIONS_MARKER = "\"captions\":";
+    /**
+     * Marks the end of the captions JSON in the video page HTML, nothing after it is needed.
+     */
+    static final String VIDEO_DETAILS_MARKER = ",\"videoDetails";
+
     private static final String TOO_MANY_REQUESTS = "YouTube is receiving too many requests from this IP and now requires solving a captcha to continue. " +
                                                     "One of the following things can be done to work around this:\n" +
                                                     "- Manually solve the captcha in a browser and export the cookie. " +
@@ -27,111 +44,217 @@ final class TranscriptListExtractor {
                                                     "- Use a different IP address\n" +
                                                     "- Wait until the ban on your IP has been lifted";
     private static final String TRANSCRIPTS_DISABLED = "Transcripts are disabled for this video.";
+    /**
+     * Video pages may contain raw line breaks within the strings of the captions JSON.
+     */
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .enable(JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS)
+            .build();
 
     private final YoutubeClient client;
     private final String videoId;
+    private final SingleFlight<String, TranscriptContent> contentFetches;
 
-    TranscriptListExtractor(YoutubeClient client, String videoId) {
+    TranscriptListExtractor(YoutubeClient client, String videoId, SingleFlight<String, TranscriptContent> contentFetches) {
         this.client = client;
         this.videoId = videoId;
+        this.contentFetches = contentFetches;
     }
 
-    TranscriptList extract(String videoPageHtml) throws TranscriptRetrievalException {
-        String json = getJsonFromHtml(videoPageHtml, videoId);
-        JsonNode parsedJson = parseJson(json);
-        checkIfTranscriptsDisabled(parsedJson);
-        return createTranscriptList(parsedJson);
-    }
-
-    private static String getJsonFromHtml(String videoPageHtml, String videoId) throws TranscriptRetrievalException {
-        String[] splitHtml = videoPageHtml.split("\"captions\":");
-        checkIfHtmlContainsJson(videoPageHtml, videoId, splitHtml);
-        return splitHtml[1].split(",\"videoDetails")[0].replace("\n", "");
+    TranscriptList extract(VideoPage videoPage) throws TranscriptRetrievalException {
+        String json = getJsonFromPage(videoPage, videoId);
+        CaptionsRenderer renderer = parseJson(json);
+        checkIfTranscriptsDisabled(renderer);
+        return createTranscriptList(renderer);
     }
 
-    private static void checkIfHtmlContainsJson(String videoPageHtml, String videoId, String[] splitHtml) throws TranscriptRetrievalException {
-        //no captions json in html
-        if (splitHtml.length <= 1) {
-            //recaptcha
-            if (videoPageHtml.contains("class=\"g-recaptcha\"")) {
+    private static String getJsonFromPage(VideoPage videoPage, String videoId) throws TranscriptRetrievalException {
+        switch (videoPage.status()) {
+            case CAPTIONS:
+                return videoPage.captionsJson();
+            case CAPTCHA:
                 throw new TranscriptRetrievalException(videoId, TOO_MANY_REQUESTS);
-            }
-            //non playable
-            if (!videoPageHtml.contains("\"playabilityStatus\":")) {
+            case NO_CAPTIONS:
+                throw new TranscriptRetrievalException(videoId, TRANSCRIPTS_DISABLED);
+            default:
                 throw new TranscriptRetrievalException(videoId, "This video is no longer available.");
-            }
-            throw new TranscriptRetrievalException(videoId, TRANSCRIPTS_DISABLED);
         }
     }
 
-    private JsonNode parseJson(String json) throws TranscriptRetrievalException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        JsonNode parsedJson;
-        try {
-            parsedJson = objectMapper.readTree(json).get("playerCaptionsTracklistRenderer");
-        } catch (JsonProcessingException e) {
+    private CaptionsRenderer parseJson(String json) throws TranscriptRetrievalException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            CaptionsRenderer renderer = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                if (parser.nextToken() == JsonToken.START_OBJECT && field.equals("playerCaptionsTracklistRenderer")) {
+                    renderer = readCaptionsRenderer(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return renderer;
+        } catch (IOException e) {
             throw new TranscriptRetrievalException(videoId, "Failed to parse transcript JSON.", e);
         }
-        return parsedJson;
     }
 
-    private void checkIfTranscriptsDisabled(JsonNode parsedJson) throws TranscriptRetrievalException {
-        if (parsedJson == null) {
-            throw new TranscriptRetrievalException(videoId, TRANSCRIPTS_DISABLED);
-        }
-        if (!parsedJson.has("captionTracks")) {
-            throw new TranscriptRetrievalException(videoId, TRANSCRIPTS_DISABLED);
+    private static CaptionsRenderer readCaptionsRenderer(JsonParser parser) throws IOException {
+        CaptionsRenderer renderer = new CaptionsRenderer();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals("captionTracks")) {
+                renderer.captionTracks = new ArrayList<>();
+                if (value == JsonToken.START_ARRAY) {
+                    readCaptionTracks(parser, renderer.captionTracks);
+                } else {
+                    parser.skipChildren();
+                }
+            } else if (field.equals("translationLanguages") && value == JsonToken.START_ARRAY) {
+                readTranslationLanguages(parser, renderer.translationLanguages);
+            } else {
+                parser.skipChildren();
+            }
         }
+        return renderer;
     }
 
-    private TranscriptList createTranscriptList(JsonNode jsonNode) {
-        return new DefaultTranscriptList(videoId,
-                getManualTranscripts(jsonNode),
-                getGeneratedTranscripts(jsonNode),
-                getTranslationLanguages(jsonNode)
-        );
+    private static void readCaptionTracks(JsonParser parser, List<CaptionTrack> captionTracks) throws IOException {
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            String baseUrl = null;
+            String name = null;
+            String languageCode = null;
+            boolean generated = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "baseUrl":
+                        baseUrl = parser.getValueAsString();
+                        break;
+                    case "name":
+                        name = readSimpleText(parser);
+                        break;
+                    case "languageCode":
+                        languageCode = parser.getValueAsString();
+                        break;
+                    case "kind":
+                        generated = true;
+                        parser.skipChildren();
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            if (languageCode != null && name != null) {
+                captionTracks.add(new CaptionTrack(baseUrl, name, languageCode, generated));
+            }
+        }
     }
 
-    private Map<String, String> getTranslationLanguages(JsonNode json) {
-        if (!json.has("translationLanguages")) {
-            return Collections.emptyMap();
+    private static void readTranslationLanguages(JsonParser parser, Map<String, String> translationLanguages) throws IOException {
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            String languageCode = null;
+            String languageName = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if (field.equals("languageCode")) {
+                    languageCode = parser.getValueAsString();
+                } else if (field.equals("languageName")) {
+                    languageName = readSimpleText(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (languageCode != null && languageName != null) {
+                translationLanguages.put(languageCode, languageName);
+            }
         }
-        return StreamSupport.stream(json.get("translationLanguages").spliterator(), false)
-                .collect(Collectors.toMap(
-                        jsonNode -> jsonNode.get("languageCode").asText(),
-                        jsonNode -> jsonNode.get("languageName").get("simpleText").asText()
-                ));
     }
 
-    private Map<String, Transcript> getManualTranscripts(JsonNode json) {
-        return getTranscripts(json, jsonNode -> !jsonNode.has("kind"));
+    /**
+     * Reads the {@code simpleText} of the current text object, skipping the rest of it.
+     */
+    private static String readSimpleText(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String simpleText = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (field.equals("simpleText")) {
+                simpleText = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return simpleText;
     }
 
-    private Map<String, Transcript> getGeneratedTranscripts(JsonNode json) {
-        return getTranscripts(json, jsonNode -> jsonNode.has("kind"));
+    private void checkIfTranscriptsDisabled(CaptionsRenderer renderer) throws TranscriptRetrievalException {
+        if (renderer == null || renderer.captionTracks == null) {
+            throw new TranscriptRetrievalException(videoId, TRANSCRIPTS_DISABLED);
+        }
     }
 
-    private Map<String, Transcript> getTranscripts(JsonNode json, Predicate<JsonNode> filter) {
-        Map<String, String> translationLanguages = getTranslationLanguages(json);
-        return StreamSupport.stream(json.get("captionTracks").spliterator(), false)
-                .filter(filter)
-                .map(jsonNode -> getTranscript(client, jsonNode, translationLanguages))
-                .collect(Collectors.toMap(
-                        Transcript::getLanguageCode,
-                        transcript -> transcript,
-                        (existing, replacement) -> existing)
-                );
+    private TranscriptList createTranscriptList(CaptionsRenderer renderer) {
+        Map<String, String> translationLanguages = TranslationLanguages.canonical(renderer.translationLanguages);
+        List<CaptionTrack> manualTracks = new ArrayList<>();
+        List<CaptionTrack> generatedTracks = new ArrayList<>();
+        Set<String> manualLanguageCodes = new HashSet<>();
+        Set<String> generatedLanguageCodes = new HashSet<>();
+        for (CaptionTrack captionTrack : renderer.captionTracks) {
+            if (captionTrack.generated()) {
+                if (generatedLanguageCodes.add(captionTrack.languageCode())) {
+                    generatedTracks.add(captionTrack);
+                }
+            } else if (manualLanguageCodes.add(captionTrack.languageCode())) {
+                manualTracks.add(captionTrack);
+            }
+        }
+        Function<CaptionTrack, Transcript> transcriptFactory = captionTrack -> createTranscript(captionTrack, translationLanguages);
+        return new DefaultTranscriptList(videoId,
+                new LazyTranscriptMap(manualTracks, transcriptFactory),
+                new LazyTranscriptMap(generatedTracks, transcriptFactory),
+                translationLanguages);
     }
 
-    private Transcript getTranscript(YoutubeClient client, JsonNode jsonNode, Map<String, String> translationLanguages) {
+    private Transcript createTranscript(CaptionTrack captionTrack, Map<String, String> translationLanguages) {
         return new DefaultTranscript(
                 client,
                 videoId,
-                jsonNode.get("baseUrl").asText(),
-                jsonNode.get("name").get("simpleText").asText(),
-                jsonNode.get("languageCode").asText(),
-                jsonNode.has("kind"),
-                translationLanguages
+                captionTrack.baseUrl(),
+                captionTrack.name(),
+                captionTrack.languageCode(),
+                captionTrack.generated(),
+                translationLanguages,
+                contentFetches
         );
     }
+
+    /**
+     * Fields of {@code playerCaptionsTracklistRenderer} needed for the transcript list.
+     * <p>
+     * Caption tracks are kept until the whole renderer was read,
+     * since their translation languages may come after them.
+     * </p>
+     */
+    private static final class CaptionsRenderer {
+        private final Map<String, String> translationLanguages = new HashMap<>();
+        private List<CaptionTrack> captionTracks;
+    }
 }
@@ -0,0 +1,47 @@
+package io.github.thoroldvix.internal;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Process-wide set of canonical translation language tables.
+ * <p>
+ * YouTube offers the same translation languages for almost every video, so the table of a video is replaced by an equal,
+ * immutable table shared by all videos. Transcript lists then keep a single copy of the table and its strings,
+ * no matter how many of them are held.
+ * </p>
+ * <p>
+ * Tables are weakly referenced, so that a table is dropped once no transcript list uses it, and tables YouTube no longer offers
+ * do not stay in memory for the lifetime of the process.
+ * </p>
+ */
+final class TranslationLanguages {
+
+    /**
+     * Canonical tables by themselves, the values are weak too since they would otherwise keep their keys reachable.
+     */
+    private static final Map<Map<String, String>, WeakReference<Map<String, String>>> TABLES = new WeakHashMap<>();
+
+    private TranslationLanguages() {
+    }
+
+    /**
+     * @param translationLanguages Language names by language code, without {@code null} keys or values
+     * @return An immutable table equal to the given one, shared with all other callers passing an equal table
+     */
+    static Map<String, String> canonical(Map<String, String> translationLanguages) {
+        if (translationLanguages.isEmpty()) {
+            return Map.of();
+        }
+        synchronized (TABLES) {
+            WeakReference<Map<String, String>> reference = TABLES.get(translationLanguages);
+            Map<String, String> table = reference == null ? null : reference.get();
+            if (table == null) {
+                table = Map.copyOf(translationLanguages);
+                TABLES.put(table, new WeakReference<>(table));
+            }
+            return table;
+        }
+    }
+}
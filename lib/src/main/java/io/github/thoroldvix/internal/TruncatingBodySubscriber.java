@@ -0,0 +1,128 @@
+package io.github.thoroldvix.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * {@link HttpResponse.BodySubscriber} which scans the body for a sequence of markers as it is received and stops
+ * the download as soon as the last marker was found.
+ * <p>
+ * The body is completed with everything received up to and including the last marker, decoded as UTF-8.
+ * If the markers are not found, the whole body is returned.
+ * </p>
+ */
+final class TruncatingBodySubscriber implements HttpResponse.BodySubscriber<String> {
+
+    private final CompletableFuture<String> body = new CompletableFuture<>();
+    private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+    private final byte[][] markers;
+    private final int[][] prefixTables;
+    private Flow.Subscription subscription;
+    private int markerIndex;
+    private int matched;
+
+    TruncatingBodySubscriber(String... markers) {
+        this.markers = new byte[markers.length][];
+        this.prefixTables = new int[markers.length][];
+        for (int i = 0; i < markers.length; i++) {
+            this.markers[i] = markers[i].getBytes(StandardCharsets.UTF_8);
+            this.prefixTables[i] = prefixTable(this.markers[i]);
+        }
+    }
+
+    /**
+     * Knuth-Morris-Pratt prefix table, so that markers split across buffers are found without backtracking.
+     */
+    private static int[] prefixTable(byte[] marker) {
+        int[] table = new int[marker.length];
+        int length = 0;
+        for (int i = 1; i < marker.length; i++) {
+            while (length > 0 && marker[i] != marker[length]) {
+                length = table[length - 1];
+            }
+            if (marker[i] == marker[length]) {
+                length++;
+            }
+            table[i] = length;
+        }
+        return table;
+    }
+
+    @Override
+    public CompletionStage<String> getBody() {
+        return body;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        if (body.isDone()) {
+            return;
+        }
+        for (ByteBuffer item : items) {
+            int end = scan(item);
+            if (end >= 0) {
+                write(item, end);
+                body.complete(received.toString(StandardCharsets.UTF_8));
+                subscription.cancel();
+                return;
+            }
+            write(item, item.limit());
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        body.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        body.complete(received.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The position right after the last marker, or {@code -1} if the markers are not complete within this buffer
+     */
+    private int scan(ByteBuffer buffer) {
+        for (int i = buffer.position(); i < buffer.limit() && markerIndex < markers.length; i++) {
+            byte value = buffer.get(i);
+            byte[] marker = markers[markerIndex];
+            while (matched > 0 && value != marker[matched]) {
+                matched = prefixTables[markerIndex][matched - 1];
+            }
+            if (value == marker[matched]) {
+                matched++;
+            }
+            if (matched == marker.length) {
+                markerIndex++;
+                matched = 0;
+                if (markerIndex == markers.length) {
+                    return i + 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void write(ByteBuffer buffer, int end) {
+        if (buffer.hasArray()) {
+            received.write(buffer.array(), buffer.arrayOffset() + buffer.position(), end - buffer.position());
+        } else {
+            byte[] bytes = new byte[end - buffer.position()];
+            buffer.duplicate().get(bytes);
+            received.write(bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package io.github.thoroldvix.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Video page HTML classified by a single scan.
+ * <p>
+ * The page is scanned once for all markers which matter: the consent form, the captcha, the playability status
+ * and the captions JSON. The scan runs over the UTF-8 bytes of the page, as they are received, see {@link Scanner}.
+ * The end of the captions JSON is found by matching its braces, so that only the JSON itself is ever copied out of the page.
+ * The scan stops at the end of the captions JSON, since nothing after it is needed.
+ * </p>
+ */
+final class VideoPage {
+
+    private static final String CONSENT_MARKER = "action=\"https://consent.youtube.com/s\"";
+    private static final String CONSENT_VALUE_MARKER = "name=\"v\" value=\"";
+    private static final String CAPTCHA_MARKER = "class=\"g-recaptcha\"";
+    private static final String PLAYABILITY_MARKER = "\"playabilityStatus\":";
+    private static final String CAPTIONS_MARKER = TranscriptListExtractor.CAPTIONS_MARKER;
+
+    private final Status status;
+    private final String captionsJson;
+    private final String consentValue;
+
+    private VideoPage(Status status, String captionsJson, String consentValue) {
+        this.status = status;
+        this.captionsJson = captionsJson;
+        this.consentValue = consentValue;
+    }
+
+    /**
+     * Scans a page which was received as a whole, for clients which were not created by this library.
+     */
+    static VideoPage scan(String html) {
+        Scanner scanner = new Scanner();
+        scanner.scan(ByteBuffer.wrap(html.getBytes(StandardCharsets.UTF_8)));
+        return scanner.finish();
+    }
+
+    Status status() {
+        return status;
+    }
+
+    /**
+     * @return The captions JSON, only available if the status is {@link Status#CAPTIONS}
+     */
+    String captionsJson() {
+        return captionsJson;
+    }
+
+    /**
+     * @return The value of the consent form, only available if the status is {@link Status#CONSENT}, {@code null} if the form has none
+     */
+    String consentValue() {
+        return consentValue;
+    }
+
+    /**
+     * Reduces the page to the parts which matter, so that it can be passed on as the body of the response.
+     *
+     * @return A document which {@link #scan(String)} classifies like this page
+     */
+    String summary() {
+        switch (status) {
+            case CAPTIONS:
+                return CAPTIONS_MARKER + captionsJson;
+            case CONSENT:
+                return consentValue == null ? CONSENT_MARKER : CONSENT_MARKER + CONSENT_VALUE_MARKER + consentValue + '"';
+            case CAPTCHA:
+                return CAPTCHA_MARKER;
+            case NO_CAPTIONS:
+                return PLAYABILITY_MARKER;
+            default:
+                return "";
+        }
+    }
+
+    enum Status {
+        /**
+         * The page contains captions JSON.
+         */
+        CAPTIONS,
+        /**
+         * YouTube asks for consent to saving cookies before showing the page.
+         */
+        CONSENT,
+        /**
+         * YouTube requires solving a captcha, because it received too many requests.
+         */
+        CAPTCHA,
+        /**
+         * The video cannot be played.
+         */
+        UNAVAILABLE,
+        /**
+         * The video can be played, but has no captions.
+         */
+        NO_CAPTIONS
+    }
+
+    /**
+     * Scans the bytes of a video page buffer by buffer, as they are received.
+     * <p>
+     * Markers are matched with Knuth-Morris-Pratt prefix tables, so that markers split across buffers are found without
+     * backtracking. The buffers are read in place, only the captions JSON and the value of the consent form are copied.
+     * All markers are ASCII, and no byte of a multibyte UTF-8 sequence is, so scanning bytes finds the same markers as
+     * scanning chars.
+     * </p>
+     */
+    static final class Scanner {
+
+        private static final int CONSENT = 0;
+        private static final int CONSENT_VALUE = 1;
+        private static final int CAPTCHA = 2;
+        private static final int PLAYABILITY = 3;
+        private static final int CAPTIONS = 4;
+        private static final byte[][] MARKERS = {
+                CONSENT_MARKER.getBytes(StandardCharsets.US_ASCII),
+                CONSENT_VALUE_MARKER.getBytes(StandardCharsets.US_ASCII),
+                CAPTCHA_MARKER.getBytes(StandardCharsets.US_ASCII),
+                PLAYABILITY_MARKER.getBytes(StandardCharsets.US_ASCII),
+                CAPTIONS_MARKER.getBytes(StandardCharsets.US_ASCII)
+        };
+        private static final int[][] PREFIX_TABLES = new int[MARKERS.length][];
+
+        static {
+            for (int i = 0; i < MARKERS.length; i++) {
+                PREFIX_TABLES[i] = prefixTable(MARKERS[i]);
+            }
+        }
+
+        private final int[] matched = new int[MARKERS.length];
+        private final boolean[] found = new boolean[MARKERS.length];
+        private Captions captions = Captions.NOT_FOUND;
+        private ByteArrayOutputStream captionsJson;
+        private int depth;
+        private boolean inString;
+        private boolean escaped;
+        private ByteArrayOutputStream consentValue;
+        private boolean consentValueEnded;
+
+        private static int[] prefixTable(byte[] marker) {
+            int[] table = new int[marker.length];
+            int length = 0;
+            for (int i = 1; i < marker.length; i++) {
+                while (length > 0 && marker[i] != marker[length]) {
+                    length = table[length - 1];
+                }
+                if (marker[i] == marker[length]) {
+                    length++;
+                }
+                table[i] = length;
+            }
+            return table;
+        }
+
+        /**
+         * Scans the remaining bytes of the buffer, without changing its position.
+         *
+         * @return {@code true} once the rest of the page is not needed
+         */
+        boolean scan(ByteBuffer buffer) {
+            int copyFrom = captions == Captions.IN_OBJECT ? buffer.position() : -1;
+            for (int i = buffer.position(); i < buffer.limit(); i++) {
+                byte value = buffer.get(i);
+                if (captions == Captions.IN_OBJECT) {
+                    if (endsObject(value)) {
+                        copy(buffer, copyFrom, i + 1, captionsJson);
+                        captions = Captions.ENDED;
+                        return true;
+                    }
+                } else if (captions == Captions.BEFORE_OBJECT) {
+                    if (value == '{') {
+                        captions = Captions.IN_OBJECT;
+                        captionsJson = new ByteArrayOutputStream();
+                        depth = 1;
+                        copyFrom = i;
+                    } else if (value < 0 || !Character.isWhitespace(value)) {
+                        // no object follows the marker
+                        captions = Captions.ENDED;
+                        captionsJson = new ByteArrayOutputStream();
+                        return true;
+                    }
+                } else {
+                    if (consentValue != null && !consentValueEnded) {
+                        if (value == '"') {
+                            consentValueEnded = true;
+                        } else {
+                            consentValue.write(value);
+                        }
+                    }
+                    match(value);
+                    if (found[CAPTIONS]) {
+                        captions = Captions.BEFORE_OBJECT;
+                    } else if (found[CONSENT] && consentValueEnded) {
+                        return true;
+                    }
+                }
+            }
+            if (captions == Captions.IN_OBJECT) {
+                copy(buffer, copyFrom, buffer.limit(), captionsJson);
+            }
+            return false;
+        }
+
+        private void match(byte value) {
+            for (int marker = 0; marker < MARKERS.length; marker++) {
+                if (found[marker] || marker == CAPTIONS && found[CONSENT]) {
+                    // the consent form takes the place of the page, captions after it are not the video's
+                    continue;
+                }
+                byte[] bytes = MARKERS[marker];
+                int length = matched[marker];
+                while (length > 0 && value != bytes[length]) {
+                    length = PREFIX_TABLES[marker][length - 1];
+                }
+                if (value == bytes[length]) {
+                    length++;
+                }
+                if (length == bytes.length) {
+                    found[marker] = true;
+                    if (marker == CONSENT_VALUE) {
+                        consentValue = new ByteArrayOutputStream();
+                    }
+                }
+                matched[marker] = length;
+            }
+        }
+
+        /**
+         * Follows the strings and braces of the captions JSON.
+         *
+         * @return {@code true} if the byte is the brace closing the captions JSON
+         */
+        private boolean endsObject(byte value) {
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (value == '\\') {
+                    escaped = true;
+                } else if (value == '"') {
+                    inString = false;
+                }
+            } else if (value == '"') {
+                inString = true;
+            } else if (value == '{') {
+                depth++;
+            } else if (value == '}') {
+                return --depth == 0;
+            }
+            return false;
+        }
+
+        private static void copy(ByteBuffer buffer, int from, int to, ByteArrayOutputStream out) {
+            if (buffer.hasArray()) {
+                out.write(buffer.array(), buffer.arrayOffset() + from, to - from);
+            } else {
+                byte[] bytes = new byte[to - from];
+                buffer.duplicate().position(from).get(bytes);
+                out.write(bytes, 0, bytes.length);
+            }
+        }
+
+        /**
+         * @return The page classified by the bytes scanned so far, if the page is not closed the captions JSON is the rest of it
+         */
+        VideoPage finish() {
+            if (captions != Captions.NOT_FOUND) {
+                String json = captionsJson == null ? "" : captionsJson.toString(StandardCharsets.UTF_8);
+                return new VideoPage(Status.CAPTIONS, json, null);
+            }
+            if (found[CONSENT]) {
+                String value = consentValueEnded ? consentValue.toString(StandardCharsets.UTF_8) : null;
+                return new VideoPage(Status.CONSENT, null, value);
+            }
+            if (found[CAPTCHA]) {
+                return new VideoPage(Status.CAPTCHA, null, null);
+            }
+            return new VideoPage(found[PLAYABILITY] ? Status.NO_CAPTIONS : Status.UNAVAILABLE, null, null);
+        }
+
+        private enum Captions {
+            NOT_FOUND,
+            BEFORE_OBJECT,
+            IN_OBJECT,
+            ENDED
+        }
+    }
+}
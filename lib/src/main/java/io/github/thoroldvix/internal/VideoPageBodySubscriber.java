@@ -0,0 +1,58 @@
+package io.github.thoroldvix.internal;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * {@link HttpResponse.BodySubscriber} which scans a video page with a {@link VideoPage.Scanner} as it is received and stops
+ * the download as soon as the rest of the page is not needed.
+ * <p>
+ * The buffers of the {@link java.net.http.HttpClient} are scanned in place, the page itself is never buffered.
+ * The body is completed with the {@link VideoPage#summary() summary} of the page.
+ * </p>
+ */
+final class VideoPageBodySubscriber implements HttpResponse.BodySubscriber<String> {
+
+    private final CompletableFuture<String> body = new CompletableFuture<>();
+    private final VideoPage.Scanner scanner = new VideoPage.Scanner();
+    private Flow.Subscription subscription;
+
+    @Override
+    public CompletionStage<String> getBody() {
+        return body;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        if (body.isDone()) {
+            return;
+        }
+        for (ByteBuffer item : items) {
+            if (scanner.scan(item)) {
+                body.complete(scanner.finish().summary());
+                subscription.cancel();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        body.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        body.complete(scanner.finish().summary());
+    }
+}
@@ -3,95 +3,87 @@ package io.github.thoroldvix.internal;
 import io.github.thoroldvix.api.TranscriptRetrievalException;
 import io.github.thoroldvix.api.YoutubeClient;
 
-import java.io.IOException;
-import java.net.HttpCookie;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Fetches video page HTML from YouTube.
+ * <p>
+ * If YouTube answers with a consent page, as it does for requests from the EU, the consent cookie is extracted from it and
+ * the video page is requested again. The cookie is then sent with all following requests, until YouTube answers with
+ * a consent page again.
+ * </p>
  */
 final class VideoPageFetcher {
     private static final String FAILED_TO_GIVE_COOKIES_CONSENT = "Failed to automatically give consent to saving cookies";
     private static final String YOUTUBE_WATCH_URL = "https://www.youtube.com/watch?v=";
     private final YoutubeClient client;
-    private final FileLinesReader fileLinesReader;
+    private final CookieJar cookieJar;
+    private final AtomicReference<String> consentCookie;
 
-    public VideoPageFetcher(YoutubeClient client, FileLinesReader fileLinesReader) {
+    /**
+     * @param consentCookie Holds the last consent cookie accepted by YouTube, shared by all fetchers of an API instance
+     */
+    public VideoPageFetcher(YoutubeClient client, CookieJar cookieJar, AtomicReference<String> consentCookie) {
         this.client = client;
-        this.fileLinesReader = fileLinesReader;
+        this.cookieJar = cookieJar;
+        this.consentCookie = consentCookie;
     }
 
-    private static HttpCookie createCookie(String[] parts) {
-        String domain = parts[0];
-        boolean secure = Boolean.parseBoolean(parts[1]);
-        String path = parts[2];
-        boolean httpOnly = Boolean.parseBoolean(parts[3]);
-        long expiration = Long.parseLong(parts[4]);
-        String name = parts[5];
-        String value = parts[6];
-
-        HttpCookie cookie = new HttpCookie(name, value);
-        cookie.setDomain(domain);
-        cookie.setPath(path);
-        cookie.setSecure(secure);
-        cookie.setHttpOnly(httpOnly);
-        cookie.setMaxAge(expiration);
-        return cookie;
-    }
-
-    private static boolean containsConsentPage(String videoPageHtml) {
-        String consentPagePattern = "action=\"https://consent.youtube.com/s\"";
-        return videoPageHtml.contains(consentPagePattern);
-    }
-
-    private static String extractConsentCookie(String videoId, String html) throws TranscriptRetrievalException {
-        Pattern consentCookiePattern = Pattern.compile("name=\"v\" value=\"(.*?)\"");
-        Matcher matcher = consentCookiePattern.matcher(html);
-        if (!matcher.find()) {
+    private static String extractConsentCookie(String videoId, VideoPage consentPage) throws TranscriptRetrievalException {
+        String consentValue = consentPage.consentValue();
+        if (consentValue == null) {
             throw new TranscriptRetrievalException(videoId, FAILED_TO_GIVE_COOKIES_CONSENT);
         }
-        return String.format("CONSENT=YES+%s", matcher.group(1));
+        return String.format("CONSENT=YES+%s", consentValue);
     }
 
-    String fetch(String videoId) throws TranscriptRetrievalException {
-        String videoPageHtml = fetchVideoPageHtml(videoId, null);
-        if (containsConsentPage(videoPageHtml)) {
-            return retryWithConsentCookie(videoId, videoPageHtml);
-        }
-        return videoPageHtml;
+    CompletableFuture<VideoPage> fetchAsync(String videoId) {
+        String cachedConsentCookie = consentCookie.get();
+        return fetchVideoPage(videoId, cachedConsentCookie)
+                .thenCompose(videoPage -> {
+                    if (videoPage.status() == VideoPage.Status.CONSENT) {
+                        if (cachedConsentCookie != null) {
+                            // no longer accepted, unless another request already replaced it
+                            consentCookie.compareAndSet(cachedConsentCookie, null);
+                        }
+                        return retryWithConsentCookie(videoId, videoPage);
+                    }
+                    return CompletableFuture.completedFuture(videoPage);
+                });
     }
 
-    String fetch(String videoId, String cookiesPath) throws TranscriptRetrievalException {
-        List<HttpCookie> cookies = loadCookies(videoId, cookiesPath);
-        String cookieHeader = cookies.stream()
-                .map(HttpCookie::toString)
-                .collect(Collectors.joining("; "));
-        return fetchVideoPageHtml(videoId, cookieHeader);
-    }
-
-    private List<HttpCookie> loadCookies(String videoId, String cookiesPath) throws TranscriptRetrievalException {
+    CompletableFuture<VideoPage> fetchAsync(String videoId, String cookiesPath) {
+        String cookieHeader;
         try {
-            List<String> cookieLines = fileLinesReader.readLines(cookiesPath);
-            return cookieLines.stream()
-                    .filter(line -> !line.startsWith("#"))
-                    .map(line -> line.split("\t"))
-                    .filter(parts -> parts.length >= 7)
-                    .map(VideoPageFetcher::createCookie)
-                    .collect(Collectors.toList());
-        } catch (IOException e) {
-            throw new TranscriptRetrievalException(videoId, String.format("Failed to load cookies from a file: %s.", cookiesPath), e);
+            cookieHeader = cookieJar.header(videoId, cookiesPath);
+        } catch (TranscriptRetrievalException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return fetchVideoPage(videoId, cookieHeader);
     }
 
-    private String fetchVideoPageHtml(String videoId, String cookieHeader) throws TranscriptRetrievalException {
+    private CompletableFuture<VideoPage> fetchVideoPage(String videoId, String cookieHeader) {
         Map<String, String> requestHeaders = createRequestHeaders(cookieHeader);
-        return client.get(YOUTUBE_WATCH_URL + videoId, requestHeaders);
+        return requestVideoPage(videoId, requestHeaders);
+    }
+
+    /**
+     * Everything after the captions JSON is discarded by {@link TranscriptListExtractor},
+     * so the download is stopped as soon as it was received. Clients of this library scan the page as it is received,
+     * other clients return the page up to the end of the captions JSON, which is scanned afterwards.
+     */
+    private CompletableFuture<VideoPage> requestVideoPage(String videoId, Map<String, String> requestHeaders) {
+        if (client instanceof CallScopedClient) {
+            return ((CallScopedClient) client).getVideoPageAsync(YOUTUBE_WATCH_URL + videoId, requestHeaders)
+                    .thenApply(VideoPage::scan);
+        }
+        return client.getUntilAsync(YOUTUBE_WATCH_URL + videoId, requestHeaders,
+                        TranscriptListExtractor.CAPTIONS_MARKER, TranscriptListExtractor.VIDEO_DETAILS_MARKER)
+                .thenApply(VideoPage::scan);
     }
 
     private Map<String, String> createRequestHeaders(String cookieHeader) {
@@ -103,13 +95,21 @@ final class VideoPageFetcher {
         return Collections.unmodifiableMap(headers);
     }
 
-    private String retryWithConsentCookie(String videoId, String videoPageHtml) throws TranscriptRetrievalException {
-        String consentCookie = extractConsentCookie(videoId, videoPageHtml);
-        Map<String, String> requestHeaders = createRequestHeaders(consentCookie);
-        videoPageHtml = client.get(YOUTUBE_WATCH_URL + videoId, requestHeaders);
-        if (containsConsentPage(videoPageHtml)) {
-            throw new TranscriptRetrievalException(videoId, FAILED_TO_GIVE_COOKIES_CONSENT);
+    private CompletableFuture<VideoPage> retryWithConsentCookie(String videoId, VideoPage consentPage) {
+        String extractedConsentCookie;
+        try {
+            extractedConsentCookie = extractConsentCookie(videoId, consentPage);
+        } catch (TranscriptRetrievalException e) {
+            return CompletableFuture.failedFuture(e);
         }
-        return videoPageHtml;
+        Map<String, String> requestHeaders = createRequestHeaders(extractedConsentCookie);
+        return requestVideoPage(videoId, requestHeaders)
+                .thenApply(Futures.unchecked(videoPage -> {
+                    if (videoPage.status() == VideoPage.Status.CONSENT) {
+                        throw new TranscriptRetrievalException(videoId, FAILED_TO_GIVE_COOKIES_CONSENT);
+                    }
+                    consentCookie.set(extractedConsentCookie);
+                    return videoPage;
+                }));
     }
 }
@@ -1,29 +1,64 @@
 package io.github.thoroldvix.internal;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.github.thoroldvix.api.TranscriptRetrievalException;
 import io.github.thoroldvix.api.YoutubeClient;
+import io.github.thoroldvix.api.YtApiV3Endpoint;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import static io.github.thoroldvix.api.YtApiV3Endpoint.*;
 
+/**
+ * Retrieves playlist and channel information from the YouTube Data API v3.
+ * <p>
+ * The information extracted from responses is kept together with their entity tags, so that repeated requests are sent
+ * with {@code If-None-Match} and an unchanged resource is not downloaded, parsed or charged to the quota again.
+ * Responses are cached by their endpoint and parameters without the API key, so the key is never held by the cache
+ * and callers with different keys share the entries. At most {@value #MAX_CACHED_RESPONSES} entries are kept, the least
+ * recently used are evicted first. An entry holds no more than a channel ID or a single page of 50 video IDs,
+ * so the cache stays within a few megabytes.
+ * </p>
+ */
 final class YoutubeApi {
 
+    private static final int MAX_CACHED_RESPONSES = 1000;
+
     private final YoutubeClient client;
+    private final Map<String, CachedResponse> cachedResponses;
 
     YoutubeApi(YoutubeClient client) {
+        this(client, Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > MAX_CACHED_RESPONSES;
+            }
+        }));
+    }
+
+    private YoutubeApi(YoutubeClient client, Map<String, CachedResponse> cachedResponses) {
         this.client = client;
+        this.cachedResponses = cachedResponses;
+    }
+
+    /**
+     * @return An instance sending requests with the given client, which shares the cached responses of this instance
+     */
+    YoutubeApi withClient(YoutubeClient client) {
+        return new YoutubeApi(client, cachedResponses);
     }
 
     String getChannelPlaylistId(String channelName, String apiKey) throws TranscriptRetrievalException {
         String channelId = getChannelId(channelName, apiKey);
         Map<String, String> params = createParams("key", apiKey, "part", "contentDetails", "id", channelId);
-        String channelJson = client.get(CHANNELS, params);
 
-        return YoutubeApiResponseParser.getChannelPlaylistId(channelJson);
+        return get(CHANNELS, params, YoutubeApiResponseParser::getChannelPlaylistId);
     }
 
     List<String> getVideoIds(String playlistId, String apiKey) throws TranscriptRetrievalException {
@@ -31,10 +66,10 @@ final class YoutubeApi {
         List<String> videoIds = new ArrayList<>();
 
         while (true) {
-            String playlistJson = client.get(PLAYLIST_ITEMS, params);
+            PlaylistPage playlistPage = get(PLAYLIST_ITEMS, params, PlaylistPage::new);
 
-            videoIds.addAll(YoutubeApiResponseParser.getVideoIds(playlistJson));
-            String nextPageToken = YoutubeApiResponseParser.getNextPageToken(playlistJson);
+            videoIds.addAll(playlistPage.videoIds);
+            String nextPageToken = playlistPage.nextPageToken;
 
             if (nextPageToken == null) {
                 break;
@@ -49,10 +84,40 @@ final class YoutubeApi {
     private String getChannelId(String channelName, String apiKey) throws TranscriptRetrievalException {
         Map<String, String> params = createParams("key", apiKey, "q", channelName, "part", "snippet", "type", "channel");
 
-        String searchJson = client.get(SEARCH, params);
-        return YoutubeApiResponseParser.getChannelId(searchJson, channelName);
+        return get(SEARCH, params, searchJson -> YoutubeApiResponseParser.getChannelId(searchJson, channelName));
+    }
+
+    private <T> T get(YtApiV3Endpoint endpoint, Map<String, String> params, ResponseExtractor<T> extractor) throws TranscriptRetrievalException {
+        String cacheKey = cacheKey(endpoint, params);
+        CachedResponse cached = cachedResponses.get(cacheKey);
+        if (cached == null) {
+            return extractAndCache(cacheKey, client.get(endpoint, params), extractor);
+        }
+        String json = client.get(endpoint, params, cached.etag);
+        if (json == null) {
+            // cached by the same extractor, since the key contains the endpoint
+            @SuppressWarnings("unchecked")
+            T value = (T) cached.value;
+            return value;
+        }
+        return extractAndCache(cacheKey, json, extractor);
+    }
+
+    private <T> T extractAndCache(String cacheKey, String json, ResponseExtractor<T> extractor) throws TranscriptRetrievalException {
+        JsonNode parsedJson = YoutubeApiResponseParser.parseJson(json);
+        T value = extractor.extract(parsedJson);
+        String etag = YoutubeApiResponseParser.getETag(parsedJson);
+        if (etag != null) {
+            cachedResponses.put(cacheKey, new CachedResponse(etag, value));
+        }
+        return value;
     }
 
+    private static String cacheKey(YtApiV3Endpoint endpoint, Map<String, String> params) {
+        Map<String, String> cacheParams = new TreeMap<>(params);
+        cacheParams.remove("key");
+        return endpoint.url(cacheParams);
+    }
 
     private Map<String, String> createParams(String... params) {
         Map<String, String> map = new HashMap<>(params.length / 2);
@@ -61,4 +126,29 @@ final class YoutubeApi {
         }
         return map;
     }
+
+    @FunctionalInterface
+    private interface ResponseExtractor<T> {
+        T extract(JsonNode json) throws TranscriptRetrievalException;
+    }
+
+    private static final class PlaylistPage {
+        private final List<String> videoIds;
+        private final String nextPageToken;
+
+        private PlaylistPage(JsonNode json) {
+            this.videoIds = YoutubeApiResponseParser.getVideoIds(json);
+            this.nextPageToken = YoutubeApiResponseParser.getNextPageToken(json);
+        }
+    }
+
+    private static final class CachedResponse {
+        private final String etag;
+        private final Object value;
+
+        private CachedResponse(String etag, Object value) {
+            this.etag = etag;
+            this.value = value;
+        }
+    }
 }
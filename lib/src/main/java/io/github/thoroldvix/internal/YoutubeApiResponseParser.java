@@ -11,8 +11,7 @@ final class YoutubeApiResponseParser {
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
-    static String getChannelId(String channelJson, String channelName) throws TranscriptRetrievalException {
-        JsonNode jsonNode = parseJson(channelJson);
+    static String getChannelId(JsonNode jsonNode, String channelName) throws TranscriptRetrievalException {
         JsonNode channelId = jsonNode.get("items").
                 get(0)
                 .get("snippet")
@@ -23,8 +22,7 @@ final class YoutubeApiResponseParser {
         return channelId.asText();
     }
 
-    static List<String> getVideoIds(String playlistJson) throws TranscriptRetrievalException {
-        JsonNode jsonNode = parseJson(playlistJson);
+    static List<String> getVideoIds(JsonNode jsonNode) {
         List<String> videoIds = new ArrayList<>();
 
         jsonNode.get("items").forEach(item -> {
@@ -35,8 +33,7 @@ final class YoutubeApiResponseParser {
         return videoIds;
     }
 
-    static String getNextPageToken(String playlistJson) throws TranscriptRetrievalException {
-        JsonNode jsonNode = parseJson(playlistJson);
+    static String getNextPageToken(JsonNode jsonNode) {
         JsonNode nextPageToken = jsonNode.get("nextPageToken");
 
         if (nextPageToken == null) {
@@ -46,8 +43,7 @@ final class YoutubeApiResponseParser {
         return nextPageToken.asText();
     }
 
-    static String getChannelPlaylistId(String channelJson) throws TranscriptRetrievalException {
-        JsonNode jsonNode = parseJson(channelJson);
+    static String getChannelPlaylistId(JsonNode jsonNode) {
         return jsonNode.get("items")
                 .get(0)
                 .get("contentDetails")
@@ -56,7 +52,20 @@ final class YoutubeApiResponseParser {
                 .asText();
     }
 
-    private static JsonNode parseJson(String json) throws TranscriptRetrievalException {
+    /**
+     * @return The entity tag of the response, which can be used for conditional requests, or {@code null} if it has none
+     */
+    static String getETag(JsonNode jsonNode) {
+        JsonNode etag = jsonNode.get("etag");
+
+        if (etag == null) {
+            return null;
+        }
+
+        return etag.asText();
+    }
+
+    static JsonNode parseJson(String json) throws TranscriptRetrievalException {
         try {
             return OBJECT_MAPPER.readTree(json);
         } catch (Exception e) {
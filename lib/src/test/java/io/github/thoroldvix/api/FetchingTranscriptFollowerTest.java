@@ -0,0 +1,69 @@
+package io.github.thoroldvix.api;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FetchingTranscriptFollowerTest {
+
+    private Transcript transcript;
+    private List<List<TranscriptContent.Fragment>> notified;
+
+    @BeforeEach
+    void setUp() {
+        transcript = mock(Transcript.class);
+        when(transcript.follow(any())).thenCallRealMethod();
+        notified = new ArrayList<>();
+    }
+
+    private static TranscriptContent content(TranscriptContent.Fragment... fragments) {
+        TranscriptContent content = mock(TranscriptContent.class);
+        when(content.getContent()).thenReturn(List.of(fragments));
+        return content;
+    }
+
+    private static TranscriptContent.Fragment fragment(double start, String text) {
+        return new TranscriptContent.Fragment() {
+            @Override
+            public String getText() {
+                return text;
+            }
+
+            @Override
+            public double getStart() {
+                return start;
+            }
+
+            @Override
+            public double getDur() {
+                return 2;
+            }
+        };
+    }
+
+    private static List<String> texts(List<TranscriptContent.Fragment> fragments) {
+        return fragments.stream().map(TranscriptContent.Fragment::getText).toList();
+    }
+
+    @Test
+    void defaultFollowerFindsFragmentsStartingAfterLastFragment() throws Exception {
+        TranscriptContent.Fragment first = fragment(0, "first");
+        when(transcript.fetch()).thenReturn(
+                content(first),
+                content(first, fragment(4, "second"), fragment(3, "overlapping")),
+                content(first, fragment(4, "second"), fragment(3, "overlapping")));
+        TranscriptFollower follower = transcript.follow(notified::add);
+
+        assertThat(texts(follower.poll())).containsExactly("first");
+        assertThat(texts(follower.poll())).containsExactly("second", "overlapping");
+        assertThat(follower.poll()).isEmpty();
+        assertThat(notified).hasSize(2);
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.thoroldvix.api;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TranscriptTest {
+
+    @Test
+    void defaultFetchInFormatFallsBackToFetch() throws Exception {
+        Transcript transcript = mock(Transcript.class);
+        TranscriptContent content = mock(TranscriptContent.class);
+        when(transcript.fetch(any(TranscriptFormat.class))).thenCallRealMethod();
+        when(transcript.fetch()).thenReturn(content);
+
+        assertThat(transcript.fetch(TranscriptFormat.JSON3)).isSameAs(content);
+    }
+}
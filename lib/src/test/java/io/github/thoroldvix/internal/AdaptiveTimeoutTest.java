@@ -0,0 +1,55 @@
+package io.github.thoroldvix.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveTimeoutTest {
+
+    private static final Duration FALLBACK = Duration.ofSeconds(30);
+
+    private final AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout();
+
+    private void givenLatencies(DefaultRateLimiter.Budget budget, Duration latency, int count) {
+        for (int i = 0; i < count; i++) {
+            adaptiveTimeout.record(budget, latency.toNanos());
+        }
+    }
+
+    @Test
+    void usesFallbackUntilEnoughLatenciesWereObserved() {
+        givenLatencies(DefaultRateLimiter.Budget.VIDEO_PAGE, Duration.ofSeconds(1), 19);
+
+        assertThat(adaptiveTimeout.timeout(DefaultRateLimiter.Budget.VIDEO_PAGE, FALLBACK)).isEqualTo(FALLBACK);
+    }
+
+    @Test
+    void adaptsTimeoutToObservedLatencies() {
+        givenLatencies(DefaultRateLimiter.Budget.VIDEO_PAGE, Duration.ofSeconds(2), 20);
+
+        assertThat(adaptiveTimeout.timeout(DefaultRateLimiter.Budget.VIDEO_PAGE, FALLBACK)).isEqualTo(Duration.ofSeconds(6));
+    }
+
+    @Test
+    void adaptedTimeoutIsNeverShorterThanOneSecond() {
+        givenLatencies(DefaultRateLimiter.Budget.TIMEDTEXT, Duration.ofMillis(10), 20);
+
+        assertThat(adaptiveTimeout.timeout(DefaultRateLimiter.Budget.TIMEDTEXT, FALLBACK)).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void adaptedTimeoutIsNeverLongerThanFallback() {
+        givenLatencies(DefaultRateLimiter.Budget.VIDEO_PAGE, Duration.ofSeconds(20), 20);
+
+        assertThat(adaptiveTimeout.timeout(DefaultRateLimiter.Budget.VIDEO_PAGE, FALLBACK)).isEqualTo(FALLBACK);
+    }
+
+    @Test
+    void latenciesAreTrackedPerBudget() {
+        givenLatencies(DefaultRateLimiter.Budget.VIDEO_PAGE, Duration.ofSeconds(2), 20);
+
+        assertThat(adaptiveTimeout.timeout(DefaultRateLimiter.Budget.DATA_API, FALLBACK)).isEqualTo(FALLBACK);
+    }
+}
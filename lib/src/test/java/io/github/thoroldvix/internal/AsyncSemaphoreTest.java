@@ -0,0 +1,63 @@
+package io.github.thoroldvix.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncSemaphoreTest {
+
+    @Test
+    void grantsPermitsUpToLimit() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(2);
+
+        assertThat(semaphore.acquire()).isDone();
+        assertThat(semaphore.acquire()).isDone();
+        assertThat(semaphore.acquire()).isNotDone();
+    }
+
+    @Test
+    void releaseHandsPermitToOldestWaiter() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(1);
+        semaphore.acquire();
+        CompletableFuture<Void> first = semaphore.acquire();
+        CompletableFuture<Void> second = semaphore.acquire();
+
+        semaphore.release();
+
+        assertThat(first).isDone();
+        assertThat(second).isNotDone();
+        assertThat(semaphore.availablePermits()).isZero();
+    }
+
+    @Test
+    void releaseSkipsCancelledWaiters() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(1);
+        semaphore.acquire();
+        CompletableFuture<Void> cancelled = semaphore.acquire();
+        CompletableFuture<Void> waiting = semaphore.acquire();
+        cancelled.cancel(false);
+
+        semaphore.release();
+
+        assertThat(waiting).isDone();
+    }
+
+    @Test
+    void releaseWithoutWaitersReturnsPermit() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(1);
+        semaphore.acquire();
+
+        semaphore.release();
+
+        assertThat(semaphore.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void throwsExceptionGivenNonPositivePermits() {
+        assertThatThrownBy(() -> new AsyncSemaphore(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
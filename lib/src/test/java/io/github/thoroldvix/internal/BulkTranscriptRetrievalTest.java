@@ -12,10 +12,16 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static io.github.thoroldvix.api.YtApiV3Endpoint.*;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -92,6 +98,51 @@ class BulkTranscriptRetrievalTest extends TranscriptRetrievalTest {
                 "JHYzFKV2FHMU1WMXAzUldkM1NYRkxlVTl6ZDFsUkxVbFRkWGgzU1NJ");
     }
 
+    @Test
+    void listTranscriptsForPlaylistRequestsVideoPagesConcurrentlyWithBlockingClient() throws Exception {
+        CountDownLatch bothRequested = new CountDownLatch(2);
+        List<Boolean> requestedConcurrently = new CopyOnWriteArrayList<>();
+        when(client.get(eq(PLAYLIST_ITEMS), anyMap())).thenReturn(PLAYLIST_SINGLE_PAGE);
+        when(client.get(anyString(), anyMap())).thenAnswer(invocation -> {
+            bothRequested.countDown();
+            requestedConcurrently.add(bothRequested.await(5, TimeUnit.SECONDS));
+            return YOUTUBE_HTML;
+        });
+
+        Map<String, TranscriptList> actual = youtubeTranscriptApi.listTranscriptsForPlaylist(PLAYLIST_ID, REQUEST);
+
+        assertThat(actual.keySet()).containsExactlyInAnyOrder(VIDEO_ID_1, VIDEO_ID_2);
+        assertThat(requestedConcurrently).containsExactly(true, true);
+    }
+
+    @Test
+    void listTranscriptsForPlaylistRevalidatesPlaylistWithETag() throws Exception {
+        when(client.get(eq(PLAYLIST_ITEMS), anyMap())).thenReturn(PLAYLIST_SINGLE_PAGE);
+        doReturn(null).when(client).get(eq(PLAYLIST_ITEMS), anyMap(), eq("YmC5Lm32yhnylJYtX50x5vJ3Sx8"));
+        when(client.get(anyString(), anyMap())).thenReturn(YOUTUBE_HTML);
+
+        youtubeTranscriptApi.listTranscriptsForPlaylist(PLAYLIST_ID, REQUEST);
+        Map<String, TranscriptList> actual = youtubeTranscriptApi.listTranscriptsForPlaylist(PLAYLIST_ID, REQUEST);
+
+        assertThat(actual.keySet()).containsExactlyInAnyOrder(VIDEO_ID_1, VIDEO_ID_2);
+        verify(client, times(1)).get(eq(PLAYLIST_ITEMS), anyMap());
+        verify(client, times(1)).get(eq(PLAYLIST_ITEMS), anyMap(), eq("YmC5Lm32yhnylJYtX50x5vJ3Sx8"));
+    }
+
+    @Test
+    void listTranscriptsForPlaylistRevalidatesPlaylistCachedWithAnotherApiKey() throws Exception {
+        when(client.get(eq(PLAYLIST_ITEMS), anyMap())).thenReturn(PLAYLIST_SINGLE_PAGE);
+        doReturn(null).when(client).get(eq(PLAYLIST_ITEMS), anyMap(), eq("YmC5Lm32yhnylJYtX50x5vJ3Sx8"));
+        when(client.get(anyString(), anyMap())).thenReturn(YOUTUBE_HTML);
+
+        youtubeTranscriptApi.listTranscriptsForPlaylist(PLAYLIST_ID, REQUEST);
+        Map<String, TranscriptList> actual = youtubeTranscriptApi.listTranscriptsForPlaylist(PLAYLIST_ID, new TranscriptRequest("otherApiKey", true));
+
+        assertThat(actual.keySet()).containsExactlyInAnyOrder(VIDEO_ID_1, VIDEO_ID_2);
+        verify(client, times(1)).get(eq(PLAYLIST_ITEMS), anyMap());
+        verify(client, times(1)).get(eq(PLAYLIST_ITEMS), argThat(params -> "otherApiKey".equals(params.get("key"))), eq("YmC5Lm32yhnylJYtX50x5vJ3Sx8"));
+    }
+
     @Test
     void listTranscriptsForPlaylistThrowsExceptionIfCannotParsePlaylistJson() throws TranscriptRetrievalException {
         when(client.get(eq(PLAYLIST_ITEMS), anyMap())).thenReturn("error");
@@ -153,10 +204,8 @@ class BulkTranscriptRetrievalTest extends TranscriptRetrievalTest {
         );
 
         when(client.get(eq(PLAYLIST_ITEMS), anyMap())).thenReturn(PLAYLIST_SINGLE_PAGE);
-        when(client.get(anyString(), anyMap()))
-                .thenReturn(YOUTUBE_HTML)
-                .thenReturn(YOUTUBE_HTML)
-                .thenReturn(transcriptContentXml);
+        when(client.get(startsWith(YOUTUBE_WATCH_URL), anyMap())).thenReturn(YOUTUBE_HTML);
+        when(client.get(contains("timedtext"), anyMap())).thenReturn(transcriptContentXml);
 
         Map<String, TranscriptContent> actual = youtubeTranscriptApi.getTranscriptsForPlaylist(PLAYLIST_ID, REQUEST);
 
@@ -196,10 +245,8 @@ class BulkTranscriptRetrievalTest extends TranscriptRetrievalTest {
         when(client.get(eq(CHANNELS), anyMap())).thenReturn(CHANNEL_RESPONSE);
         when(client.get(eq(PLAYLIST_ITEMS), anyMap())).thenReturn(PLAYLIST_SINGLE_PAGE);
 
-        when(client.get(anyString(), anyMap()))
-                .thenReturn(YOUTUBE_HTML)
-                .thenReturn(YOUTUBE_HTML)
-                .thenReturn(transcriptContentXml);
+        when(client.get(startsWith(YOUTUBE_WATCH_URL), anyMap())).thenReturn(YOUTUBE_HTML);
+        when(client.get(contains("timedtext"), anyMap())).thenReturn(transcriptContentXml);
 
 
         Map<String, TranscriptContent> actual = youtubeTranscriptApi.getTranscriptsForChannel("3Blue1Brown", REQUEST);
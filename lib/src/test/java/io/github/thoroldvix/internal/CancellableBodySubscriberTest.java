@@ -0,0 +1,71 @@
+package io.github.thoroldvix.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CancellableBodySubscriberTest {
+
+    private final AtomicBoolean subscriptionCancelled = new AtomicBoolean();
+    private final CompletableFuture<Void> cancelled = new CompletableFuture<>();
+    private final CancellableBodySubscriber<String> subscriber =
+            new CancellableBodySubscriber<>(HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8), cancelled);
+
+    private void subscribe() {
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+                subscriptionCancelled.set(true);
+            }
+        });
+    }
+
+    @Test
+    void keepsBodyReceivedBeforeRequestIsNoLongerNeeded() {
+        subscribe();
+        subscriber.onNext(List.of(ByteBuffer.wrap("body".getBytes(StandardCharsets.UTF_8))));
+        subscriber.onComplete();
+
+        cancelled.complete(null);
+
+        assertThat(subscriber.getBody().toCompletableFuture().join()).isEqualTo("body");
+        assertThat(subscriptionCancelled).isFalse();
+    }
+
+    @Test
+    void cancelsSubscriptionWhenRequestIsNoLongerNeeded() {
+        subscribe();
+        subscriber.onNext(List.of(ByteBuffer.wrap("bo".getBytes(StandardCharsets.UTF_8))));
+
+        cancelled.complete(null);
+
+        assertThat(subscriptionCancelled).isTrue();
+        assertThatThrownBy(() -> subscriber.getBody().toCompletableFuture().join())
+                .isInstanceOf(CancellationException.class);
+    }
+
+    @Test
+    void cancelsSubscriptionAsSoonAsReceivedWhenRequestIsNoLongerNeededBeforeResponse() {
+        cancelled.complete(null);
+
+        subscribe();
+
+        assertThat(subscriptionCancelled).isTrue();
+        assertThatThrownBy(() -> subscriber.getBody().toCompletableFuture().join())
+                .isInstanceOf(CancellationException.class);
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.TranscriptRetrievalException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CookieJarTest {
+
+    private static final String VIDEO_ID = "dQw4w9WgXcQ";
+    private static final String COOKIES_PATH = "cookies.txt";
+    private static final long NOW = 1_700_000_000_000L;
+    private final AtomicLong clock = new AtomicLong(NOW);
+    @Mock
+    private FileLinesReader fileLinesReader;
+
+    private CookieJar cookieJar;
+
+    private static String cookieLine(String name, String value, long expiresAtSeconds) {
+        return String.join("\t", ".youtube.com", "TRUE", "/", "TRUE", String.valueOf(expiresAtSeconds), name, value);
+    }
+
+    @BeforeEach
+    void setUp() {
+        cookieJar = new CookieJar(fileLinesReader, clock::get);
+    }
+
+    @Test
+    void buildsHeaderFromCookiesFile() throws Exception {
+        when(fileLinesReader.readLines(COOKIES_PATH)).thenReturn(List.of(
+                "# Netscape HTTP Cookie File",
+                cookieLine("FIRST", "1", 0),
+                cookieLine("SECOND", "2", 0)));
+
+        assertThat(cookieJar.header(VIDEO_ID, COOKIES_PATH))
+                .isEqualTo("FIRST=\"1\";$Path=\"/\";$Domain=\".youtube.com\"; SECOND=\"2\";$Path=\"/\";$Domain=\".youtube.com\"");
+    }
+
+    @Test
+    void readsFileOnlyOnceWhileUnchanged() throws Exception {
+        when(fileLinesReader.readLines(COOKIES_PATH)).thenReturn(List.of(cookieLine("FIRST", "1", 0)));
+
+        for (int i = 0; i < 10; i++) {
+            cookieJar.header(VIDEO_ID, COOKIES_PATH);
+            clock.addAndGet(Duration.ofSeconds(1).toMillis());
+        }
+
+        verify(fileLinesReader, times(1)).readLines(COOKIES_PATH);
+    }
+
+    @Test
+    void readsFileAgainAfterItChanged() throws Exception {
+        when(fileLinesReader.readLines(COOKIES_PATH))
+                .thenReturn(List.of(cookieLine("FIRST", "1", 0)))
+                .thenReturn(List.of(cookieLine("FIRST", "2", 0)));
+        when(fileLinesReader.lastModified(COOKIES_PATH))
+                .thenReturn(1L)
+                .thenReturn(2L);
+        cookieJar.header(VIDEO_ID, COOKIES_PATH);
+
+        clock.addAndGet(Duration.ofSeconds(1).toMillis());
+
+        assertThat(cookieJar.header(VIDEO_ID, COOKIES_PATH)).startsWith("FIRST=\"2\"");
+    }
+
+    @Test
+    void leavesOutExpiredCookies() throws Exception {
+        long expiresAtSeconds = Duration.ofMillis(NOW).plusMinutes(1).toSeconds();
+        when(fileLinesReader.readLines(COOKIES_PATH)).thenReturn(List.of(
+                cookieLine("SESSION", "1", 0),
+                cookieLine("EXPIRING", "2", expiresAtSeconds)));
+        assertThat(cookieJar.header(VIDEO_ID, COOKIES_PATH)).contains("EXPIRING");
+
+        clock.addAndGet(Duration.ofMinutes(1).toMillis());
+
+        assertThat(cookieJar.header(VIDEO_ID, COOKIES_PATH))
+                .contains("SESSION")
+                .doesNotContain("EXPIRING");
+        verify(fileLinesReader, times(1)).readLines(COOKIES_PATH);
+    }
+
+    @Test
+    void failsWhenFileCannotBeRead() throws Exception {
+        when(fileLinesReader.readLines(COOKIES_PATH)).thenThrow(new IOException("No such file"));
+
+        assertThatThrownBy(() -> cookieJar.header(VIDEO_ID, COOKIES_PATH))
+                .isInstanceOf(TranscriptRetrievalException.class)
+                .hasCauseInstanceOf(IOException.class);
+    }
+}
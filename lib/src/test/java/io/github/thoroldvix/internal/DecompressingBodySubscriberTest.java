@@ -0,0 +1,141 @@
+package io.github.thoroldvix.internal;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DecompressingBodySubscriberTest {
+
+    private static final URI VIDEO_URI = URI.create("https://www.youtube.com/watch?v=dQw4w9WgXcQ");
+    private static String html;
+    private static byte[] htmlBytes;
+    private final AtomicLong compressedBytes = new AtomicLong();
+    private final AtomicLong uncompressedBytes = new AtomicLong();
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        html = Files.readString(Path.of("src/test/resources/pages/youtube.html.static"));
+        htmlBytes = html.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] compress(OutputStreamFactory factory) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream outputStream = factory.create(bytes)) {
+            outputStream.write(htmlBytes);
+        }
+        return bytes.toByteArray();
+    }
+
+    private CompletableFuture<String> receive(String encoding, byte[] body, int chunkSize) {
+        HttpResponse.BodySubscriber<String> downstream = HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+        DecompressingBodySubscriber<String> subscriber = new DecompressingBodySubscriber<>(downstream, encoding, VIDEO_URI,
+                (uri, contentEncoding, compressed, uncompressed) -> {
+                    compressedBytes.set(compressed);
+                    uncompressedBytes.set(uncompressed);
+                });
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        for (int i = 0; i < body.length; i += chunkSize) {
+            subscriber.onNext(List.of(ByteBuffer.wrap(body, i, Math.min(chunkSize, body.length - i)).slice()));
+        }
+        subscriber.onComplete();
+        return downstream.getBody().toCompletableFuture();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 4096, Integer.MAX_VALUE})
+    void decompressesGzipInChunks(int chunkSize) throws Exception {
+        byte[] gzip = compress(GZIPOutputStream::new);
+
+        String actual = receive("gzip", gzip, chunkSize).get();
+
+        assertThat(actual).isEqualTo(html);
+        assertThat(compressedBytes).hasValue(gzip.length);
+        assertThat(uncompressedBytes).hasValue(htmlBytes.length);
+    }
+
+    @Test
+    void decompressesZlibWrappedDeflate() throws Exception {
+        byte[] deflate = compress(DeflaterOutputStream::new);
+
+        assertThat(receive("deflate", deflate, 1024).get()).isEqualTo(html);
+    }
+
+    @Test
+    void decompressesRawDeflate() throws Exception {
+        byte[] deflate = compress(outputStream -> new DeflaterOutputStream(outputStream, new Deflater(Deflater.DEFAULT_COMPRESSION, true)));
+
+        assertThat(receive("deflate", deflate, 1024).get()).isEqualTo(html);
+    }
+
+    @Test
+    void passesThroughUncompressedBody() throws Exception {
+        assertThat(receive("identity", htmlBytes, 1024).get()).isEqualTo(html);
+        assertThat(compressedBytes).hasValue(htmlBytes.length);
+        assertThat(uncompressedBytes).hasValue(htmlBytes.length);
+    }
+
+    @Test
+    void failsGivenTruncatedGzipBody() throws Exception {
+        byte[] gzip = compress(GZIPOutputStream::new);
+
+        assertThat(receive("gzip", Arrays.copyOf(gzip, gzip.length / 2), 1024))
+                .failsWithin(Duration.ofSeconds(1))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    void failsGivenCorruptGzipTrailer() throws Exception {
+        byte[] gzip = compress(GZIPOutputStream::new);
+        gzip[gzip.length - 5] ^= 1;
+
+        assertThat(receive("gzip", gzip, 1024))
+                .failsWithin(Duration.ofSeconds(1))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    void failsGivenUnsupportedEncoding() {
+        assertThat(receive("br", htmlBytes, 1024))
+                .failsWithin(Duration.ofSeconds(1))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(IOException.class);
+    }
+
+    @FunctionalInterface
+    private interface OutputStreamFactory {
+        OutputStream create(OutputStream outputStream) throws IOException;
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.CircuitBreaker.State;
+import io.github.thoroldvix.internal.DefaultCircuitBreaker.Outcome;
+import io.github.thoroldvix.internal.DefaultCircuitBreaker.Permission;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DefaultCircuitBreakerTest {
+
+    private static final Duration COOL_DOWN = Duration.ofSeconds(10);
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> transitions = new ArrayList<>();
+    private DefaultCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new DefaultCircuitBreaker(2, COOL_DOWN, (previous, current) -> transitions.add(previous + "->" + current), clock::get);
+    }
+
+    private void block(int times) {
+        for (int i = 0; i < times; i++) {
+            circuitBreaker.record(circuitBreaker.acquire(), Outcome.BLOCKED);
+        }
+    }
+
+    @Test
+    void opensAfterConsecutiveBlockedRequests() {
+        block(1);
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+
+        block(1);
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.OPEN);
+        assertThat(circuitBreaker.acquire()).isEqualTo(Permission.REJECTED);
+        assertThat(transitions).containsExactly("CLOSED->OPEN");
+    }
+
+    @Test
+    void successResetsConsecutiveBlockedRequests() {
+        block(1);
+        circuitBreaker.record(Permission.ALLOWED, Outcome.SUCCESS);
+        block(1);
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void failuresWithoutResponseAreNotCounted() {
+        circuitBreaker.record(Permission.ALLOWED, Outcome.FAILED);
+        circuitBreaker.record(Permission.ALLOWED, Outcome.FAILED);
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void letsSingleProbeThroughAfterCoolDown() {
+        block(2);
+        clock.addAndGet(COOL_DOWN.toNanos());
+
+        assertThat(circuitBreaker.acquire()).isEqualTo(Permission.PROBE);
+        assertThat(circuitBreaker.acquire()).isEqualTo(Permission.REJECTED);
+        assertThat(circuitBreaker.state()).isEqualTo(State.HALF_OPEN);
+    }
+
+    @Test
+    void closesWhenProbeSucceeds() {
+        block(2);
+        clock.addAndGet(COOL_DOWN.toNanos());
+
+        circuitBreaker.record(circuitBreaker.acquire(), Outcome.SUCCESS);
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+        assertThat(circuitBreaker.acquire()).isEqualTo(Permission.ALLOWED);
+        assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED");
+    }
+
+    @Test
+    void reopensWhenProbeIsBlocked() {
+        block(2);
+        clock.addAndGet(COOL_DOWN.toNanos());
+
+        circuitBreaker.record(circuitBreaker.acquire(), Outcome.BLOCKED);
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.OPEN);
+        assertThat(circuitBreaker.acquire()).isEqualTo(Permission.REJECTED);
+        assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN");
+    }
+
+    @Test
+    void lateSuccessDoesNotCloseHalfOpenCircuit() {
+        block(2);
+        clock.addAndGet(COOL_DOWN.toNanos());
+        circuitBreaker.acquire();
+
+        circuitBreaker.record(Permission.ALLOWED, Outcome.SUCCESS);
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.HALF_OPEN);
+    }
+
+    @Test
+    void copyHasSameSettingsAndOwnState() {
+        block(2);
+
+        DefaultCircuitBreaker copy = circuitBreaker.copy();
+
+        assertThat(copy.state()).isEqualTo(State.CLOSED);
+        copy.record(copy.acquire(), Outcome.BLOCKED);
+        assertThat(copy.state()).isEqualTo(State.CLOSED);
+        copy.record(copy.acquire(), Outcome.BLOCKED);
+        assertThat(copy.state()).isEqualTo(State.OPEN);
+        assertThat(circuitBreaker.state()).isEqualTo(State.OPEN);
+        assertThat(transitions).containsExactly("CLOSED->OPEN", "CLOSED->OPEN");
+    }
+}
@@ -5,6 +5,7 @@ import io.github.thoroldvix.internal.DefaultTranscriptContent.Fragment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -30,4 +31,140 @@ public class DefaultTranscriptContentTest {
 
         assertThat(transcriptContent.toString()).isEqualToNormalizingNewlines(expected);
     }
+
+    @Test
+    void providesFragmentsThroughPrimitiveAccessors() {
+        assertThat(transcriptContent.size()).isEqualTo(3);
+        assertThat(transcriptContent.getStartMillis(1)).isEqualTo(1540);
+        assertThat(transcriptContent.getDurationMillis(2)).isEqualTo(3239);
+        assertThat(transcriptContent.getText(2)).isEqualTo("test & test, like this \"test\" he's testing");
+    }
+
+    @Test
+    void keepsTextOutsideOfAscii() {
+        String text = "Grüße, 世界 \uD83D\uDE00";
+
+        TranscriptContent content = new DefaultTranscriptContent(List.of(new Fragment(text, 1, 2)));
+
+        assertThat(content.getText(0)).isEqualTo(text);
+        assertThat(content.getContent()).containsExactly(new Fragment(text, 1, 2));
+    }
+
+    @Test
+    void appendsFragmentsOfOtherBuilder() {
+        DefaultTranscriptContent.Builder first = DefaultTranscriptContent.builder().add("first", 0, 1000).addWord("first", 0);
+        DefaultTranscriptContent.Builder second = DefaultTranscriptContent.builder().add("zweite Grüße", 1000, 1000)
+                .addWord("zweite", 1000).addWord("Grüße", 1500)
+                .add("third", 2000, 500);
+
+        TranscriptContent content = first.addAll(second).build();
+
+        assertThat(content.getContent()).extracting(TranscriptContent.Fragment::getText).containsExactly("first", "zweite Grüße", "third");
+        assertThat(content.getStartMillis(2)).isEqualTo(2000);
+        assertThat(content.getContent().get(1).getWords()).containsExactly(new DefaultTranscriptContent.Word("zweite", 1.0),
+                new DefaultTranscriptContent.Word("Grüße", 1.5));
+        assertThat(content.getContent().get(2).getWords()).isEmpty();
+    }
+
+    @Test
+    void keepsWordsOfFragments() {
+        List<TranscriptContent.Word> words = List.of(new DefaultTranscriptContent.Word("Hey", 0.0), new DefaultTranscriptContent.Word("there", 0.5));
+
+        TranscriptContent content = new DefaultTranscriptContent(List.of(new Fragment("Hey there", 0, 1, words), new Fragment("no words", 1, 1)));
+
+        assertThat(content.getContent().get(0).getWords()).isEqualTo(words);
+        assertThat(content.getContent().get(1).getWords()).isEmpty();
+    }
+
+    @Test
+    void equalsContentWithSameFragments() {
+        TranscriptContent same = new DefaultTranscriptContent(List.of(new DefaultTranscriptContent.Fragment("Hey, this is just a test", 0.0, 1.54),
+                new DefaultTranscriptContent.Fragment("this is not the original transcript", 1.54, 4.16),
+                new DefaultTranscriptContent.Fragment("test & test, like this \"test\" he's testing", 5.7, 3.239)));
+
+        assertThat(transcriptContent).isEqualTo(same).hasSameHashCodeAs(same);
+    }
+
+    @Test
+    void findsFragmentAtTime() {
+        assertThat(transcriptContent.indexOf(0.0)).isEqualTo(0);
+        assertThat(transcriptContent.indexOf(1.54)).isEqualTo(1);
+        assertThat(transcriptContent.fragmentAt(6.0)).contains(new Fragment("test & test, like this \"test\" he's testing", 5.7, 3.239));
+    }
+
+    @Test
+    void findsNoFragmentOutsideOfFragments() {
+        assertThat(transcriptContent.indexOf(-1)).isEqualTo(-1);
+        assertThat(transcriptContent.indexOf(8.939)).isEqualTo(-1);
+        assertThat(transcriptContent.indexOf(Double.NaN)).isEqualTo(-1);
+        assertThat(transcriptContent.fragmentAt(100)).isEmpty();
+    }
+
+    @Test
+    void findsLatestStartedOfOverlappingFragments() {
+        TranscriptContent content = new DefaultTranscriptContent(List.of(new Fragment("long", 0, 10),
+                new Fragment("first", 1, 2),
+                new Fragment("second", 2, 2)));
+
+        assertThat(content.indexOf(0.5)).isEqualTo(0);
+        assertThat(content.indexOf(2.5)).isEqualTo(2);
+        assertThat(content.indexOf(3.5)).isEqualTo(2);
+        assertThat(content.indexOf(4)).isEqualTo(0);
+    }
+
+    @Test
+    void findsFragmentsBetweenTimes() {
+        assertThat(transcriptContent.fragmentsBetween(1.0, 5.7)).extracting(TranscriptContent.Fragment::getText)
+                .containsExactly("Hey, this is just a test", "this is not the original transcript");
+        assertThat(transcriptContent.fragmentsBetween(1.54, 5.71)).extracting(TranscriptContent.Fragment::getText)
+                .containsExactly("this is not the original transcript", "test & test, like this \"test\" he's testing");
+        assertThat(transcriptContent.fragmentsBetween(9, 20)).isEmpty();
+    }
+
+    @Test
+    void findsNoFragmentsInEmptyRange() {
+        assertThat(transcriptContent.fragmentsBetween(2, 2)).isEmpty();
+        assertThat(transcriptContent.fragmentsBetween(3, 2)).isEmpty();
+    }
+
+    @Test
+    void findsOverlappingFragmentsBetweenTimes() {
+        TranscriptContent content = new DefaultTranscriptContent(List.of(new Fragment("long", 0, 10),
+                new Fragment("short", 1, 1),
+                new Fragment("later", 5, 1)));
+
+        assertThat(content.fragmentsBetween(3, 4)).extracting(TranscriptContent.Fragment::getText).containsExactly("long");
+        assertThat(content.fragmentsBetween(1.5, 5.5)).extracting(TranscriptContent.Fragment::getText)
+                .containsExactly("long", "short", "later");
+    }
+
+    @Test
+    void findsFragmentsOutOfOrder() {
+        TranscriptContent content = new DefaultTranscriptContent(List.of(new Fragment("third", 4, 1),
+                new Fragment("first", 0, 1),
+                new Fragment("second", 2, 1)));
+
+        assertThat(content.indexOf(0.5)).isEqualTo(1);
+        assertThat(content.indexOf(4.5)).isEqualTo(0);
+        assertThat(content.fragmentsBetween(0, 5)).extracting(TranscriptContent.Fragment::getText)
+                .containsExactly("first", "second", "third");
+    }
+
+    @Test
+    void findsFragmentsAfterLongFragmentAtStart() {
+        List<Fragment> fragments = new ArrayList<>();
+        fragments.add(new Fragment("long", 0, 10_000));
+        for (int i = 1; i < 1000; i++) {
+            fragments.add(new Fragment("short " + i, i * 10, 1));
+        }
+        TranscriptContent content = new DefaultTranscriptContent(fragments);
+
+        assertThat(content.indexOf(5000.5)).isEqualTo(500);
+        assertThat(content.indexOf(5005)).isEqualTo(0);
+        assertThat(content.indexOf(10_000)).isEqualTo(-1);
+        assertThat(content.fragmentsBetween(5002, 5008)).extracting(TranscriptContent.Fragment::getText)
+                .containsExactly("long");
+        assertThat(content.fragmentsBetween(5005, 5015)).extracting(TranscriptContent.Fragment::getText)
+                .containsExactly("long", "short 501");
+    }
 }
@@ -0,0 +1,154 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.TranscriptContent;
+import io.github.thoroldvix.api.TranscriptFollower;
+import io.github.thoroldvix.api.TranscriptRetrievalException;
+import io.github.thoroldvix.api.YoutubeClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DefaultTranscriptFollowerTest {
+
+    private static final String API_URL = "https://www.youtube.com/api/timedtext?v=dQw4w9WgXcQ";
+    private static final Map<String, String> HEADERS = Map.of("Accept-Language", "en-US");
+
+    private YoutubeClient youtubeClient;
+    private List<List<TranscriptContent.Fragment>> notified;
+    private TranscriptFollower follower;
+
+    @BeforeEach
+    void setUp() {
+        youtubeClient = mock(YoutubeClient.class);
+        notified = new ArrayList<>();
+        follower = new DefaultTranscriptFollower(BlockingClientAdapter.adapt(youtubeClient), "dQw4w9WgXcQ", API_URL, notified::add);
+    }
+
+    private static String transcript(String... texts) {
+        return "<?xml version=\"1.0\" encoding=\"utf-8\" ?><transcript>" + String.join("", texts) + "</transcript>";
+    }
+
+    private static String text(double start, String text) {
+        return "<text start=\"" + start + "\" dur=\"2.0\">" + text + "</text>";
+    }
+
+    private static List<String> texts(List<TranscriptContent.Fragment> fragments) {
+        return fragments.stream().map(TranscriptContent.Fragment::getText).toList();
+    }
+
+    @Test
+    void firstPollFindsAllFragments() throws Exception {
+        when(youtubeClient.get(API_URL, HEADERS)).thenReturn(transcript(text(0, "first"), text(2, "second")));
+
+        List<TranscriptContent.Fragment> fragments = follower.poll();
+
+        assertThat(texts(fragments)).containsExactly("first", "second");
+        assertThat(notified).containsExactly(fragments);
+    }
+
+    @Test
+    void findsOnlyAppendedFragments() throws Exception {
+        when(youtubeClient.get(API_URL, HEADERS)).thenReturn(
+                transcript(text(0, "first")),
+                transcript(text(0, "first"), text(2, "second"), text(4, "third")),
+                transcript(text(0, "first"), text(2, "second"), text(4, "third"), text(6, "fourth")));
+
+        follower.poll();
+        List<TranscriptContent.Fragment> second = follower.poll();
+        List<TranscriptContent.Fragment> third = follower.poll();
+
+        assertThat(texts(second)).containsExactly("second", "third");
+        assertThat(texts(third)).containsExactly("fourth");
+        assertThat(notified).hasSize(3);
+    }
+
+    @Test
+    void findsAppendedFragmentsOverlappingLastFragment() throws Exception {
+        when(youtubeClient.get(API_URL, HEADERS)).thenReturn(
+                transcript(text(0, "first"), text(4, "second")),
+                transcript(text(0, "first"), text(4, "second"), text(3, "overlapping")));
+
+        follower.poll();
+
+        assertThat(texts(follower.poll())).containsExactly("overlapping");
+    }
+
+    @Test
+    void doesNotNotifyListenerWhenTranscriptHasNotGrown() throws Exception {
+        when(youtubeClient.get(API_URL, HEADERS)).thenReturn(transcript(text(0, "first")));
+
+        follower.poll();
+        List<TranscriptContent.Fragment> fragments = follower.poll();
+
+        assertThat(fragments).isEmpty();
+        assertThat(notified).hasSize(1);
+    }
+
+    @Test
+    void findsFragmentsAfterLastFragmentWhenTranscriptChanged() throws Exception {
+        when(youtubeClient.get(API_URL, HEADERS)).thenReturn(
+                transcript(text(0, "first"), text(2, "secnod")),
+                transcript(text(0, "first"), text(2, "second"), text(4, "third")));
+
+        follower.poll();
+
+        assertThat(texts(follower.poll())).containsExactly("third");
+    }
+
+    @Test
+    void keepsFollowingAfterFailedPoll() throws Exception {
+        when(youtubeClient.get(API_URL, HEADERS))
+                .thenReturn(transcript(text(0, "first")))
+                .thenThrow(new TranscriptRetrievalException("dQw4w9WgXcQ", "Error"))
+                .thenReturn(transcript(text(0, "first"), text(2, "second")));
+
+        follower.poll();
+
+        assertThatThrownBy(follower::poll).isInstanceOf(TranscriptRetrievalException.class);
+        assertThat(texts(follower.poll())).containsExactly("second");
+    }
+
+    @Test
+    void parsesWholeTranscriptWhenLastElementChanged() throws Exception {
+        when(youtubeClient.get(API_URL, HEADERS)).thenReturn(
+                transcript(text(0, "first"), text(2, "Aa")),
+                transcript(text(0, "first"), text(5, "BB"), text(6, "third")));
+
+        follower.poll();
+
+        assertThat(texts(follower.poll())).containsExactly("BB", "third");
+    }
+
+    @Test
+    void ignoresLateResponseOfEarlierPoll() throws Exception {
+        when(youtubeClient.get(API_URL, HEADERS)).thenReturn(
+                transcript(text(0, "first"), text(2, "second")),
+                transcript(text(0, "first")),
+                transcript(text(0, "first"), text(2, "second"), text(4, "third")));
+
+        follower.poll();
+
+        assertThat(follower.poll()).isEmpty();
+        assertThat(texts(follower.poll())).containsExactly("third");
+    }
+
+    @Test
+    void notifiesListenerWithoutHoldingFollower() throws Exception {
+        List<Boolean> holdsFollower = new ArrayList<>();
+        follower = new DefaultTranscriptFollower(BlockingClientAdapter.adapt(youtubeClient), "dQw4w9WgXcQ", API_URL,
+                fragments -> holdsFollower.add(Thread.holdsLock(follower)));
+        when(youtubeClient.get(API_URL, HEADERS)).thenReturn(transcript(text(0, "first")));
+
+        follower.poll();
+
+        assertThat(holdsFollower).containsExactly(false);
+    }
+}
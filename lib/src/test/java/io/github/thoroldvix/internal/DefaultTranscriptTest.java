@@ -2,6 +2,8 @@ package io.github.thoroldvix.internal;
 
 import io.github.thoroldvix.api.Transcript;
 import io.github.thoroldvix.api.TranscriptContent;
+import io.github.thoroldvix.api.TranscriptFollower;
+import io.github.thoroldvix.api.TranscriptFormat;
 import io.github.thoroldvix.api.TranscriptRetrievalException;
 import io.github.thoroldvix.api.YoutubeClient;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,12 +11,16 @@ import org.junit.jupiter.api.Test;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -27,7 +33,7 @@ class DefaultTranscriptTest {
     void setUp() {
         youtubeClient = mock(YoutubeClient.class);
         transcript = new DefaultTranscript(
-                youtubeClient,
+                BlockingClientAdapter.adapt(youtubeClient),
                 "dQw4w9WgXcQ",
                 "https://www.youtube.com/api/timedtext?v=dQw4w9WgXcQ",
                 "English",
@@ -51,6 +57,80 @@ class DefaultTranscriptTest {
         assertThat(actual.getContent()).isEqualTo(expected);
     }
 
+    @Test
+    void fetchesTranscriptContentAsync() throws Exception {
+        String transcriptXml = Files.readString(Path.of("src/test/resources/transcript.xml"));
+        when(youtubeClient.get(transcript.getApiUrl(), Map.of("Accept-Language", "en-US"))).thenReturn(transcriptXml);
+
+        TranscriptContent actual = transcript.fetchAsync().get();
+
+        assertThat(actual.getContent()).hasSize(3);
+    }
+
+    @Test
+    void defaultFetchAsyncDelegatesToFetch() throws Exception {
+        TranscriptContent content = new DefaultTranscriptContent(List.of());
+        Transcript external = mock(Transcript.class, CALLS_REAL_METHODS);
+        doReturn(content).when(external).fetch();
+
+        assertThat(external.fetchAsync().get()).isSameAs(content);
+    }
+
+    @Test
+    void replacesFormatOfApiUrlWhenFetchingInJson3Format() {
+        assertThat(DefaultTranscript.withQueryParameter("https://www.youtube.com/api/timedtext?v=dQw4w9WgXcQ&fmt=srv3&lang=en", "fmt", "json3"))
+                .isEqualTo("https://www.youtube.com/api/timedtext?v=dQw4w9WgXcQ&lang=en&fmt=json3");
+        assertThat(DefaultTranscript.withQueryParameter("https://www.youtube.com/api/timedtext", "fmt", "json3"))
+                .isEqualTo("https://www.youtube.com/api/timedtext?fmt=json3");
+    }
+
+    @Test
+    void fetchesTranscriptContentInJson3Format() throws Exception {
+        String transcriptJson = Files.readString(Path.of("src/test/resources/transcript.json3"));
+        when(youtubeClient.get(transcript.getApiUrl() + "&fmt=json3", Map.of("Accept-Language", "en-US"))).thenReturn(transcriptJson);
+
+        TranscriptContent actual = transcript.fetch(TranscriptFormat.JSON3);
+
+        assertThat(actual.getContent()).extracting(TranscriptContent.Fragment::getText)
+                .containsExactly("Hey, this is just a test", "this is not the original transcript");
+        assertThat(actual.getContent().get(0).getWords()).hasSize(6);
+    }
+
+    @Test
+    void fetchesTranscriptContentLazily() throws Exception {
+        String transcriptXml = Files.readString(Path.of("src/test/resources/transcript.xml"));
+        when(youtubeClient.get(transcript.getApiUrl(), Map.of("Accept-Language", "en-US"))).thenReturn(transcriptXml);
+
+        TranscriptContent actual = transcript.fetchLazy();
+
+        assertThat(actual.getRawContent()).isPresent();
+        assertThat(actual.size()).isEqualTo(3);
+        assertThat(actual.getContent()).isEqualTo(transcript.fetch().getContent());
+    }
+
+    @Test
+    void followsTranscript() throws Exception {
+        String transcriptXml = Files.readString(Path.of("src/test/resources/transcript.xml"));
+        when(youtubeClient.get(transcript.getApiUrl(), Map.of("Accept-Language", "en-US"))).thenReturn(transcriptXml);
+
+        TranscriptFollower follower = transcript.follow(fragments -> {
+        });
+
+        assertThat(follower.poll()).isEqualTo(transcript.fetch().getContent());
+        assertThat(follower.poll()).isEmpty();
+    }
+
+    @Test
+    void fetchAsyncCompletesExceptionallyWhenRequestFails() throws Exception {
+        when(youtubeClient.get(transcript.getApiUrl(), Map.of("Accept-Language", "en-US")))
+                .thenThrow(new TranscriptRetrievalException("dQw4w9WgXcQ", "Error"));
+
+        assertThat(transcript.fetchAsync())
+                .failsWithin(Duration.ofSeconds(1))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(TranscriptRetrievalException.class);
+    }
+
     @Test
     void translatesTranscript() throws Exception {
         Transcript translatedTranscript = transcript.translate("af");
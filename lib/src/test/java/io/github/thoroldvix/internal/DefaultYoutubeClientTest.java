@@ -1,5 +1,8 @@
 package io.github.thoroldvix.internal;
 
+import io.github.thoroldvix.api.CircuitBreaker;
+import io.github.thoroldvix.api.RateLimiter;
+import io.github.thoroldvix.api.RetryPolicy;
 import io.github.thoroldvix.api.TranscriptRetrievalException;
 import io.github.thoroldvix.api.YoutubeClient;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,14 +18,26 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static io.github.thoroldvix.api.YtApiV3Endpoint.PLAYLIST_ITEMS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,20 +53,45 @@ class DefaultYoutubeClientTest {
     private HttpClient httpClient;
     @Captor
     private ArgumentCaptor<HttpRequest> requestCaptor;
+    @Captor
+    private ArgumentCaptor<HttpResponse.BodyHandler<String>> bodyHandlerCaptor;
 
     private YoutubeClient youtubeClient;
 
+    private static RetryPolicy.Builder retryPolicy() {
+        return RetryPolicy.builder()
+                .initialBackoff(Duration.ofMillis(1))
+                .maxBackoff(Duration.ofMillis(1));
+    }
+
+    private static HttpHeaders headers(Map<String, List<String>> headers) {
+        return HttpHeaders.of(headers, (name, value) -> true);
+    }
+
     @BeforeEach
     void setUp() {
         youtubeClient = new DefaultYoutubeClient(httpClient);
     }
 
-    private void givenResponse(String expected) throws IOException, InterruptedException {
-        when(httpClient.send(requestCaptor.capture(), any(HttpResponse.BodyHandlers.ofString().getClass()))).thenReturn(response);
+    private void givenResponse(String expected) {
+        when(httpClient.sendAsync(requestCaptor.capture(), any(HttpResponse.BodyHandler.class))).thenReturn(CompletableFuture.completedFuture(response));
         when(response.statusCode()).thenReturn(200);
         when(response.body()).thenReturn(expected);
     }
 
+    private void givenStatusCode(int statusCode) {
+        when(httpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(CompletableFuture.completedFuture(response));
+        when(response.statusCode()).thenReturn(statusCode);
+    }
+
+    private void givenFailure(Throwable throwable) {
+        when(httpClient.sendAsync(any(), any())).thenReturn(CompletableFuture.failedFuture(throwable));
+    }
+
+    private void givenPendingResponse() {
+        when(httpClient.sendAsync(any(), any())).thenReturn(new CompletableFuture<>());
+    }
+
     @Test
     void get() throws Exception {
         String expected = "<html></html>";
@@ -65,41 +105,66 @@ class DefaultYoutubeClientTest {
         assertThat(request.uri()).isEqualTo(URI.create(VIDEO_URL));
         assertThat(request.headers().map().get("Cookie")).contains("test");
         assertThat(request.headers().map().get("Accept-Language")).contains("en-US");
+        assertThat(request.headers().firstValue("Accept-Encoding")).contains("gzip, deflate");
+    }
+
+    @Test
+    void getAsync() throws Exception {
+        String expected = "<html></html>";
+        givenResponse(expected);
+
+        String actual = youtubeClient.getAsync(VIDEO_URL, HEADERS).get();
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(requestCaptor.getValue().uri()).isEqualTo(URI.create(VIDEO_URL));
+    }
+
+    @Test
+    void getAsyncCompletesExceptionallyWhenIOExceptionOccurs() {
+        givenFailure(new IOException());
+
+        assertThat(youtubeClient.getAsync(VIDEO_URL, HEADERS))
+                .failsWithin(Duration.ofSeconds(1))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(TranscriptRetrievalException.class);
     }
 
     @ParameterizedTest
     @ValueSource(ints = {500, 404})
-    void getThrowsExceptionIfResponseIsNotOk(int statusCode) throws Exception {
-        when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandlers.ofString().getClass()))).thenReturn(response);
-        when(response.statusCode()).thenReturn(statusCode);
+    void getThrowsExceptionIfResponseIsNotOk(int statusCode) {
+        givenStatusCode(statusCode);
 
         assertThatThrownBy(() -> youtubeClient.get(VIDEO_URL, HEADERS))
-                .isInstanceOf(TranscriptRetrievalException.class);
+                .isInstanceOfSatisfying(TranscriptRetrievalException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(statusCode);
+                    assertThat(e.isRetryable()).isEqualTo(statusCode == 500);
+                });
     }
 
     @Test
-    void getThrowsExceptionWhenIOExceptionOccurs() throws Exception {
-        when(httpClient.send(any(), any())).thenThrow(new IOException());
+    void getThrowsExceptionWhenIOExceptionOccurs() {
+        givenFailure(new IOException());
 
         assertThatThrownBy(() -> youtubeClient.get(VIDEO_URL, HEADERS))
                 .isInstanceOf(TranscriptRetrievalException.class);
     }
 
     @Test
-    void getThrowsExceptionWhenInterruptedExceptionOccurs() throws Exception {
-        when(httpClient.send(any(), any())).thenThrow(new InterruptedException());
+    void getThrowsExceptionWhenInterruptedExceptionOccurs() {
+        givenPendingResponse();
+
+        Thread.currentThread().interrupt();
 
         assertThatThrownBy(() -> youtubeClient.get(VIDEO_URL, HEADERS))
                 .isInstanceOf(TranscriptRetrievalException.class);
+        assertThat(Thread.interrupted()).isTrue();
     }
 
     @Test
     void getToApiEndpoint() throws Exception {
         String expected = "expected response";
 
-        when(httpClient.send(requestCaptor.capture(), any(HttpResponse.BodyHandlers.ofString().getClass()))).thenReturn(response);
-        when(response.statusCode()).thenReturn(200);
-        when(response.body()).thenReturn(expected);
+        givenResponse(expected);
 
         String actual = youtubeClient.get(PLAYLIST_ITEMS, PARAMS);
 
@@ -113,27 +178,385 @@ class DefaultYoutubeClientTest {
 
     @ParameterizedTest
     @ValueSource(ints = {500, 404})
-    void getToApiEndpointThrowsExceptionIfResponseIsNotOk(int statusCode) throws Exception {
-        when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandlers.ofString().getClass()))).thenReturn(response);
-        when(response.statusCode()).thenReturn(statusCode);
+    void getToApiEndpointThrowsExceptionIfResponseIsNotOk(int statusCode) {
+        givenStatusCode(statusCode);
 
         assertThatThrownBy(() -> youtubeClient.get(PLAYLIST_ITEMS, PARAMS))
                 .isInstanceOf(TranscriptRetrievalException.class);
     }
 
     @Test
-    void getToApiEndpointThrowsExceptionWhenIOExceptionOccurs() throws Exception {
-        when(httpClient.send(any(), any())).thenThrow(new IOException());
+    void getToApiEndpointThrowsExceptionWhenIOExceptionOccurs() {
+        givenFailure(new IOException());
 
         assertThatThrownBy(() -> youtubeClient.get(PLAYLIST_ITEMS, PARAMS))
                 .isInstanceOf(TranscriptRetrievalException.class);
     }
 
     @Test
-    void getToApiEndpointThrowsExceptionWhenInterruptedExceptionOccurs() throws Exception {
-        when(httpClient.send(any(), any())).thenThrow(new InterruptedException());
+    void getToApiEndpointThrowsExceptionWhenInterruptedExceptionOccurs() {
+        givenPendingResponse();
+
+        Thread.currentThread().interrupt();
+
+        assertThatThrownBy(() -> youtubeClient.get(PLAYLIST_ITEMS, PARAMS))
+                .isInstanceOf(TranscriptRetrievalException.class);
+        assertThat(Thread.interrupted()).isTrue();
+    }
+
+    @Test
+    void getAppliesRequestTimeout() throws Exception {
+        youtubeClient = new DefaultYoutubeClientBuilder()
+                .httpClient(httpClient)
+                .requestTimeout(Duration.ofSeconds(5))
+                .build();
+        givenResponse("<html></html>");
+
+        youtubeClient.get(VIDEO_URL, HEADERS);
+
+        assertThat(requestCaptor.getValue().timeout()).contains(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void getLimitsRequestTimeoutToTimeRemainingUntilDeadline() throws Exception {
+        DefaultYoutubeClient client = new DefaultYoutubeClient(httpClient);
+        givenResponse("<html></html>");
+
+        client.withDeadline(new Deadline(Duration.ofSeconds(2), () -> 0)).get(VIDEO_URL, HEADERS);
+
+        assertThat(requestCaptor.getValue().timeout()).contains(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void getFailsWithoutSendingRequestWhenDeadlineExpired() {
+        AtomicLong clock = new AtomicLong();
+        YoutubeClient client = new DefaultYoutubeClient(httpClient).withDeadline(new Deadline(Duration.ofSeconds(1), clock::get));
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        assertThatThrownBy(() -> client.get(VIDEO_URL, HEADERS))
+                .isInstanceOfSatisfying(TranscriptRetrievalException.class, e -> assertThat(e.isRetryable()).isFalse());
+        verify(httpClient, never()).sendAsync(any(), any());
+    }
+
+    @Test
+    void getAsyncFailsWhenResponseIsNotReceivedBeforeDeadline() {
+        givenPendingResponse();
+        YoutubeClient client = new DefaultYoutubeClient(httpClient).withDeadline(Deadline.after(Duration.ofMillis(50)));
+
+        assertThat(client.getAsync(VIDEO_URL, HEADERS))
+                .failsWithin(Duration.ofSeconds(1))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(TranscriptRetrievalException.class);
+    }
+
+    @Test
+    void getAsyncAbortsRequestWhenResponseIsNotReceivedBeforeDeadline() {
+        CompletableFuture<HttpResponse<String>> pending = new CompletableFuture<>();
+        when(httpClient.sendAsync(any(), bodyHandlerCaptor.capture())).thenReturn(pending);
+        YoutubeClient client = new DefaultYoutubeClient(httpClient).withDeadline(Deadline.after(Duration.ofMillis(200)));
+        HttpResponse.ResponseInfo responseInfo = mock(HttpResponse.ResponseInfo.class);
+        when(responseInfo.headers()).thenReturn(headers(Map.of()));
+        AtomicBoolean subscriptionCancelled = new AtomicBoolean();
+
+        assertThat(client.getAsync(VIDEO_URL, HEADERS)).failsWithin(Duration.ofSeconds(1));
+        bodyHandlerCaptor.getValue().apply(responseInfo).onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+                subscriptionCancelled.set(true);
+            }
+        });
+
+        assertThat(pending).isCancelled();
+        assertThat(subscriptionCancelled).isTrue();
+    }
+
+    @Test
+    void withDeadlineReturnsSameClientWithoutCallTimeout() {
+        DefaultYoutubeClient client = new DefaultYoutubeClient(httpClient);
+
+        assertThat(client.withDeadline()).isSameAs(client);
+    }
+
+    @Test
+    void warmUpOpensConnectionsToYoutubeAndDataApi() {
+        when(httpClient.version()).thenReturn(HttpClient.Version.HTTP_1_1);
+        youtubeClient = new DefaultYoutubeClientBuilder()
+                .httpClient(httpClient)
+                .warmUpConnections(2)
+                .build();
+        when(httpClient.sendAsync(requestCaptor.capture(), any(HttpResponse.BodyHandler.class))).thenReturn(CompletableFuture.completedFuture(response));
+
+        assertThat(youtubeClient.warmUpAsync()).isCompleted();
+
+        assertThat(requestCaptor.getAllValues())
+                .extracting(request -> request.uri().getHost())
+                .containsExactly("www.youtube.com", "www.youtube.com", "www.googleapis.com", "www.googleapis.com");
+        assertThat(requestCaptor.getAllValues()).allSatisfy(request -> assertThat(request.method()).isEqualTo("HEAD"));
+    }
+
+    @Test
+    void warmUpOpensSingleConnectionPerHostWithHttp2() {
+        when(httpClient.version()).thenReturn(HttpClient.Version.HTTP_2);
+        youtubeClient = new DefaultYoutubeClientBuilder()
+                .httpClient(httpClient)
+                .warmUpConnections(2)
+                .build();
+        when(httpClient.sendAsync(requestCaptor.capture(), any(HttpResponse.BodyHandler.class))).thenReturn(CompletableFuture.completedFuture(response));
+
+        assertThat(youtubeClient.warmUpAsync()).isCompleted();
+
+        assertThat(requestCaptor.getAllValues())
+                .extracting(request -> request.uri().getHost())
+                .containsExactly("www.youtube.com", "www.googleapis.com");
+    }
+
+    @Test
+    void warmUpFailsWhenConnectionCannotBeOpened() {
+        givenFailure(new IOException("Connection refused"));
+
+        assertThat(youtubeClient.warmUpAsync())
+                .failsWithin(Duration.ofSeconds(1))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(TranscriptRetrievalException.class);
+    }
+
+    @Test
+    void getAsyncWaitsForPermitWhenHostLimitReached() {
+        youtubeClient = new DefaultYoutubeClientBuilder()
+                .httpClient(httpClient)
+                .maxConcurrentRequestsPerHost(1)
+                .build();
+        CompletableFuture<HttpResponse<String>> firstResponse = new CompletableFuture<>();
+        when(httpClient.sendAsync(any(), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(firstResponse)
+                .thenReturn(CompletableFuture.completedFuture(response));
+        when(response.statusCode()).thenReturn(200);
+
+        youtubeClient.getAsync(VIDEO_URL, HEADERS);
+        CompletableFuture<String> second = youtubeClient.getAsync(VIDEO_URL, HEADERS);
+
+        verify(httpClient, times(1)).sendAsync(any(), any());
+        assertThat(second).isNotDone();
+
+        firstResponse.complete(response);
+
+        verify(httpClient, times(2)).sendAsync(any(), any());
+        assertThat(second).isDone();
+    }
+
+    @Test
+    void getDoesNotRequestCompressionWhenDisabled() throws Exception {
+        youtubeClient = new DefaultYoutubeClientBuilder()
+                .httpClient(httpClient)
+                .compression(false)
+                .build();
+        givenResponse("<html></html>");
+
+        youtubeClient.get(VIDEO_URL, HEADERS);
+
+        assertThat(requestCaptor.getValue().headers().firstValue("Accept-Encoding")).isEmpty();
+    }
+
+    @Test
+    void getAsyncWaitsForTokenWhenRateLimitReached() {
+        youtubeClient = new DefaultYoutubeClientBuilder()
+                .httpClient(httpClient)
+                .rateLimiter(TranscriptApiFactory.rateLimiterBuilder()
+                        .videoPages(0.001, 1)
+                        .build())
+                .build();
+        givenResponse("<html></html>");
+
+        CompletableFuture<String> first = youtubeClient.getAsync(VIDEO_URL, HEADERS);
+        CompletableFuture<String> second = youtubeClient.getAsync(VIDEO_URL, HEADERS);
+
+        assertThat(first).isCompletedWithValue("<html></html>");
+        assertThat(second).isNotDone();
+        verify(httpClient, times(1)).sendAsync(any(), any());
+    }
+
+    @Test
+    void rateLimitBudgetsAreSeparate() throws Exception {
+        youtubeClient = new DefaultYoutubeClientBuilder()
+                .httpClient(httpClient)
+                .rateLimiter(TranscriptApiFactory.rateLimiterBuilder()
+                        .videoPages(0.001, 1)
+                        .build())
+                .build();
+        givenResponse("{}");
+
+        youtubeClient.get(VIDEO_URL, HEADERS);
+        youtubeClient.get("https://www.youtube.com/api/timedtext?v=dQw4w9WgXcQ", HEADERS);
+        youtubeClient.get(PLAYLIST_ITEMS, PARAMS);
+
+        verify(httpClient, times(3)).sendAsync(any(), any());
+    }
+
+    @Test
+    void rateLimiterNotBuiltByFactoryIsRejected() {
+        RateLimiter rateLimiter = new RateLimiter() {
+        };
+
+        assertThatThrownBy(() -> new DefaultYoutubeClientBuilder().rateLimiter(rateLimiter))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getRetriesTransientFailure() throws Exception {
+        youtubeClient = new DefaultYoutubeClientBuilder()
+                .httpClient(httpClient)
+                .retryPolicy(retryPolicy().build())
+                .build();
+        when(httpClient.sendAsync(any(), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("Connection reset")))
+                .thenReturn(CompletableFuture.completedFuture(response));
+        when(response.statusCode()).thenReturn(200);
+        when(response.body()).thenReturn("<html></html>");
+
+        String actual = youtubeClient.get(VIDEO_URL, HEADERS);
+
+        assertThat(actual).isEqualTo("<html></html>");
+        verify(httpClient, times(2)).sendAsync(any(), any());
+    }
+
+    @Test
+    void getRetriesServerErrorUpToMaxAttempts() {
+        youtubeClient = new DefaultYoutubeClientBuilder()
+                .httpClient(httpClient)
+                .retryPolicy(retryPolicy().maxAttempts(3).build())
+                .build();
+        givenStatusCode(503);
+        when(response.headers()).thenReturn(headers(Map.of()));
+
+        assertThatThrownBy(() -> youtubeClient.get(VIDEO_URL, HEADERS))
+                .isInstanceOfSatisfying(TranscriptRetrievalException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(503);
+                    assertThat(e.isRetryable()).isTrue();
+                });
+        verify(httpClient, times(3)).sendAsync(any(), any());
+    }
+
+    @Test
+    void getDoesNotRetryClientError() {
+        youtubeClient = new DefaultYoutubeClientBuilder()
+                .httpClient(httpClient)
+                .retryPolicy(retryPolicy().build())
+                .build();
+        givenStatusCode(404);
 
         assertThatThrownBy(() -> youtubeClient.get(PLAYLIST_ITEMS, PARAMS))
                 .isInstanceOf(TranscriptRetrievalException.class);
+        verify(httpClient, times(1)).sendAsync(any(), any());
+    }
+
+    @Test
+    void getDoesNotRetryWhenRetryAfterExceedsMaxBackoff() {
+        youtubeClient = new DefaultYoutubeClientBuilder()
+                .httpClient(httpClient)
+                .retryPolicy(retryPolicy().build())
+                .build();
+        givenStatusCode(429);
+        when(response.headers()).thenReturn(headers(Map.of("Retry-After", List.of("120"))));
+
+        assertThatThrownBy(() -> youtubeClient.get(VIDEO_URL, HEADERS))
+                .isInstanceOfSatisfying(TranscriptRetrievalException.class, e -> assertThat(e.isRetryable()).isTrue());
+        verify(httpClient, times(1)).sendAsync(any(), any());
+    }
+
+    @Test
+    void retryBudgetIsSharedByRequests() {
+        DefaultYoutubeClient client = new DefaultYoutubeClient(new DefaultYoutubeClientBuilder()
+                .httpClient(httpClient)
+                .retryPolicy(retryPolicy().maxAttempts(3).retryBudget(1).build()));
+        givenFailure(new IOException("Connection reset"));
+        YoutubeClient bulkClient = client.withRetryBudget();
+
+        assertThatThrownBy(() -> bulkClient.get(VIDEO_URL, HEADERS))
+                .isInstanceOf(TranscriptRetrievalException.class);
+        assertThatThrownBy(() -> bulkClient.get(VIDEO_URL, HEADERS))
+                .isInstanceOf(TranscriptRetrievalException.class);
+
+        verify(httpClient, times(3)).sendAsync(any(), any());
+    }
+
+    @Test
+    void getFailsFastWhenCircuitBreakerIsOpen() {
+        youtubeClient = new DefaultYoutubeClientBuilder()
+                .httpClient(httpClient)
+                .circuitBreaker(TranscriptApiFactory.circuitBreakerBuilder()
+                        .failureThreshold(2)
+                        .build())
+                .build();
+        givenStatusCode(429);
+
+        assertThatThrownBy(() -> youtubeClient.get(VIDEO_URL, HEADERS)).isInstanceOf(TranscriptRetrievalException.class);
+        assertThatThrownBy(() -> youtubeClient.get(VIDEO_URL, HEADERS)).isInstanceOf(TranscriptRetrievalException.class);
+        assertThatThrownBy(() -> youtubeClient.get(VIDEO_URL, HEADERS))
+                .isInstanceOfSatisfying(TranscriptRetrievalException.class, e -> assertThat(e.isRetryable()).isTrue());
+
+        verify(httpClient, times(2)).sendAsync(any(), any());
+    }
+
+    @Test
+    void captchaPageCountsAsBlockedRequest() throws Exception {
+        CircuitBreaker circuitBreaker = TranscriptApiFactory.circuitBreakerBuilder()
+                .failureThreshold(1)
+                .build();
+        youtubeClient = new DefaultYoutubeClientBuilder()
+                .httpClient(httpClient)
+                .circuitBreaker(circuitBreaker)
+                .build();
+        givenResponse("<div class=\"g-recaptcha\"></div>");
+
+        youtubeClient.get(VIDEO_URL, HEADERS);
+
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void videoPageWithCaptionsDoesNotCountAsBlockedRequest() throws Exception {
+        CircuitBreaker circuitBreaker = TranscriptApiFactory.circuitBreakerBuilder()
+                .failureThreshold(1)
+                .build();
+        youtubeClient = new DefaultYoutubeClientBuilder()
+                .httpClient(httpClient)
+                .circuitBreaker(circuitBreaker)
+                .build();
+        givenResponse("\"captions\":{\"a\":\"class=\\\"g-recaptcha\\\"\"}");
+
+        youtubeClient.get(VIDEO_URL, HEADERS);
+
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void transcriptIsNotSearchedForCaptcha() throws Exception {
+        CircuitBreaker circuitBreaker = TranscriptApiFactory.circuitBreakerBuilder()
+                .failureThreshold(1)
+                .build();
+        youtubeClient = new DefaultYoutubeClientBuilder()
+                .httpClient(httpClient)
+                .circuitBreaker(circuitBreaker)
+                .build();
+        givenResponse("<transcript><text start=\"0\" dur=\"1\">class=\"g-recaptcha\"</text></transcript>");
+
+        youtubeClient.get("https://www.youtube.com/api/timedtext?v=dQw4w9WgXcQ", HEADERS);
+
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void getToApiEndpointSendsIfNoneMatch() throws Exception {
+        when(httpClient.sendAsync(requestCaptor.capture(), any(HttpResponse.BodyHandler.class))).thenReturn(CompletableFuture.completedFuture(response));
+        when(response.statusCode()).thenReturn(304);
+
+        String actual = youtubeClient.get(PLAYLIST_ITEMS, PARAMS, "etag");
+
+        assertThat(actual).isNull();
+        assertThat(requestCaptor.getValue().headers().firstValue("If-None-Match")).contains("\"etag\"");
     }
-}
\ No newline at end of file
+}
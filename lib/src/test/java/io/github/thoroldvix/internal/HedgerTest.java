@@ -0,0 +1,122 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.HedgePolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgerTest {
+
+    private static final HedgePolicy POLICY = HedgePolicy.builder()
+            .minDelay(Duration.ofMillis(1))
+            .maxHedgeRatio(1)
+            .build();
+    private final List<CompletableFuture<String>> requests = new ArrayList<>();
+    private final List<CompletableFuture<Void>> cancellations = new ArrayList<>();
+    private LatencyTracker latencies;
+
+    @BeforeEach
+    void setUp() {
+        latencies = new LatencyTracker(100);
+        for (int i = 0; i < 20; i++) {
+            latencies.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private Function<CompletableFuture<Void>, CompletableFuture<String>> pendingRequest() {
+        return cancelled -> {
+            CompletableFuture<String> request = new CompletableFuture<>();
+            requests.add(request);
+            cancellations.add(cancelled);
+            return request;
+        };
+    }
+
+    @Test
+    void sendsHedgeWhenRequestIsSlow() throws Exception {
+        Hedger hedger = new Hedger(POLICY, latencies);
+
+        CompletableFuture<String> result = hedger.send(pendingRequest());
+        Thread.sleep(100);
+
+        assertThat(requests).hasSize(2);
+        requests.get(1).complete("hedge");
+
+        assertThat(result).isCompletedWithValue("hedge");
+        assertThat(cancellations.get(0)).isDone();
+    }
+
+    @Test
+    void doesNotHedgeFastRequest() throws Exception {
+        Hedger hedger = new Hedger(POLICY, latencies);
+
+        CompletableFuture<String> result = hedger.send(cancelled -> CompletableFuture.completedFuture("first"));
+        Thread.sleep(100);
+
+        assertThat(result).isCompletedWithValue("first");
+    }
+
+    @Test
+    void doesNotHedgeWithoutEnoughLatencySamples() throws Exception {
+        Hedger hedger = new Hedger(POLICY, new LatencyTracker(100));
+
+        hedger.send(pendingRequest());
+        Thread.sleep(100);
+
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    void limitsHedgesToFractionOfRequests() throws Exception {
+        Hedger hedger = new Hedger(HedgePolicy.builder()
+                .minDelay(Duration.ofMillis(1))
+                .maxHedgeRatio(0.5)
+                .build(), latencies);
+
+        hedger.send(pendingRequest());
+        Thread.sleep(100);
+        hedger.send(pendingRequest());
+        Thread.sleep(100);
+
+        assertThat(requests).hasSize(3);
+    }
+
+    @Test
+    void waitsForHedgeWhenFirstRequestFails() throws Exception {
+        Hedger hedger = new Hedger(POLICY, latencies);
+
+        CompletableFuture<String> result = hedger.send(pendingRequest());
+        Thread.sleep(100);
+        requests.get(0).completeExceptionally(new IOException());
+
+        assertThat(result).isNotDone();
+
+        requests.get(1).complete("hedge");
+
+        assertThat(result.get()).isEqualTo("hedge");
+    }
+
+    @Test
+    void failsWhenAllRequestsFail() throws Exception {
+        Hedger hedger = new Hedger(POLICY, latencies);
+
+        CompletableFuture<String> result = hedger.send(pendingRequest());
+        Thread.sleep(100);
+        requests.get(0).completeExceptionally(new IOException());
+        requests.get(1).completeExceptionally(new IOException());
+
+        assertThat(result).failsWithin(Duration.ofSeconds(1))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.TranscriptContent;
+import io.github.thoroldvix.api.TranscriptRetrievalException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Json3TranscriptContentExtractorTest {
+
+    private static final String VIDEO_ID = "dQw4w9WgXcQ";
+
+    private final Json3TranscriptContentExtractor extractor = new Json3TranscriptContentExtractor(VIDEO_ID);
+
+    @Test
+    void extractsFragmentsWithWordTimings() throws Exception {
+        String json = Files.readString(Path.of("src/test/resources/transcript.json3"));
+
+        TranscriptContent content = extractor.extract(json);
+
+        assertThat(content.getContent()).containsExactly(
+                new DefaultTranscriptContent.Fragment("Hey, this is just a test", 0.0, 1.54, List.of(
+                        new DefaultTranscriptContent.Word("Hey,", 0.0),
+                        new DefaultTranscriptContent.Word("this", 0.24),
+                        new DefaultTranscriptContent.Word("is", 0.48),
+                        new DefaultTranscriptContent.Word("just", 0.72),
+                        new DefaultTranscriptContent.Word("a", 0.96),
+                        new DefaultTranscriptContent.Word("test", 1.2))),
+                new DefaultTranscriptContent.Fragment("this is not the original transcript", 1.54, 4.16));
+    }
+
+    @Test
+    void fragmentsWithoutOffsetsHaveNoWords() throws Exception {
+        String json = "{\"events\":[{\"tStartMs\":500,\"dDurationMs\":1000,\"segs\":[{\"utf8\":\"one\"},{\"utf8\":\" two\"}]}]}";
+
+        TranscriptContent content = extractor.extract(json);
+
+        assertThat(content.getContent()).containsExactly(new DefaultTranscriptContent.Fragment("one two", 0.5, 1.0));
+        assertThat(content.getContent().get(0).getWords()).isEmpty();
+    }
+
+    @Test
+    void throwsExceptionWhenJsonIsMalformed() {
+        assertThatThrownBy(() -> extractor.extract("<transcript></transcript>"))
+                .isInstanceOf(TranscriptRetrievalException.class)
+                .hasMessageContaining("Failed to parse transcript content JSON.");
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.thoroldvix.internal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyTrackerTest {
+
+    @Test
+    void computesPercentiles() {
+        LatencyTracker tracker = new LatencyTracker(100);
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i);
+        }
+
+        assertThat(tracker.percentile(0.5)).isEqualTo(50);
+        assertThat(tracker.percentile(0.95)).isEqualTo(95);
+        assertThat(tracker.percentile(0.99)).isEqualTo(99);
+    }
+
+    @Test
+    void keepsMostRecentSamples() {
+        LatencyTracker tracker = new LatencyTracker(10);
+        for (int i = 0; i < 10; i++) {
+            tracker.record(1000);
+        }
+        for (int i = 0; i < 10; i++) {
+            tracker.record(1);
+        }
+
+        assertThat(tracker.size()).isEqualTo(10);
+        assertThat(tracker.percentile(0.99)).isEqualTo(1);
+    }
+
+    @Test
+    void returnsMinusOneWithoutSamples() {
+        assertThat(new LatencyTracker(10).percentile(0.5)).isEqualTo(-1);
+    }
+}
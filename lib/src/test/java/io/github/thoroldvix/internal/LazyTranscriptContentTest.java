@@ -0,0 +1,67 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.TranscriptContent;
+import io.github.thoroldvix.api.TranscriptRetrievalException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LazyTranscriptContentTest {
+
+    private static final String VIDEO_ID = "dQw4w9WgXcQ";
+
+    @Test
+    void parsesSameFragmentsAsEagerExtraction() throws Exception {
+        String xml = Files.readString(Path.of("src/test/resources/transcript.xml"));
+
+        TranscriptContent content = LazyTranscriptContent.of(VIDEO_ID, xml);
+
+        assertThat(content.getContent()).isEqualTo(new TranscriptContentExtractor(VIDEO_ID).extract(xml).getContent());
+    }
+
+    @Test
+    void countsFragmentsWithoutBlankOnes() throws Exception {
+        String xml = Files.readString(Path.of("src/test/resources/transcript.xml"));
+
+        TranscriptContent content = LazyTranscriptContent.of(VIDEO_ID, xml);
+
+        assertThat(content.size()).isEqualTo(3);
+    }
+
+    @Test
+    void keepsRawContent() throws Exception {
+        String xml = "<transcript><text start=\"0\" dur=\"1\">Grüße</text></transcript>";
+
+        TranscriptContent content = LazyTranscriptContent.of(VIDEO_ID, xml);
+
+        assertThat(content.getRawContent()).hasValueSatisfying(raw ->
+                assertThat(StandardCharsets.UTF_8.decode(raw).toString()).isEqualTo(xml));
+    }
+
+    @Test
+    void keepsRawContentReadOnly() throws Exception {
+        TranscriptContent content = LazyTranscriptContent.of(VIDEO_ID, "<transcript><text start=\"0\" dur=\"1\">a</text></transcript>");
+
+        assertThat(content.getRawContent()).hasValueSatisfying(raw -> assertThat(raw.isReadOnly()).isTrue());
+    }
+
+    @Test
+    void throwsExceptionWhenXmlIsNotTranscript() {
+        assertThatThrownBy(() -> LazyTranscriptContent.of(VIDEO_ID, "<html>Error</html>"))
+                .isInstanceOf(TranscriptRetrievalException.class);
+    }
+
+    @Test
+    void throwsExceptionWhenFragmentsCannotBeParsedOnAccess() throws Exception {
+        TranscriptContent content = LazyTranscriptContent.of(VIDEO_ID, "<transcript><text start=\"0\" dur=\"1\">a &bogus; b</text></transcript>");
+
+        assertThatThrownBy(content::getContent)
+                .isInstanceOf(IllegalStateException.class)
+                .hasCauseInstanceOf(TranscriptRetrievalException.class);
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.Transcript;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LazyTranscriptMapTest {
+
+    private static final String VIDEO_ID = "dQw4w9WgXcQ";
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final Function<CaptionTrack, Transcript> transcriptFactory = track -> {
+        created.incrementAndGet();
+        return new DefaultTranscript(null, VIDEO_ID, track.baseUrl(), track.name(), track.languageCode(), track.generated(), Map.of());
+    };
+    private final LazyTranscriptMap transcripts = new LazyTranscriptMap(List.of(
+            new CaptionTrack("https://www.youtube.com/api/timedtext?lang=en", "English", "en", false),
+            new CaptionTrack("https://www.youtube.com/api/timedtext?lang=de", "German", "de", false)
+    ), transcriptFactory);
+
+    @Test
+    void looksUpLanguageCodesWithoutCreatingTranscripts() {
+        assertThat(transcripts.containsKey("de")).isTrue();
+        assertThat(transcripts.containsKey("fr")).isFalse();
+        assertThat(transcripts.keySet()).containsExactly("en", "de");
+
+        assertThat(created).hasValue(0);
+    }
+
+    @Test
+    void createsTranscriptOnceWhenFirstAccessed() {
+        Transcript transcript = transcripts.get("de");
+
+        assertThat(transcript.getLanguage()).isEqualTo("German");
+        assertThat(transcripts.get("de")).isSameAs(transcript);
+        assertThat(transcripts.get("fr")).isNull();
+        assertThat(created).hasValue(1);
+    }
+
+    @Test
+    void equalsMapOfSameTranscripts() {
+        Map<String, Transcript> expected = Map.of(
+                "en", transcriptFactory.apply(new CaptionTrack("https://www.youtube.com/api/timedtext?lang=en", "English", "en", false)),
+                "de", transcriptFactory.apply(new CaptionTrack("https://www.youtube.com/api/timedtext?lang=de", "German", "de", false)));
+
+        assertThat(transcripts).isEqualTo(expected);
+        assertThat(transcripts.hashCode()).isEqualTo(expected.hashCode());
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.TranscriptRetrievalException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("unchecked")
+class ProxyPoolYoutubeClientTest {
+
+    private static final String VIDEO_URL = "https://www.youtube.com/watch?v=dQw4w9WgXcQ";
+    private static final Map<String, String> HEADERS = Map.of("Accept-Language", "en-US");
+    private static final Duration QUARANTINE = Duration.ofMinutes(1);
+    private final AtomicLong clock = new AtomicLong();
+    @Mock
+    private HttpClient firstHttpClient;
+    @Mock
+    private HttpClient secondHttpClient;
+    @Mock
+    private HttpResponse<String> response;
+
+    private ProxyPoolYoutubeClient pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ProxyPoolYoutubeClient(List.of(
+                new DefaultYoutubeClient(new DefaultYoutubeClientBuilder(), firstHttpClient),
+                new DefaultYoutubeClient(new DefaultYoutubeClientBuilder(), secondHttpClient)
+        ), QUARANTINE, clock::get);
+    }
+
+    private void givenOkResponse() {
+        when(response.statusCode()).thenReturn(200);
+        when(response.body()).thenReturn("<html></html>");
+    }
+
+    @Test
+    void spreadsRequestsAcrossProxies() {
+        when(firstHttpClient.sendAsync(any(), any(HttpResponse.BodyHandler.class))).thenReturn(new CompletableFuture<>());
+        when(secondHttpClient.sendAsync(any(), any(HttpResponse.BodyHandler.class))).thenReturn(new CompletableFuture<>());
+
+        pool.getAsync(VIDEO_URL, HEADERS);
+        pool.getAsync(VIDEO_URL, HEADERS);
+
+        verify(firstHttpClient, times(1)).sendAsync(any(), any());
+        verify(secondHttpClient, times(1)).sendAsync(any(), any());
+    }
+
+    @Test
+    void prefersProxyWithLowerLatency() throws Exception {
+        givenOkResponse();
+        CompletableFuture<HttpResponse<String>> slowResponse = new CompletableFuture<>();
+        CompletableFuture<HttpResponse<String>> fastResponse = new CompletableFuture<>();
+        when(firstHttpClient.sendAsync(any(), any(HttpResponse.BodyHandler.class))).thenReturn(slowResponse);
+        when(secondHttpClient.sendAsync(any(), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(fastResponse)
+                .thenReturn(CompletableFuture.completedFuture(response));
+
+        pool.getAsync(VIDEO_URL, HEADERS);
+        pool.getAsync(VIDEO_URL, HEADERS);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+        fastResponse.complete(response);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(90));
+        slowResponse.complete(response);
+
+        pool.get(VIDEO_URL, HEADERS);
+
+        verify(firstHttpClient, times(1)).sendAsync(any(), any());
+        verify(secondHttpClient, times(2)).sendAsync(any(), any());
+    }
+
+    @Test
+    void quarantinesFailingProxy() throws Exception {
+        givenOkResponse();
+        when(firstHttpClient.sendAsync(any(), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("Connection refused")));
+        when(secondHttpClient.sendAsync(any(), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> pool.get(VIDEO_URL, HEADERS))
+                    .isInstanceOf(TranscriptRetrievalException.class);
+        }
+
+        assertThat(pool.isQuarantined(0)).isTrue();
+        assertThat(pool.get(VIDEO_URL, HEADERS)).isEqualTo("<html></html>");
+        verify(firstHttpClient, times(5)).sendAsync(any(), any());
+
+        clock.addAndGet(QUARANTINE.toNanos());
+
+        assertThat(pool.isQuarantined(0)).isFalse();
+    }
+
+    @Test
+    void failsWhenAllProxiesAreQuarantined() {
+        pool = new ProxyPoolYoutubeClient(List.of(new DefaultYoutubeClient(new DefaultYoutubeClientBuilder(), firstHttpClient)),
+                QUARANTINE, clock::get);
+        when(firstHttpClient.sendAsync(any(), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("Connection refused")));
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> pool.get(VIDEO_URL, HEADERS))
+                    .isInstanceOf(TranscriptRetrievalException.class);
+        }
+
+        assertThatThrownBy(() -> pool.get(VIDEO_URL, HEADERS))
+                .isInstanceOfSatisfying(TranscriptRetrievalException.class, e -> assertThat(e.isRetryable()).isTrue());
+        verify(firstHttpClient, times(5)).sendAsync(any(), any());
+    }
+
+    @Test
+    void builderRejectsHttpClientWithProxies() {
+        DefaultYoutubeClientBuilder builder = new DefaultYoutubeClientBuilder()
+                .httpClient(firstHttpClient)
+                .proxies(List.of(InetSocketAddress.createUnresolved("proxy.example.com", 3128)));
+
+        assertThatThrownBy(builder::build)
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.RetryPolicy;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RetryPolicyTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    @RepeatedTest(10)
+    void backoffGrowsExponentiallyUpToMax() {
+        RetryPolicy policy = RetryPolicy.builder()
+                .initialBackoff(Duration.ofMillis(100))
+                .maxBackoff(Duration.ofMillis(300))
+                .build();
+
+        assertThat(Retries.backoff(policy, 1)).isBetween(Duration.ZERO, Duration.ofMillis(100));
+        assertThat(Retries.backoff(policy, 2)).isBetween(Duration.ZERO, Duration.ofMillis(200));
+        assertThat(Retries.backoff(policy, 3)).isBetween(Duration.ZERO, Duration.ofMillis(300));
+        assertThat(Retries.backoff(policy, 50)).isBetween(Duration.ZERO, Duration.ofMillis(300));
+    }
+
+    @Test
+    void parsesRetryAfterInSeconds() {
+        assertThat(Retries.parseRetryAfter("120", NOW)).contains(Duration.ofSeconds(120));
+    }
+
+    @Test
+    void parsesRetryAfterAsHttpDate() {
+        assertThat(Retries.parseRetryAfter("Mon, 01 Jan 2024 12:00:30 GMT", NOW)).contains(Duration.ofSeconds(30));
+        assertThat(Retries.parseRetryAfter("Mon, 01 Jan 2024 11:00:00 GMT", NOW)).contains(Duration.ZERO);
+    }
+
+    @Test
+    void ignoresInvalidRetryAfter() {
+        assertThat(Retries.parseRetryAfter("soon", NOW)).isEmpty();
+    }
+
+    @Test
+    void classifiesRetryableStatusCodes() {
+        assertThat(Retries.isRetryable(429)).isTrue();
+        assertThat(Retries.isRetryable(503)).isTrue();
+        assertThat(Retries.isRetryable(404)).isFalse();
+        assertThat(Retries.isRetryable(403)).isFalse();
+    }
+
+    @Test
+    void throwsExceptionGivenInvalidSettings() {
+        assertThatThrownBy(() -> RetryPolicy.builder().maxAttempts(0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RetryPolicy.builder().initialBackoff(Duration.ofSeconds(10)).maxBackoff(Duration.ofSeconds(1)).build())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
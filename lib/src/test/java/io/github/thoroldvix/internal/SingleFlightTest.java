@@ -0,0 +1,98 @@
+package io.github.thoroldvix.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private CompletableFuture<String> execute(String key, CompletableFuture<String> operation) {
+        return singleFlight.execute(key, () -> {
+            executions.incrementAndGet();
+            return operation;
+        });
+    }
+
+    @Test
+    void sharesResultOfExecutionInFlight() {
+        CompletableFuture<String> operation = new CompletableFuture<>();
+
+        CompletableFuture<String> first = execute("key", operation);
+        CompletableFuture<String> second = execute("key", new CompletableFuture<>());
+        operation.complete("result");
+
+        assertThat(first).isCompletedWithValue("result");
+        assertThat(second).isCompletedWithValue("result");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void executesDifferentKeysSeparately() {
+        execute("first", new CompletableFuture<>());
+        execute("second", new CompletableFuture<>());
+
+        assertThat(executions).hasValue(2);
+        assertThat(singleFlight.inFlightCount()).isEqualTo(2);
+    }
+
+    @Test
+    void executesAgainAfterCompletion() {
+        execute("key", CompletableFuture.completedFuture("first"));
+
+        CompletableFuture<String> second = execute("key", CompletableFuture.completedFuture("second"));
+
+        assertThat(second).isCompletedWithValue("second");
+        assertThat(executions).hasValue(2);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void sharesFailure() {
+        CompletableFuture<String> operation = new CompletableFuture<>();
+
+        CompletableFuture<String> first = execute("key", operation);
+        CompletableFuture<String> second = execute("key", new CompletableFuture<>());
+        operation.completeExceptionally(new IOException("Connection reset"));
+
+        assertThat(first)
+                .failsWithin(Duration.ofSeconds(1))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(IOException.class);
+        assertThat(second)
+                .failsWithin(Duration.ofSeconds(1))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(IOException.class);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void cancellingOneCallerDoesNotAffectOthers() {
+        CompletableFuture<String> operation = new CompletableFuture<>();
+
+        CompletableFuture<String> first = execute("key", operation);
+        CompletableFuture<String> second = execute("key", new CompletableFuture<>());
+        first.cancel(true);
+        operation.complete("result");
+
+        assertThat(second).isCompletedWithValue("result");
+    }
+
+    @Test
+    void operationThrowingExceptionFailsAndIsNotKept() {
+        CompletableFuture<String> result = singleFlight.execute("key", () -> {
+            throw new IllegalStateException("Failed");
+        });
+
+        assertThat(result).isCompletedExceptionally();
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+}
@@ -13,13 +13,19 @@ import org.junit.jupiter.params.provider.ValueSource;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class SingleVideoTranscriptRetrievalTest extends TranscriptRetrievalTest {
@@ -56,6 +62,57 @@ class SingleVideoTranscriptRetrievalTest extends TranscriptRetrievalTest {
                 .containsExactlyInAnyOrder("zh", "de", "hi", "ja", "ko", "es", "cs", "en");
     }
 
+    @Test
+    void listTranscriptsSkipsTracksWithoutName() throws Exception {
+        givenVideoPageHtml(YOUTUBE_HTML.replace("\"name\":{\"simpleText\":\"Chinesisch\"},", ""));
+
+        TranscriptList transcriptList = youtubeTranscriptApi.listTranscripts(VIDEO_ID);
+
+        assertThat(transcriptList)
+                .map(Transcript::getLanguageCode)
+                .containsExactlyInAnyOrder("de", "hi", "ja", "ko", "es", "cs", "en");
+    }
+
+    @Test
+    void listTranscriptsAsyncCoalescesConcurrentRequestsForSameVideo() throws Exception {
+        CountDownLatch videoPageRequested = new CountDownLatch(1);
+        CountDownLatch videoPageReceived = new CountDownLatch(1);
+        when(client.get(eq(YOUTUBE_WATCH_URL + VIDEO_ID), anyMap())).thenAnswer(invocation -> {
+            videoPageRequested.countDown();
+            videoPageReceived.await(5, TimeUnit.SECONDS);
+            return YOUTUBE_HTML;
+        });
+
+        CompletableFuture<TranscriptList> first = youtubeTranscriptApi.listTranscriptsAsync(VIDEO_ID);
+        videoPageRequested.await(5, TimeUnit.SECONDS);
+        CompletableFuture<TranscriptList> second = youtubeTranscriptApi.listTranscriptsAsync(VIDEO_ID);
+        videoPageReceived.countDown();
+
+        assertThat(first.get()).isSameAs(second.get());
+        verify(client, times(1)).get(eq(YOUTUBE_WATCH_URL + VIDEO_ID), anyMap());
+    }
+
+    @Test
+    void warmUpOpensClientConnections() throws Exception {
+        when(client.warmUpAsync()).thenReturn(CompletableFuture.completedFuture(null));
+
+        youtubeTranscriptApi.warmUp();
+
+        verify(client).warmUpAsync();
+    }
+
+    @Test
+    void warmUpAsyncCompletesOnceConnectionsAreOpened() {
+        CompletableFuture<Void> connections = new CompletableFuture<>();
+        when(client.warmUpAsync()).thenReturn(connections);
+
+        CompletableFuture<Void> warmUp = youtubeTranscriptApi.warmUpAsync();
+
+        assertThat(warmUp).isNotDone();
+        connections.complete(null);
+        assertThat(warmUp).succeedsWithin(Duration.ofSeconds(5));
+    }
+
     @Test
     void listTranscriptsGivenVideoPageWithInvalidCaptionsJsonThrowsException() throws Exception {
         givenVideoPageHtmlFromFile("pages/youtube_malformed_captions_json.html.static");
@@ -101,6 +158,27 @@ class SingleVideoTranscriptRetrievalTest extends TranscriptRetrievalTest {
                 new DefaultTranscriptContent.Fragment("test & test, like this \"test\" he's testing", 5.7, 3.239)));
     }
 
+    @Test
+    void getTranscriptAsync() throws Exception {
+        when(client.get(anyString(), anyMap()))
+                .thenReturn(YOUTUBE_HTML)
+                .thenReturn(TRANSCRIPT_XML);
+
+        TranscriptContent actual = youtubeTranscriptApi.getTranscriptAsync(VIDEO_ID).get();
+
+        assertThat(actual).isEqualTo(getTranscriptContent());
+    }
+
+    @Test
+    void getTranscriptAsyncCompletesExceptionallyWhenLanguageUnavailable() throws Exception {
+        givenVideoPageHtml(YOUTUBE_HTML);
+
+        assertThat(youtubeTranscriptApi.getTranscriptAsync(VIDEO_ID, "cz"))
+                .failsWithin(Duration.ofSeconds(1))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(TranscriptRetrievalException.class);
+    }
+
     @Test
     void getTranscriptCreatesConsentCookieIfNeededAndRetries() throws Exception {
         when(client.get(anyString(), anyMap()))
@@ -114,6 +192,35 @@ class SingleVideoTranscriptRetrievalTest extends TranscriptRetrievalTest {
                 "Cookie", "CONSENT=YES+cb.20210328-17-p0.de+FX+119")));
     }
 
+    @Test
+    void listTranscriptsSendsConsentCookieUpFrontOnceAccepted() throws Exception {
+        when(client.get(anyString(), anyMap()))
+                .thenReturn(CONSENT_PAGE_HTML)
+                .thenReturn(YOUTUBE_HTML);
+
+        youtubeTranscriptApi.listTranscripts(VIDEO_ID);
+        youtubeTranscriptApi.listTranscripts(VIDEO_ID);
+
+        verify(client, times(1)).get(anyString(), eq(Map.of("Accept-Language", "en-US")));
+        verify(client, times(2)).get(anyString(), eq(Map.of("Accept-Language", "en-US",
+                "Cookie", "CONSENT=YES+cb.20210328-17-p0.de+FX+119")));
+    }
+
+    @Test
+    void listTranscriptsRenewsConsentCookieWhenConsentPageShowsUpAgain() throws Exception {
+        when(client.get(anyString(), anyMap()))
+                .thenReturn(CONSENT_PAGE_HTML)
+                .thenReturn(YOUTUBE_HTML)
+                .thenReturn(CONSENT_PAGE_HTML)
+                .thenReturn(YOUTUBE_HTML);
+
+        youtubeTranscriptApi.listTranscripts(VIDEO_ID);
+        TranscriptList transcriptList = youtubeTranscriptApi.listTranscripts(VIDEO_ID);
+
+        assertThat(transcriptList).isNotEmpty();
+        verify(client, times(4)).get(anyString(), anyMap());
+    }
+
     @Test
     void getTranscriptThrowsExceptionWhenConsentCookieCreationFailed() throws Exception {
         givenVideoPageHtml(CONSENT_PAGE_HTML);
@@ -0,0 +1,66 @@
+package io.github.thoroldvix.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void allowsBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(1, 3, clock::get);
+
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isEqualTo(SECOND);
+    }
+
+    @Test
+    void pacesRequestsOverBudget() {
+        TokenBucket bucket = new TokenBucket(2, 1, clock::get);
+        bucket.reserve();
+
+        assertThat(bucket.reserve()).isEqualTo(SECOND / 2);
+        assertThat(bucket.reserve()).isEqualTo(SECOND);
+        assertThat(bucket.reserve()).isEqualTo(SECOND * 3 / 2);
+    }
+
+    @Test
+    void refillsOverTime() {
+        TokenBucket bucket = new TokenBucket(1, 2, clock::get);
+        bucket.reserve();
+        bucket.reserve();
+
+        clock.addAndGet(SECOND / 2);
+        assertThat(bucket.reserve()).isEqualTo(SECOND / 2);
+
+        clock.addAndGet(SECOND * 10);
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isEqualTo(SECOND);
+    }
+
+    @Test
+    void acquireCompletesImmediatelyWhenTokenAvailable() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+
+        assertThat(bucket.acquire()).isDone();
+        assertThat(bucket.acquire()).isNotDone();
+    }
+
+    @Test
+    void throwsExceptionGivenNonPositiveRateOrCapacity() {
+        assertThatThrownBy(() -> new TokenBucket(0, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(1, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
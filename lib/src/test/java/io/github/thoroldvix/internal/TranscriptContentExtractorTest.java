@@ -0,0 +1,138 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.TranscriptContent;
+import io.github.thoroldvix.api.TranscriptRetrievalException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TranscriptContentExtractorTest {
+
+    private static final String VIDEO_ID = "dQw4w9WgXcQ";
+
+    private final TranscriptContentExtractor extractor = new TranscriptContentExtractor(VIDEO_ID);
+
+    private static String transcript(String... texts) {
+        return "<?xml version=\"1.0\" encoding=\"utf-8\" ?><transcript>" + String.join("", texts) + "</transcript>";
+    }
+
+    @Test
+    void decodesEntitiesEscapedTwice() throws Exception {
+        TranscriptContent content = extractor.extract(transcript("<text start=\"1\" dur=\"2\">he&amp;#39;s &amp;quot;here&amp;quot; &amp;amp; there</text>"));
+
+        assertThat(content.getContent()).containsExactly(new DefaultTranscriptContent.Fragment("he's \"here\" & there", 1, 2));
+    }
+
+    @Test
+    void removesHtmlTagsBeforeDecodingEntitiesEscapedTwice() throws Exception {
+        TranscriptContent content = extractor.extract(transcript(
+                "<text start=\"1\" dur=\"2\">&lt;font color=&quot;#E5E5E5&quot;&gt;a&lt;/font&gt; &amp;lt;b&amp;gt;</text>"));
+
+        assertThat(content.getContent()).containsExactly(new DefaultTranscriptContent.Fragment("a <b>", 1, 2));
+    }
+
+    @Test
+    void skipsEmptyAndBlankFragments() throws Exception {
+        TranscriptContent content = extractor.extract(transcript(
+                "<text start=\"0\" dur=\"1\"/>",
+                "<text start=\"1\" dur=\"1\"></text>",
+                "<text start=\"2\" dur=\"1\">  \n </text>",
+                "<text start=\"3\" dur=\"1\">text</text>"));
+
+        assertThat(content.getContent()).containsExactly(new DefaultTranscriptContent.Fragment("text", 3, 1));
+    }
+
+    @Test
+    void parsesTimestampsLikeDoubleParsing() throws Exception {
+        List<String> values = List.of("0", "0.1", "1.54", "5.7", "3.239", "12345.678", "0.300", "1e1");
+        StringBuilder texts = new StringBuilder();
+        for (String value : values) {
+            texts.append("<text start=\"").append(value).append("\" dur=\"").append(value).append("\">t</text>");
+        }
+
+        TranscriptContent content = extractor.extract(transcript(texts.toString()));
+
+        assertThat(content.getContent())
+                .extracting(TranscriptContent.Fragment::getStart)
+                .containsExactlyElementsOf(values.stream().map(Double::parseDouble).toList());
+    }
+
+    @Test
+    void throwsExceptionWhenXmlIsNotTranscript() {
+        assertThatThrownBy(() -> extractor.extract("<html><body>Error</body></html>"))
+                .isInstanceOf(TranscriptRetrievalException.class)
+                .hasMessageContaining("Failed to parse transcript content XML.");
+    }
+
+    @Test
+    void throwsExceptionWhenEntityIsUnknown() {
+        assertThatThrownBy(() -> extractor.extract(transcript("<text start=\"1\" dur=\"2\">a &nbsp; b</text>")))
+                .isInstanceOf(TranscriptRetrievalException.class);
+    }
+
+    @Test
+    void parsesLargeTranscriptInChunksLikeSequentially() throws Exception {
+        String xml = largeTranscript();
+
+        TranscriptContent chunked = new TranscriptContentExtractor(VIDEO_ID, 0).extract(xml);
+        TranscriptContent sequential = new TranscriptContentExtractor(VIDEO_ID, Integer.MAX_VALUE).extract(xml);
+
+        assertThat(chunked).isEqualTo(sequential);
+        assertThat(chunked.size()).isEqualTo(40_000);
+    }
+
+    @Test
+    void parsesLargeTranscriptWithElementInTextLikeSequentially() throws Exception {
+        String malformed = largeTranscript().replace("</text>", " <text in text</text>");
+
+        TranscriptContent chunked = new TranscriptContentExtractor(VIDEO_ID, 0).extract(malformed);
+        TranscriptContent sequential = new TranscriptContentExtractor(VIDEO_ID, Integer.MAX_VALUE).extract(malformed);
+
+        assertThat(chunked).isEqualTo(sequential);
+    }
+
+    @Test
+    void throwsExceptionWhenLargeTranscriptIsTruncated() {
+        String xml = largeTranscript();
+        String truncated = xml.substring(0, xml.lastIndexOf("</text>"));
+
+        assertThatThrownBy(() -> new TranscriptContentExtractor(VIDEO_ID, 0).extract(truncated))
+                .isInstanceOf(TranscriptRetrievalException.class)
+                .hasMessageContaining("Failed to parse transcript content XML.");
+    }
+
+    @Test
+    void extractAsyncParsesLargeTranscriptLikeSequentially() throws Exception {
+        String xml = largeTranscript();
+
+        TranscriptContent chunked = new TranscriptContentExtractor(VIDEO_ID, 0).extractAsync(xml).get();
+        TranscriptContent sequential = new TranscriptContentExtractor(VIDEO_ID, Integer.MAX_VALUE).extract(xml);
+
+        assertThat(chunked).isEqualTo(sequential);
+    }
+
+    @Test
+    void extractAsyncFailsWhenLargeTranscriptIsTruncated() {
+        String xml = largeTranscript();
+        String truncated = xml.substring(0, xml.lastIndexOf("</text>"));
+
+        assertThat(new TranscriptContentExtractor(VIDEO_ID, 0).extractAsync(truncated))
+                .failsWithin(Duration.ofSeconds(10))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(TranscriptRetrievalException.class);
+    }
+
+    private static String largeTranscript() {
+        StringBuilder texts = new StringBuilder();
+        for (int i = 0; i < 40_000; i++) {
+            texts.append("<text start=\"").append(i * 1.5).append("\" dur=\"").append(i % 7 * 0.5).append("\">")
+                    .append("fragment &amp;#39;").append(i).append("&amp;#39; &lt;i&gt;of&lt;/i&gt; caf&#233;</text>");
+        }
+        return transcript(texts.toString());
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.thoroldvix.internal;
+
+import io.github.thoroldvix.api.TranscriptList;
+import io.github.thoroldvix.api.TranscriptRetrievalException;
+import io.github.thoroldvix.api.YoutubeClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+
+class TranscriptListExtractorTest {
+
+    private static final String RESOURCE_PATH = "src/test/resources/pages";
+    private static final String MALFORMED_CAPTIONS_JSON = "youtube_malformed_captions_json.html.static";
+    private static final String VIDEO_ID = "dQw4w9WgXcQ";
+
+    private final TranscriptListExtractor extractor = new TranscriptListExtractor(mock(YoutubeClient.class), VIDEO_ID, new SingleFlight<>());
+
+    static List<Path> pages() throws IOException {
+        try (Stream<Path> pages = Files.list(Path.of(RESOURCE_PATH))) {
+            return pages.filter(page -> !page.getFileName().toString().equals(MALFORMED_CAPTIONS_JSON))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("pages")
+    void parsesCaptionsJsonOfEveryPage(Path page) throws IOException {
+        VideoPage videoPage = VideoPage.scan(Files.readString(page));
+
+        Throwable thrown = catchThrowable(() -> extractor.extract(videoPage));
+
+        // pages without transcripts fail with their reason, never with a parse error
+        if (thrown != null) {
+            assertThat(thrown).isInstanceOf(TranscriptRetrievalException.class).hasNoCause();
+        }
+    }
+
+    @Test
+    void failsToParseMalformedCaptionsJson() throws IOException {
+        VideoPage videoPage = VideoPage.scan(Files.readString(Path.of(RESOURCE_PATH, MALFORMED_CAPTIONS_JSON)));
+
+        Throwable thrown = catchThrowable(() -> extractor.extract(videoPage));
+
+        assertThat(thrown).isInstanceOf(TranscriptRetrievalException.class).hasCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    void parsesLineBreaksWithinCaptionsJsonStrings() throws Exception {
+        String html = "\"captions\":{\"playerCaptionsTracklistRenderer\":{\"captionTracks\":[" +
+                      "{\"baseUrl\":\"https://www.youtube.com/api/timedtext?v=dQw4w9WgXcQ\",\"name\":{\"simpleText\":\"English\n(auto-generated)\"}," +
+                      "\"languageCode\":\"en\",\"kind\":\"asr\"}]}}";
+
+        TranscriptList transcriptList = extractor.extract(VideoPage.scan(html));
+
+        assertThat(transcriptList.findTranscript("en").getLanguage()).isEqualTo("English\n(auto-generated)");
+    }
+}
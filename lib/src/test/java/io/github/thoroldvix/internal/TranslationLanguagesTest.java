@@ -0,0 +1,30 @@
+package io.github.thoroldvix.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TranslationLanguagesTest {
+
+    @Test
+    void returnsSameTableForEqualTables() {
+        Map<String, String> first = new HashMap<>(Map.of("de", "German", "fr", "French"));
+        Map<String, String> second = new HashMap<>(Map.of("de", new String("German"), "fr", "French"));
+
+        Map<String, String> table = TranslationLanguages.canonical(first);
+
+        assertThat(table).isEqualTo(first);
+        assertThat(TranslationLanguages.canonical(second)).isSameAs(table);
+    }
+
+    @Test
+    void returnsImmutableTable() {
+        Map<String, String> table = TranslationLanguages.canonical(new HashMap<>(Map.of("es", "Spanish")));
+
+        assertThatThrownBy(() -> table.put("it", "Italian")).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
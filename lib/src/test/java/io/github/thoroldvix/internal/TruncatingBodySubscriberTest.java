@@ -0,0 +1,94 @@
+package io.github.thoroldvix.internal;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.github.thoroldvix.internal.TranscriptListExtractor.CAPTIONS_MARKER;
+import static io.github.thoroldvix.internal.TranscriptListExtractor.VIDEO_DETAILS_MARKER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TruncatingBodySubscriberTest {
+
+    private static String html;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        html = Files.readString(Path.of("src/test/resources/pages/youtube.html.static"));
+    }
+
+    private TruncatingBodySubscriber receive(String body, int chunkSize, String... markers) {
+        TruncatingBodySubscriber subscriber = new TruncatingBodySubscriber(markers);
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        });
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length && !cancelled.get(); i += chunkSize) {
+            subscriber.onNext(List.of(ByteBuffer.wrap(bytes, i, Math.min(chunkSize, bytes.length - i)).slice()));
+        }
+        if (!cancelled.get()) {
+            subscriber.onComplete();
+        }
+        return subscriber;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 4096, Integer.MAX_VALUE})
+    void stopsAfterLastMarker(int chunkSize) {
+        String expected = html.substring(0, html.indexOf(VIDEO_DETAILS_MARKER, html.indexOf(CAPTIONS_MARKER)) + VIDEO_DETAILS_MARKER.length());
+
+        TruncatingBodySubscriber subscriber = receive(html, chunkSize, CAPTIONS_MARKER, VIDEO_DETAILS_MARKER);
+
+        assertThat(subscriber.getBody().toCompletableFuture().join()).isEqualTo(expected);
+        assertThat(cancelled).isTrue();
+    }
+
+    @Test
+    void matchesMarkersInOrder() {
+        TruncatingBodySubscriber subscriber = receive("b a b c", 1, "a", "b");
+
+        assertThat(subscriber.getBody().toCompletableFuture().join()).isEqualTo("b a b");
+        assertThat(cancelled).isTrue();
+    }
+
+    @Test
+    void findsMarkerAfterPartialMatch() {
+        TruncatingBodySubscriber subscriber = receive("aabaabaac rest", 2, "aabaac");
+
+        assertThat(subscriber.getBody().toCompletableFuture().join()).isEqualTo("aabaabaac");
+    }
+
+    @Test
+    void returnsWholeBodyWhenMarkerNotFound() {
+        TruncatingBodySubscriber subscriber = receive(html, 4096, "\"notAMarker\":");
+
+        assertThat(subscriber.getBody().toCompletableFuture().join()).isEqualTo(html);
+        assertThat(cancelled).isFalse();
+    }
+
+    @Test
+    void completesExceptionallyOnError() {
+        TruncatingBodySubscriber subscriber = new TruncatingBodySubscriber(CAPTIONS_MARKER);
+        subscriber.onError(new IOException("Connection reset"));
+
+        assertThat(subscriber.getBody().toCompletableFuture()).isCompletedExceptionally();
+    }
+}
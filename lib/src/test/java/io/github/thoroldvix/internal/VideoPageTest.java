@@ -0,0 +1,120 @@
+package io.github.thoroldvix.internal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VideoPageTest {
+
+    private static final String RESOURCE_PATH = "src/test/resources/pages";
+
+    @ParameterizedTest
+    @CsvSource({
+            "youtube.html.static, CAPTIONS",
+            "youtube_no_translation.html.static, CAPTIONS",
+            "youtube_malformed_captions_json.html.static, CAPTIONS",
+            "youtube_consent_page.html.static, CONSENT",
+            "youtube_consent_page_invalid.html.static, CONSENT",
+            "youtube_too_many_requests.html.static, CAPTCHA",
+            "youtube_video_unavailable.html.static, UNAVAILABLE",
+    })
+    void classifiesPages(String fileName, VideoPage.Status expected) throws IOException {
+        String html = Files.readString(Path.of(RESOURCE_PATH, fileName));
+
+        assertThat(VideoPage.scan(html).status()).isEqualTo(expected);
+    }
+
+    @Test
+    void extractsCaptionsJsonUpToItsClosingBrace() {
+        String html = "<script>var a = {\"playabilityStatus\":{},\"captions\": {\"a\":{\"b\":\"}{\\\"\"}},\"videoDetails\":{}};</script>";
+
+        VideoPage page = VideoPage.scan(html);
+
+        assertThat(page.status()).isEqualTo(VideoPage.Status.CAPTIONS);
+        assertThat(page.captionsJson()).isEqualTo("{\"a\":{\"b\":\"}{\\\"\"}}");
+    }
+
+    @Test
+    void extractsRestOfPageIfCaptionsJsonIsNotClosed() {
+        String html = "\"captions\":{\"a\":{\"b\":1}";
+
+        assertThat(VideoPage.scan(html).captionsJson()).isEqualTo("{\"a\":{\"b\":1}");
+    }
+
+    @Test
+    void playablePageWithoutCaptionsHasNoCaptions() {
+        String html = "{\"playabilityStatus\":{\"status\":\"OK\"},\"videoDetails\":{}}";
+
+        assertThat(VideoPage.scan(html).status()).isEqualTo(VideoPage.Status.NO_CAPTIONS);
+    }
+
+    @Test
+    void extractsConsentValue() throws IOException {
+        String html = Files.readString(Path.of(RESOURCE_PATH, "youtube_consent_page.html.static"));
+
+        assertThat(VideoPage.scan(html).consentValue()).isEqualTo("cb.20210328-17-p0.de+FX+119");
+    }
+
+    @Test
+    void consentPageWithoutValueHasNoConsentValue() throws IOException {
+        String html = Files.readString(Path.of(RESOURCE_PATH, "youtube_consent_page_invalid.html.static"));
+
+        assertThat(VideoPage.scan(html).consentValue()).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "youtube.html.static",
+            "youtube_consent_page.html.static",
+            "youtube_too_many_requests.html.static",
+            "youtube_video_unavailable.html.static",
+            "youtube_transcripts_disabled.html.static",
+    })
+    void scansPageReceivedInBuffers(String fileName) throws IOException {
+        String html = Files.readString(Path.of(RESOURCE_PATH, fileName));
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        VideoPage expected = VideoPage.scan(html);
+
+        for (int size : new int[]{1, 7, 4096}) {
+            VideoPage.Scanner scanner = new VideoPage.Scanner();
+            for (int i = 0; i < bytes.length; i += size) {
+                if (scanner.scan(ByteBuffer.wrap(bytes, i, Math.min(size, bytes.length - i)).slice())) {
+                    break;
+                }
+            }
+            VideoPage page = scanner.finish();
+
+            assertThat(page.status()).isEqualTo(expected.status());
+            assertThat(page.captionsJson()).isEqualTo(expected.captionsJson());
+            assertThat(page.consentValue()).isEqualTo(expected.consentValue());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "youtube.html.static",
+            "youtube_consent_page.html.static",
+            "youtube_consent_page_invalid.html.static",
+            "youtube_too_many_requests.html.static",
+            "youtube_video_unavailable.html.static",
+            "youtube_transcripts_disabled.html.static",
+    })
+    void summaryIsScannedLikeThePage(String fileName) throws IOException {
+        VideoPage page = VideoPage.scan(Files.readString(Path.of(RESOURCE_PATH, fileName)));
+
+        VideoPage summary = VideoPage.scan(page.summary());
+
+        assertThat(summary.status()).isEqualTo(page.status());
+        assertThat(summary.captionsJson()).isEqualTo(page.captionsJson());
+        assertThat(summary.consentValue()).isEqualTo(page.consentValue());
+    }
+}